@@ -0,0 +1,85 @@
+package com.task.thinkon.dto;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.type.TypeFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of a list response, with a mapper configured like the application's: from {@link UserDTO}s,
+ * and from users already serialized as {@link UserJson}, as {@code GET /users} does for users it has seen before.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ApiResponseSerializationBenchmark {
+
+    @Param({"1", "50", "500"})
+    private int size;
+
+    private ObjectWriter writer;
+    private ObjectWriter jsonWriter;
+    private ApiResponse<List<UserDTO>> response;
+    private ApiResponse<List<UserJson>> jsonResponse;
+
+    @Setup
+    public void setUp() throws JsonProcessingException {
+        TypeFactory types = TypeFactory.defaultInstance();
+        ObjectMapper mapper = Jackson2ObjectMapperBuilder.json().build();
+        writer = mapper.writerFor(types.constructParametricType(ApiResponse.class,
+                types.constructCollectionType(List.class, UserDTO.class)));
+        jsonWriter = mapper.writerFor(types.constructParametricType(ApiResponse.class,
+                types.constructCollectionType(List.class, UserJson.class)));
+
+        List<UserDTO> users = new ArrayList<>(size);
+        List<UserJson> jsonUsers = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            UserDTO user = new UserDTO();
+            user.setId(UUID.randomUUID());
+            user.setUsername("user" + i);
+            user.setFirstName("John");
+            user.setLastName("Doe");
+            user.setEmail("user" + i + "@example.com");
+            user.setPhoneNumber("+1555" + i);
+            user.setVersion((long) i);
+            users.add(user);
+
+            SerializedString json = new SerializedString(mapper.writeValueAsString(user));
+            json.asUnquotedUTF8();
+            jsonUsers.add(new UserJson(user.getId(), user.getVersion(), json));
+        }
+        response = new ApiResponse<>(200, "Users retrieved successfully", users);
+        jsonResponse = new ApiResponse<>(200, "Users retrieved successfully", jsonUsers);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws JsonProcessingException {
+        return writer.writeValueAsBytes(response);
+    }
+
+    @Benchmark
+    public byte[] serializeCachedJson() throws JsonProcessingException {
+        return jsonWriter.writeValueAsBytes(jsonResponse);
+    }
+}
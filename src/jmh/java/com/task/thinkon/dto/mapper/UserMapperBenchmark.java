@@ -0,0 +1,62 @@
+package com.task.thinkon.dto.mapper;
+
+import com.task.thinkon.dto.CreateUserDTO;
+import com.task.thinkon.dto.UserDTO;
+import com.task.thinkon.entities.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mapping between the request DTOs, the entity and the response DTO, done once or twice per request.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserMapperBenchmark {
+
+    private CreateUserDTO createUserDTO;
+    private User user;
+
+    @Setup
+    public void setUp() {
+        createUserDTO = new CreateUserDTO();
+        createUserDTO.setUsername("john_doe");
+        createUserDTO.setFirstName("John");
+        createUserDTO.setLastName("Doe");
+        createUserDTO.setEmail("john.doe@example.com");
+        createUserDTO.setPhoneNumber("+123456789");
+
+        user = UserMapper.toEntity(createUserDTO);
+        user.setId(UUID.randomUUID());
+        user.setVersion(3L);
+    }
+
+    @Benchmark
+    public User toEntity() {
+        return UserMapper.toEntity(createUserDTO);
+    }
+
+    @Benchmark
+    public UserDTO toDTO() {
+        return UserMapper.toDTO(user);
+    }
+
+    @Benchmark
+    public User updateEntityFromDTO() {
+        return UserMapper.updateEntityFromDTO(createUserDTO, user);
+    }
+}
@@ -0,0 +1,64 @@
+package com.task.thinkon.service;
+
+import com.task.thinkon.entities.User;
+import com.task.thinkon.exceptions.UniqueConstraintViolationException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The conflict path of a create: building the field-level errors from the owners found by the pre-check, and the
+ * exception that carries them to the error response.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UniqueConstraintsBenchmark {
+
+    private List<User> owners;
+    private Map<String, String> errors;
+
+    @Setup
+    public void setUp() {
+        owners = List.of(
+                owner("john_doe", "john.doe@example.com", "+111111111"),
+                owner("jane_doe", "jane.doe@example.com", "+123456789"));
+        errors = conflicts();
+    }
+
+    @Benchmark
+    public Map<String, String> conflicts() {
+        return UniqueConstraints.conflicts(owners, "john.doe@example.com", "john_doe", "+123456789", null);
+    }
+
+    @Benchmark
+    public UniqueConstraintViolationException exception() {
+        return new UniqueConstraintViolationException(errors);
+    }
+
+    private static User owner(String username, String email, String phoneNumber) {
+        User user = new User();
+        user.setId(UUID.randomUUID());
+        user.setUsername(username);
+        user.setFirstName("John");
+        user.setLastName("Doe");
+        user.setEmail(email);
+        user.setPhoneNumber(phoneNumber);
+        return user;
+    }
+}
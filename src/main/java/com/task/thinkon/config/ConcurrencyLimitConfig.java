@@ -0,0 +1,86 @@
+package com.task.thinkon.config;
+
+import com.task.thinkon.controller.AdmissionControlInterceptor;
+import com.task.thinkon.controller.AdmissionLimiter;
+import com.task.thinkon.controller.AdmissionLimiter.Priority;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.Objects;
+
+@Configuration
+@ConditionalOnProperty(prefix = "users.concurrency-limit", name = "enabled", havingValue = "true")
+@Slf4j
+public class ConcurrencyLimitConfig {
+
+    /**
+     * Pool size Hikari picks when none is configured, see {@code HikariConfig.validate}.
+     */
+    private static final int HIKARI_DEFAULT_POOL_SIZE = 10;
+
+    @Bean
+    public AdmissionLimiter admissionLimiter(ConcurrencyLimitProperties properties, DataSource dataSource,
+                                             MeterRegistry meterRegistry) {
+        int maxConcurrentRequests = Objects.requireNonNullElseGet(properties.getMaxConcurrentRequests(),
+                () -> connectionPoolSize(dataSource));
+        AdmissionLimiter admissionLimiter = new AdmissionLimiter(
+                Math.min(properties.getMinConcurrentRequests(), maxConcurrentRequests), maxConcurrentRequests,
+                properties.isAdaptive(), properties.getLatencyTolerance(),
+                Map.of(Priority.READ, properties.getReadShare(), Priority.WRITE, properties.getWriteShare()),
+                properties.getEndpoints(), properties.getMaxWaiting(), properties.getAcquireTimeout());
+        log.info("Limiting /users to {} concurrent requests{}, per endpoint {}", maxConcurrentRequests,
+                properties.isAdaptive() ? " (adaptive)" : "", properties.getEndpoints());
+
+        Gauge.builder("users.concurrency.limit", admissionLimiter, AdmissionLimiter::getLimit)
+                .description("Current limit of concurrent requests to /users")
+                .register(meterRegistry);
+        Gauge.builder("users.concurrency.available", admissionLimiter, AdmissionLimiter::availablePermits)
+                .description("Permits left for concurrent requests to /users")
+                .register(meterRegistry);
+        Gauge.builder("users.concurrency.waiting", admissionLimiter, AdmissionLimiter::queueLength)
+                .description("Requests to /users waiting for a permit")
+                .register(meterRegistry);
+        return admissionLimiter;
+    }
+
+    @Bean
+    public WebMvcConfigurer admissionControlConfigurer(AdmissionLimiter admissionLimiter,
+                                                       ConcurrencyLimitProperties properties,
+                                                       MeterRegistry meterRegistry) {
+        AdmissionControlInterceptor interceptor = new AdmissionControlInterceptor(admissionLimiter,
+                properties.getRetryAfter(), meterRegistry);
+        return new WebMvcConfigurer() {
+            @Override
+            public void addInterceptors(InterceptorRegistry registry) {
+                registry.addInterceptor(interceptor).addPathPatterns("/users", "/users/**");
+            }
+        };
+    }
+
+    private static int connectionPoolSize(DataSource dataSource) {
+        try {
+            if (dataSource.isWrapperFor(HikariDataSource.class)) {
+                HikariDataSource hikari = dataSource.unwrap(HikariDataSource.class);
+                // An unset size reads as -1 until the pool has started
+                if (hikari.getMaximumPoolSize() > 0) {
+                    return hikari.getMaximumPoolSize();
+                }
+                return hikari.getMinimumIdle() > 0 ? hikari.getMinimumIdle() : HIKARI_DEFAULT_POOL_SIZE;
+            }
+        } catch (SQLException ex) {
+            throw new IllegalStateException("Cannot inspect the connection pool", ex);
+        }
+        throw new IllegalStateException("users.concurrency-limit.max-concurrent-requests must be set for a "
+                + dataSource.getClass().getName());
+    }
+}
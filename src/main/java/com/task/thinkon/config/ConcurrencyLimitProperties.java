@@ -0,0 +1,71 @@
+package com.task.thinkon.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+@ConfigurationProperties(prefix = "users.concurrency-limit")
+@Getter
+@Setter
+public class ConcurrencyLimitProperties {
+
+    /**
+     * Whether requests to {@code /users} are admitted through a bounded number of permits.
+     */
+    private boolean enabled = false;
+
+    /**
+     * Requests served at the same time. Defaults to the maximum size of the connection pool, so admitted requests
+     * never queue on {@code getConnection}. With {@code adaptive}, this is the highest the limit goes.
+     */
+    private Integer maxConcurrentRequests;
+
+    /**
+     * The lowest the adaptive limit goes.
+     */
+    private int minConcurrentRequests = 2;
+
+    /**
+     * Whether the limit is lowered when admitted requests get slower than usual, and raised again when they recover.
+     */
+    private boolean adaptive = true;
+
+    /**
+     * How many times slower than usual admitted requests may get, on average, before the adaptive limit is lowered.
+     */
+    private double latencyTolerance = 2.0;
+
+    /**
+     * Share of the limit that reads ({@code GET}) may take, so that some permits are always left for writes.
+     */
+    private double readShare = 0.8;
+
+    /**
+     * Share of the limit that writes may take, so that some permits are always left for reads.
+     */
+    private double writeShare = 0.5;
+
+    /**
+     * Fixed limits per endpoint, by controller class and method name, e.g. {@code UserController.exportUsers}.
+     */
+    private Map<String, Integer> endpoints = new HashMap<>();
+
+    /**
+     * Requests allowed to wait for a permit. Beyond that, requests are rejected at once.
+     */
+    private int maxWaiting = 100;
+
+    /**
+     * How long a request waits for a permit before it is rejected with {@code 503 Service Unavailable}.
+     */
+    private Duration acquireTimeout = Duration.ofSeconds(2);
+
+    /**
+     * Value of the {@code Retry-After} header of rejected requests.
+     */
+    private Duration retryAfter = Duration.ofSeconds(1);
+}
@@ -0,0 +1,29 @@
+package com.task.thinkon.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "users.idempotency")
+@Getter
+@Setter
+public class IdempotencyProperties {
+
+    /**
+     * How long an {@code Idempotency-Key} is remembered, i.e. how long a retry replays the original response.
+     */
+    private Duration ttl = Duration.ofHours(24);
+
+    /**
+     * Maximum number of completed keys kept in memory. Older ones are looked up in the database.
+     */
+    private long maximumSize = 100_000;
+
+    /**
+     * How long a duplicate waits for the request holding its key. A key held longer than this by a request that
+     * never completed, e.g. on an instance that went down, is taken over by the next retry.
+     */
+    private Duration inFlightTimeout = Duration.ofSeconds(10);
+}
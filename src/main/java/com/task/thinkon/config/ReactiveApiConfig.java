@@ -0,0 +1,92 @@
+package com.task.thinkon.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.task.thinkon.controller.ReactiveUserHandler;
+import com.task.thinkon.exceptions.handler.GlobalExceptionHandler;
+import com.task.thinkon.repository.ReactiveUserRepository;
+import com.task.thinkon.service.ReactiveUserService;
+import com.task.thinkon.service.UserCache;
+import com.task.thinkon.service.UserSuggestionIndex;
+import com.task.thinkon.service.UserUniquenessIndex;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactory;
+import jakarta.validation.Validator;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.r2dbc.ConnectionFactoryBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.codec.json.Jackson2JsonDecoder;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.util.StringUtils;
+import org.springframework.web.reactive.function.server.HandlerStrategies;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+
+import java.util.Objects;
+
+/**
+ * Wires the reactive {@code /v2/users} API when {@code users.v2.enabled=true}.
+ * <p>
+ * The R2DBC connection pool is built here from {@code spring.r2dbc.*} and kept inside {@link ReactiveUserRepository}:
+ * a {@link ConnectionFactory} bean would back off the JDBC {@code DataSource} auto-configuration, and a second
+ * transaction manager bean would make {@code @Transactional} ambiguous for the blocking stack.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "users.v2", name = "enabled", havingValue = "true")
+@EnableConfigurationProperties(R2dbcProperties.class)
+public class ReactiveApiConfig {
+
+    @Bean
+    public ReactiveUserRepository reactiveUserRepository(R2dbcProperties properties) {
+        if (!StringUtils.hasText(properties.getUrl())) {
+            throw new IllegalStateException("spring.r2dbc.url must be set when users.v2.enabled=true");
+        }
+
+        ConnectionFactoryBuilder builder = ConnectionFactoryBuilder.withUrl(properties.getUrl());
+        if (Objects.nonNull(properties.getUsername())) {
+            builder.username(properties.getUsername());
+        }
+        if (Objects.nonNull(properties.getPassword())) {
+            builder.password(properties.getPassword());
+        }
+
+        R2dbcProperties.Pool pool = properties.getPool();
+        ConnectionPoolConfiguration configuration = ConnectionPoolConfiguration.builder(builder.build())
+                .name("users-v2")
+                .initialSize(pool.getInitialSize())
+                .maxSize(pool.getMaxSize())
+                .maxIdleTime(pool.getMaxIdleTime())
+                .maxAcquireTime(pool.getMaxAcquireTime())
+                .build();
+        return new ReactiveUserRepository(new ConnectionPool(configuration));
+    }
+
+    @Bean
+    public ReactiveUserService reactiveUserService(ReactiveUserRepository reactiveUserRepository,
+                                                   Validator validator,
+                                                   UserUniquenessIndex userUniquenessIndex,
+                                                   UserSuggestionIndex userSuggestionIndex,
+                                                   UserUniquenessProperties userUniquenessProperties,
+                                                   UserCache userCache) {
+        return new ReactiveUserService(reactiveUserRepository, validator, userUniquenessIndex, userSuggestionIndex,
+                userUniquenessProperties, userCache);
+    }
+
+    @Bean
+    public ReactiveApiServer reactiveApiServer(ReactiveApiProperties properties,
+                                               ReactiveUserService reactiveUserService,
+                                               Validator validator,
+                                               GlobalExceptionHandler globalExceptionHandler,
+                                               ObjectMapper objectMapper) {
+        ReactiveUserHandler handler = new ReactiveUserHandler(reactiveUserService, validator, globalExceptionHandler);
+        HandlerStrategies strategies = HandlerStrategies.builder()
+                .codecs(codecs -> {
+                    codecs.defaultCodecs().jackson2JsonEncoder(new Jackson2JsonEncoder(objectMapper));
+                    codecs.defaultCodecs().jackson2JsonDecoder(new Jackson2JsonDecoder(objectMapper));
+                })
+                .build();
+        return new ReactiveApiServer(properties.getPort(), RouterFunctions.toHttpHandler(handler.routes(), strategies));
+    }
+}
@@ -0,0 +1,22 @@
+package com.task.thinkon.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "users.v2")
+@Getter
+@Setter
+public class ReactiveApiProperties {
+
+    /**
+     * Whether the reactive {@code /v2/users} API is served. It connects to the database through
+     * {@code spring.r2dbc.*}.
+     */
+    private boolean enabled = false;
+
+    /**
+     * Port of the Netty server of the reactive API, separate from the servlet container. {@code 0} picks a free port.
+     */
+    private int port = 28853;
+}
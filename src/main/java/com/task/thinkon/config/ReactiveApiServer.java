@@ -0,0 +1,53 @@
+package com.task.thinkon.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.boot.web.server.WebServer;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.http.server.reactive.HttpHandler;
+
+import java.util.Objects;
+
+/**
+ * Netty server of the reactive API, started and stopped with the application context next to the servlet container.
+ */
+@Slf4j
+public class ReactiveApiServer implements SmartLifecycle {
+
+    private final NettyReactiveWebServerFactory serverFactory;
+    private final HttpHandler httpHandler;
+    private volatile WebServer webServer;
+
+    public ReactiveApiServer(int port, HttpHandler httpHandler) {
+        this.serverFactory = new NettyReactiveWebServerFactory(port);
+        this.httpHandler = httpHandler;
+    }
+
+    @Override
+    public void start() {
+        webServer = serverFactory.getWebServer(httpHandler);
+        webServer.start();
+        log.info("Serving /v2/users on port {}", webServer.getPort());
+    }
+
+    @Override
+    public void stop() {
+        if (Objects.nonNull(webServer)) {
+            webServer.stop();
+            webServer = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return Objects.nonNull(webServer);
+    }
+
+    /**
+     * The port the server listens on, {@code -1} while it is stopped.
+     */
+    public int getPort() {
+        WebServer server = webServer;
+        return Objects.isNull(server) ? -1 : server.getPort();
+    }
+}
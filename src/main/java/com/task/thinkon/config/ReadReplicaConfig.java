@@ -0,0 +1,67 @@
+package com.task.thinkon.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Replaces the auto-configured data source with one that routes the read-only transactions of {@code UserService}
+ * to the replicas of {@code users.read-replicas.replicas}. The primary pool is still configured through
+ * {@code spring.datasource.*}.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "users.read-replicas", name = "enabled", havingValue = "true")
+@Slf4j
+public class ReadReplicaConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    public ReadReplicaRoutingDataSource readReplicaRoutingDataSource(HikariDataSource primaryDataSource,
+                                                                     DataSourceProperties dataSourceProperties,
+                                                                     ReadReplicaProperties properties,
+                                                                     MeterRegistry meterRegistry) {
+        if (properties.getReplicas().isEmpty()) {
+            throw new IllegalStateException("users.read-replicas.replicas must list at least one replica");
+        }
+
+        List<HikariDataSource> replicas = new ArrayList<>();
+        for (ReadReplicaProperties.Replica replica : properties.getReplicas()) {
+            HikariDataSource dataSource = new HikariDataSource();
+            dataSource.setPoolName("replica-" + replicas.size());
+            dataSource.setJdbcUrl(replica.getUrl());
+            dataSource.setUsername(Objects.requireNonNullElse(replica.getUsername(), dataSourceProperties.determineUsername()));
+            dataSource.setPassword(Objects.requireNonNullElse(replica.getPassword(), dataSourceProperties.determinePassword()));
+            dataSource.setMaximumPoolSize(replica.getMaximumPoolSize());
+            dataSource.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+            replicas.add(dataSource);
+        }
+        log.info("Routing read-only user queries to {} replicas, {}", replicas.size(), properties.getSelection());
+        return new ReadReplicaRoutingDataSource(primaryDataSource, replicas, properties);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReadReplicaRoutingDataSource readReplicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(readReplicaRoutingDataSource);
+    }
+}
@@ -0,0 +1,64 @@
+package com.task.thinkon.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@ConfigurationProperties(prefix = "users.read-replicas")
+@Getter
+@Setter
+public class ReadReplicaProperties {
+
+    /**
+     * Whether the read-only transactions of {@code UserService} are served by the replicas below.
+     */
+    private boolean enabled = false;
+
+    /**
+     * How the replica serving a read is picked.
+     */
+    private Selection selection = Selection.ROUND_ROBIN;
+
+    /**
+     * How long after a write committed by this instance its reads stay on the primary, so that they see the write
+     * even if the replicas lag behind. Zero sends them to the replicas at once.
+     */
+    private Duration readYourWritesWindow = Duration.ZERO;
+
+    private List<Replica> replicas = new ArrayList<>();
+
+    public enum Selection {
+        /**
+         * Take the replicas in turn.
+         */
+        ROUND_ROBIN,
+
+        /**
+         * Take the replica with the fewest connections in use.
+         */
+        LEAST_LOADED
+    }
+
+    @Getter
+    @Setter
+    public static class Replica {
+
+        private String url;
+
+        /**
+         * Defaults to the username of the primary.
+         */
+        private String username;
+
+        /**
+         * Defaults to the password of the primary.
+         */
+        private String password;
+
+        private int maximumPoolSize = 10;
+    }
+}
@@ -0,0 +1,115 @@
+package com.task.thinkon.config;
+
+import com.task.thinkon.config.ReadReplicaProperties.Selection;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends the connections of read-only transactions named {@value #READ_TRANSACTION} to one of the replica pools and
+ * every other connection to the primary. Other read-only transactions, like the ones Spring Data opens around
+ * repository calls, stay on the primary: the reads made on behalf of a write must see the latest data.
+ * <p>
+ * The lookup happens when a connection is taken from the pool, so this data source must be wrapped in a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}, which defers that until the transaction
+ * has been set up.
+ */
+public class ReadReplicaRoutingDataSource extends AbstractRoutingDataSource implements Closeable {
+
+    /**
+     * Name of the read-only transactions that replicas may serve.
+     */
+    public static final String READ_TRANSACTION = "users.read";
+
+    private static final String PRIMARY = "primary";
+
+    private final List<HikariDataSource> replicas;
+    private final ReadReplicaProperties properties;
+    private final AtomicInteger nextReplica = new AtomicInteger();
+    private volatile long lastWriteNanos;
+
+    public ReadReplicaRoutingDataSource(DataSource primary, List<HikariDataSource> replicas,
+                                        ReadReplicaProperties properties) {
+        this.replicas = List.copyOf(replicas);
+        this.properties = properties;
+        // Long enough ago for any window
+        this.lastWriteNanos = System.nanoTime() - Long.MAX_VALUE / 2;
+
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        for (int i = 0; i < this.replicas.size(); i++) {
+            targets.put(i, this.replicas.get(i));
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            trackWrite();
+            return PRIMARY;
+        }
+        if (!READ_TRANSACTION.equals(TransactionSynchronizationManager.getCurrentTransactionName())
+                || System.nanoTime() - lastWriteNanos < properties.getReadYourWritesWindow().toNanos()) {
+            return PRIMARY;
+        }
+        return properties.getSelection() == Selection.LEAST_LOADED ? leastLoadedReplica() : nextReplica();
+    }
+
+    /**
+     * Starts the read-your-writes window of this instance when the current read-write transaction commits.
+     */
+    private void trackWrite() {
+        if (TransactionSynchronizationManager.isActualTransactionActive()
+                && TransactionSynchronizationManager.isSynchronizationActive()
+                && properties.getReadYourWritesWindow().toNanos() > 0) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    lastWriteNanos = System.nanoTime();
+                }
+            });
+        }
+    }
+
+    private int nextReplica() {
+        return Math.floorMod(nextReplica.getAndIncrement(), replicas.size());
+    }
+
+    /**
+     * The replica with the fewest active connections. The scan starts at the next replica in turn, so that ties are
+     * spread rather than always going to the first one.
+     */
+    private int leastLoadedReplica() {
+        int start = nextReplica();
+        int selected = start;
+        int minActive = Integer.MAX_VALUE;
+        for (int i = 0; i < replicas.size(); i++) {
+            int replica = (start + i) % replicas.size();
+            HikariPoolMXBean pool = replicas.get(replica).getHikariPoolMXBean();
+            // The pool is started by its first connection
+            int active = Objects.isNull(pool) ? 0 : pool.getActiveConnections();
+            if (active < minActive) {
+                minActive = active;
+                selected = replica;
+            }
+        }
+        return selected;
+    }
+
+    @Override
+    public void close() {
+        replicas.forEach(HikariDataSource::close);
+    }
+}
@@ -0,0 +1,33 @@
+package com.task.thinkon.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "users.cache")
+@Getter
+@Setter
+public class UserCacheProperties {
+
+    /**
+     * Whether {@code GET /users/{id}} is served through the in-process cache.
+     */
+    private boolean enabled = false;
+
+    /**
+     * Maximum number of cached entries (found and not-found lookups together).
+     */
+    private long maximumSize = 100_000;
+
+    /**
+     * How long a found user is kept. Bounds staleness for writes made by other instances.
+     */
+    private Duration ttl = Duration.ofSeconds(60);
+
+    /**
+     * How long a not-found lookup is kept, so repeated requests for unknown ids do not all reach the database.
+     */
+    private Duration negativeTtl = Duration.ofSeconds(5);
+}
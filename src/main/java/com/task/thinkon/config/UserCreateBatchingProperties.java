@@ -0,0 +1,29 @@
+package com.task.thinkon.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "users.create-batching")
+@Getter
+@Setter
+public class UserCreateBatchingProperties {
+
+    /**
+     * Whether concurrent single-user creates are grouped, each group sharing one uniqueness query, one batched insert
+     * and one transaction.
+     */
+    private boolean enabled = false;
+
+    /**
+     * Maximum number of creates in a group, at most {@code UserService.MAX_BATCH_SIZE}.
+     */
+    private int maxBatchSize = 100;
+
+    /**
+     * Longest time a create waits for others to join its group, i.e. the latency grouping adds to a create at most.
+     */
+    private Duration maxDelay = Duration.ofMillis(5);
+}
@@ -0,0 +1,19 @@
+package com.task.thinkon.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "users.import")
+@Getter
+@Setter
+public class UserImportProperties {
+
+    /**
+     * How long a finished import job, and its rejection report, is kept before it is deleted as if by
+     * {@code DELETE /users/imports/{jobId}}.
+     */
+    private Duration retention = Duration.ofHours(24);
+}
@@ -0,0 +1,21 @@
+package com.task.thinkon.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "users.json-cache")
+@Getter
+@Setter
+public class UserJsonCacheProperties {
+
+    /**
+     * Whether the JSON of listed users is kept between requests. When disabled, it is serialized on every request.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Maximum number of users whose JSON is kept.
+     */
+    private long maximumSize = 100_000;
+}
@@ -0,0 +1,29 @@
+package com.task.thinkon.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "users.uniqueness")
+@Getter
+@Setter
+public class UserUniquenessProperties {
+
+    /**
+     * How single-user writes enforce unique email, username and phone number.
+     */
+    private Mode mode = Mode.PRE_CHECK;
+
+    public enum Mode {
+        /**
+         * Look up conflicting users before writing, reporting every conflicting field.
+         */
+        PRE_CHECK,
+
+        /**
+         * Write directly and map the violated unique constraint back to its field. Saves a round trip per write;
+         * a conflict reports the first violated field only.
+         */
+        OPTIMISTIC
+    }
+}
@@ -0,0 +1,123 @@
+package com.task.thinkon.controller;
+
+import com.task.thinkon.controller.AdmissionLimiter.Permit;
+import com.task.thinkon.controller.AdmissionLimiter.Priority;
+import com.task.thinkon.exceptions.ServiceUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Admits requests to the controllers through an {@link AdmissionLimiter}, as {@code GET} reads or writes, per
+ * controller method, e.g. {@code UserController.exportUsers}. A rejected request never reaches the controller; it is answered by the
+ * {@code GlobalExceptionHandler} with {@code 503 Service Unavailable}.
+ * <p>
+ * A request that continues asynchronously, such as a streamed export, holds its permit until the response is
+ * complete, whether it ends with the dispatch of its result, a timeout or an error.
+ */
+@Slf4j
+public class AdmissionControlInterceptor implements AsyncHandlerInterceptor {
+
+    private static final String PERMIT = AdmissionControlInterceptor.class.getName() + ".permit";
+
+    private final AdmissionLimiter admissionLimiter;
+    private final Duration retryAfter;
+    private final MeterRegistry meterRegistry;
+
+    public AdmissionControlInterceptor(AdmissionLimiter admissionLimiter, Duration retryAfter,
+                                       MeterRegistry meterRegistry) {
+        this.admissionLimiter = admissionLimiter;
+        this.retryAfter = retryAfter;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        // The dispatch that completes an asynchronous response was admitted as part of its request
+        if (!(handler instanceof HandlerMethod handlerMethod) || request.getDispatcherType() == DispatcherType.ASYNC) {
+            return true;
+        }
+
+        // Keyed by controller as well, since two controllers may have methods of the same name
+        String endpoint = handlerMethod.getBeanType().getSimpleName() + "." + handlerMethod.getMethod().getName();
+        Priority priority = HttpMethod.GET.matches(request.getMethod()) ? Priority.READ : Priority.WRITE;
+        Permit permit = admissionLimiter.acquire(endpoint, priority);
+        if (Objects.isNull(permit)) {
+            log.warn("Rejected {} {}: over the admission limit", request.getMethod(), request.getRequestURI());
+            Counter.builder("users.concurrency.rejected")
+                    .description("Requests to /users rejected by admission control")
+                    .tag("endpoint", endpoint)
+                    .tag("priority", priority.name().toLowerCase(Locale.ROOT))
+                    .register(meterRegistry)
+                    .increment();
+            throw new ServiceUnavailableException("too many concurrent requests", retryAfter);
+        }
+
+        request.setAttribute(PERMIT, new AtomicReference<>(permit));
+        return true;
+    }
+
+    /**
+     * Releases the permit after the initial dispatch, or after the dispatch that completes an asynchronous response.
+     * Only the former is measured: an asynchronous response takes as long as its content, not as the server is busy.
+     */
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        release(request, request.getDispatcherType() != DispatcherType.ASYNC);
+    }
+
+    /**
+     * Keeps the permit while the response is produced asynchronously, and makes sure it is released even if no
+     * dispatch follows, e.g. when the client goes away.
+     */
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (Objects.isNull(request.getAttribute(PERMIT))) {
+            return;
+        }
+        request.getAsyncContext().addListener(new AsyncListener() {
+            @Override
+            public void onComplete(AsyncEvent event) {
+                release(request, false);
+            }
+
+            @Override
+            public void onTimeout(AsyncEvent event) {
+                release(request, false);
+            }
+
+            @Override
+            public void onError(AsyncEvent event) {
+                release(request, false);
+            }
+
+            @Override
+            public void onStartAsync(AsyncEvent event) {
+                // The listener is only needed for the async cycle it was added to
+            }
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private void release(HttpServletRequest request, boolean measured) {
+        if (request.getAttribute(PERMIT) instanceof AtomicReference<?> holder) {
+            Permit permit = ((AtomicReference<Permit>) holder).getAndSet(null);
+            if (Objects.nonNull(permit)) {
+                admissionLimiter.release(permit, measured);
+            }
+        }
+    }
+}
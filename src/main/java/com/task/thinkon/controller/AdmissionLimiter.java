@@ -0,0 +1,197 @@
+package com.task.thinkon.controller;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Decides which requests run and which are turned away. A request is admitted when it fits under three limits:
+ * <ul>
+ *     <li>the overall limit, which adapts to the latency of admitted requests: it is lowered when they get slower
+ *     than usual and raised again, one request at a time, while they stay fast and demand exceeds it;</li>
+ *     <li>the share of that limit its priority may take, so that neither reads nor writes can crowd out the other;</li>
+ *     <li>the fixed limit of its endpoint, if any, so that an expensive endpoint cannot take every permit.</li>
+ * </ul>
+ * A request that does not fit waits, for at most {@code acquireTimeout}, unless {@code maxWaiting} requests are
+ * waiting already, in which case it is rejected at once. Keeping the overall limit below the point where the database
+ * slows down keeps the admitted requests fast under overload, instead of letting every request slow down together.
+ * <p>
+ * The usual latency is tracked per endpoint, since endpoints differ widely in cost. It follows the latency slowly,
+ * so a lasting slowdown ends up accepted as the new usual one.
+ */
+public class AdmissionLimiter {
+
+    /**
+     * Admitted requests whose average latency ratio decides each adjustment of the limit.
+     */
+    private static final int WINDOW_SAMPLES = 20;
+    private static final double BASELINE_WEIGHT = 0.01;
+    private static final double BACKOFF = 0.9;
+
+    public enum Priority {
+        READ,
+        WRITE
+    }
+
+    /**
+     * A request admitted to {@code endpoint}, to be returned through {@link #release}.
+     */
+    public record Permit(String endpoint, Priority priority, long admittedAt) {
+    }
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final boolean adaptive;
+    private final double latencyTolerance;
+    private final Map<Priority, Double> shares;
+    private final Map<String, Integer> endpointLimits;
+    private final int maxWaiting;
+    private final long acquireTimeoutNanos;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition released = lock.newCondition();
+    private double limit;
+    private int inFlight;
+    private int waiting;
+    private final Map<Priority, Integer> inFlightByPriority = new HashMap<>();
+    private final Map<String, Integer> inFlightByEndpoint = new HashMap<>();
+    private final Map<String, Double> baselineNanos = new HashMap<>();
+    private double ratioSum;
+    private int samples;
+    private boolean saturated;
+
+    public AdmissionLimiter(int minLimit, int maxLimit, boolean adaptive, double latencyTolerance,
+                            Map<Priority, Double> shares, Map<String, Integer> endpointLimits, int maxWaiting,
+                            Duration acquireTimeout) {
+        if (minLimit < 1 || maxLimit < minLimit) {
+            throw new IllegalArgumentException("Limits must satisfy 1 <= min <= max, got " + minLimit + " and " + maxLimit);
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.adaptive = adaptive;
+        this.latencyTolerance = latencyTolerance;
+        this.shares = Map.copyOf(shares);
+        this.endpointLimits = Map.copyOf(endpointLimits);
+        this.maxWaiting = maxWaiting;
+        this.acquireTimeoutNanos = acquireTimeout.toNanos();
+        this.limit = maxLimit;
+    }
+
+    /**
+     * Admits a request to {@code endpoint}, waiting for room if needed.
+     *
+     * @return the permit, or {@code null} if the request is rejected
+     */
+    public Permit acquire(String endpoint, Priority priority) {
+        lock.lock();
+        try {
+            if (!fits(endpoint, priority)) {
+                if (waiting >= maxWaiting) {
+                    return null;
+                }
+                waiting++;
+                try {
+                    long remainingNanos = acquireTimeoutNanos;
+                    while (!fits(endpoint, priority)) {
+                        if (remainingNanos <= 0) {
+                            return null;
+                        }
+                        remainingNanos = released.awaitNanos(remainingNanos);
+                    }
+                } finally {
+                    waiting--;
+                }
+            }
+
+            inFlight++;
+            inFlightByPriority.merge(priority, 1, Integer::sum);
+            inFlightByEndpoint.merge(endpoint, 1, Integer::sum);
+            return new Permit(endpoint, priority, System.nanoTime());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns a permit. {@code measured} tells whether the time since admission is a latency sample for the limit,
+     * which it is not for a response that continues asynchronously.
+     */
+    public void release(Permit permit, boolean measured) {
+        long latencyNanos = System.nanoTime() - permit.admittedAt();
+        lock.lock();
+        try {
+            inFlight--;
+            inFlightByPriority.merge(permit.priority(), -1, Integer::sum);
+            inFlightByEndpoint.merge(permit.endpoint(), -1, Integer::sum);
+            if (adaptive && measured) {
+                sample(permit.endpoint(), Math.max(latencyNanos, 1));
+            }
+            released.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getLimit() {
+        lock.lock();
+        try {
+            return (int) limit;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int availablePermits() {
+        lock.lock();
+        try {
+            return Math.max(0, (int) limit - inFlight);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int queueLength() {
+        lock.lock();
+        try {
+            return waiting;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private boolean fits(String endpoint, Priority priority) {
+        int overallLimit = (int) limit;
+        if (inFlight >= overallLimit) {
+            saturated = true;
+            return false;
+        }
+        int priorityLimit = Math.max(1, (int) Math.ceil(overallLimit * shares.getOrDefault(priority, 1.0)));
+        Integer endpointLimit = endpointLimits.get(endpoint);
+        return inFlightByPriority.getOrDefault(priority, 0) < priorityLimit
+                && (Objects.isNull(endpointLimit) || inFlightByEndpoint.getOrDefault(endpoint, 0) < endpointLimit);
+    }
+
+    private void sample(String endpoint, long latencyNanos) {
+        double baseline = baselineNanos.getOrDefault(endpoint, (double) latencyNanos);
+        baselineNanos.put(endpoint, baseline + BASELINE_WEIGHT * (latencyNanos - baseline));
+        ratioSum += latencyNanos / baseline;
+        if (++samples < WINDOW_SAMPLES) {
+            return;
+        }
+
+        if (ratioSum / samples > latencyTolerance) {
+            limit = Math.max(minLimit, limit * BACKOFF);
+        } else if (saturated) {
+            limit = Math.min(maxLimit, limit + 1);
+        }
+        ratioSum = 0;
+        samples = 0;
+        saturated = false;
+    }
+}
@@ -0,0 +1,92 @@
+package com.task.thinkon.controller;
+
+import com.task.thinkon.dto.ApiResponse;
+import com.task.thinkon.dto.ApiResponseProtobuf;
+import com.task.thinkon.dto.PageDTO;
+import com.task.thinkon.dto.UserDTO;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.Map;
+
+/**
+ * Writes {@link ApiResponse} bodies as {@value ApiResponseProtobuf#MEDIA_TYPE} when a client asks for it, for the
+ * responses that {@code src/main/proto/users.proto} describes: a user, a page of users, field errors or no data at all.
+ * <p>
+ * The converter is write-only: request bodies stay JSON, and {@code canRead} turns every protobuf body down, so Spring
+ * answers it with {@code 415 Unsupported Media Type} before it would be read.
+ */
+public class ApiResponseProtobufHttpMessageConverter extends AbstractGenericHttpMessageConverter<ApiResponse<?>> {
+
+    public ApiResponseProtobufHttpMessageConverter() {
+        super(MediaType.parseMediaType(ApiResponseProtobuf.MEDIA_TYPE));
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return ApiResponse.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    public boolean canRead(Class<?> clazz, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    public boolean canRead(Type type, Class<?> contextClass, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    public boolean canWrite(Type type, Class<?> clazz, MediaType mediaType) {
+        return super.canWrite(type, clazz, mediaType) && hasEncodableData(type);
+    }
+
+    @Override
+    protected void writeInternal(ApiResponse<?> response, Type type, HttpOutputMessage outputMessage) throws IOException {
+        try {
+            ApiResponseProtobuf.write(response, outputMessage.getBody());
+        } catch (IllegalArgumentException ex) {
+            throw new HttpMessageNotWritableException(ex.getMessage(), ex);
+        }
+    }
+
+    @Override
+    public ApiResponse<?> read(Type type, Class<?> contextClass, HttpInputMessage inputMessage) {
+        throw notReadable(inputMessage);
+    }
+
+    @Override
+    protected ApiResponse<?> readInternal(Class<? extends ApiResponse<?>> clazz, HttpInputMessage inputMessage) {
+        throw notReadable(inputMessage);
+    }
+
+    /**
+     * What the read methods throw should they be called despite {@code canRead}: the body is unreadable, which is
+     * answered with {@code 400 Bad Request}, like any other body a converter cannot parse.
+     */
+    private static HttpMessageNotReadableException notReadable(HttpInputMessage inputMessage) {
+        return new HttpMessageNotReadableException("Protobuf request bodies are not supported", inputMessage);
+    }
+
+    /**
+     * Whether the declared data of an {@code ApiResponse<T>} is one the schema has a message for. An undeclared type
+     * is checked when the response is written.
+     */
+    private static boolean hasEncodableData(Type type) {
+        ResolvableType data = ResolvableType.forType(type).as(ApiResponse.class).getGeneric();
+        Class<?> dataClass = data.resolve(Object.class);
+        if (dataClass == PageDTO.class) {
+            return data.getGeneric().resolve(UserDTO.class) == UserDTO.class;
+        }
+        return dataClass == Object.class || dataClass == Void.class || dataClass == UserDTO.class
+                || Map.class.isAssignableFrom(dataClass);
+    }
+}
@@ -0,0 +1,147 @@
+package com.task.thinkon.controller;
+
+import com.task.thinkon.dto.ApiResponseProtobuf;
+import com.task.thinkon.dto.PageDTO;
+import com.task.thinkon.dto.UserDTO;
+import com.task.thinkon.dto.UserJson;
+import com.task.thinkon.exceptions.PreconditionFailedException;
+import org.springframework.http.MediaType;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Entity tags derived from the {@code version} column of {@code users}. The tag of a single user is strong, so that
+ * it can satisfy {@code If-Match}, which RFC 9110 evaluates by strong comparison; it names the format as well, since
+ * each format is a different representation, and the servlet container never compresses a response with a strong
+ * tag. Tags of pages are weak: the same page is served in several formats and encodings, which are equivalent but not
+ * byte-identical, and is large enough to be compressed.
+ */
+final class ETags {
+
+    private static final int PAGE_TAG_BYTES = 16;
+    private static final String WEAK_PREFIX = "W/";
+    private static final char FORMAT_SEPARATOR = '-';
+    private static final List<MediaType> FORMATS = List.of(MediaType.APPLICATION_JSON, MediaType.APPLICATION_CBOR,
+            MediaType.valueOf("application/x-jackson-smile"), MediaType.valueOf(ApiResponseProtobuf.MEDIA_TYPE));
+
+    private ETags() {
+        throw new UnsupportedOperationException("Utility class cannot be instantiated");
+    }
+
+    /**
+     * Strong tag of a single user in {@code format}, {@code null} if its version is unknown.
+     */
+    static String of(UserDTO user, MediaType format) {
+        return Objects.isNull(user.getVersion()) ? null : of(user.getVersion(), format);
+    }
+
+    /**
+     * Strong tag of version {@code version} of a user in {@code format}: {@code "<version>"} in JSON, and
+     * {@code "<version>-<subtype>"} in the other formats, e.g. {@code "3-cbor"}.
+     */
+    static String of(long version, MediaType format) {
+        if (MediaType.APPLICATION_JSON.equalsTypeAndSubtype(format)) {
+            return "\"" + version + "\"";
+        }
+        return "\"" + version + FORMAT_SEPARATOR + format.getSubtype() + "\"";
+    }
+
+    /**
+     * Format the response is written in for a client that accepts {@code acceptedTypes}, in order of preference:
+     * the first of JSON, CBOR, Smile and protobuf it accepts, as the message converters are registered. JSON if it
+     * accepts none of them, in which case no body is written anyway.
+     */
+    static MediaType format(List<MediaType> acceptedTypes) {
+        for (MediaType acceptedType : acceptedTypes) {
+            for (MediaType format : FORMATS) {
+                if (acceptedType.isCompatibleWith(format)) {
+                    return format;
+                }
+            }
+        }
+        return MediaType.APPLICATION_JSON;
+    }
+
+    /**
+     * Weak tag of a page of users: a digest of the ids and versions of its items and of its next cursor, so that it
+     * changes whenever any user on the page is updated, added or removed.
+     */
+    static String of(PageDTO<UserDTO> page) {
+        return pageTag(page, UserDTO::getId, UserDTO::getVersion);
+    }
+
+    /**
+     * Tag of a page of users as JSON, equal to the tag of the same page as {@link UserDTO}s.
+     */
+    static String ofJson(PageDTO<UserJson> page) {
+        return pageTag(page, UserJson::id, UserJson::version);
+    }
+
+    private static <T> String pageTag(PageDTO<T> page, Function<T, UUID> id, Function<T, Long> version) {
+        MessageDigest digest = sha256();
+        ByteBuffer buffer = ByteBuffer.allocate(3 * Long.BYTES);
+        for (T user : page.getItems()) {
+            UUID userId = id.apply(user);
+            buffer.clear();
+            buffer.putLong(userId.getMostSignificantBits())
+                    .putLong(userId.getLeastSignificantBits())
+                    .putLong(Objects.requireNonNullElse(version.apply(user), -1L));
+            digest.update(buffer.array());
+        }
+        if (page.getNextCursor() != null) {
+            digest.update(page.getNextCursor().getBytes(StandardCharsets.US_ASCII));
+        }
+
+        byte[] hash = digest.digest();
+        return WEAK_PREFIX + "\"" + Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(hash, PAGE_TAG_BYTES)) + "\"";
+    }
+
+    /**
+     * Extracts the version expected by an {@code If-Match} header, {@code null} if any version is acceptable.
+     * The strong tag of the user in any format is accepted, since each one names a current representation while its
+     * version is the user's. Weak tags never match under strong comparison, and foreign tags, such as page tags, can
+     * never match a user, so both are rejected.
+     */
+    static Long expectedVersion(String ifMatch) {
+        if (Objects.isNull(ifMatch) || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+
+        String tag = ifMatch.trim();
+        if (tag.startsWith(WEAK_PREFIX)) {
+            throw new PreconditionFailedException("If-Match must be a strong entity tag of the user");
+        }
+        if (tag.length() < 3 || tag.charAt(0) != '"' || tag.charAt(tag.length() - 1) != '"') {
+            throw new PreconditionFailedException("If-Match must be the entity tag of the user");
+        }
+        String opaqueTag = tag.substring(1, tag.length() - 1);
+        int separator = opaqueTag.indexOf(FORMAT_SEPARATOR);
+        long version;
+        try {
+            version = Long.parseLong(separator < 0 ? opaqueTag : opaqueTag.substring(0, separator));
+        } catch (NumberFormatException ex) {
+            throw new PreconditionFailedException("If-Match must be the entity tag of the user");
+        }
+        if (FORMATS.stream().noneMatch(format -> of(version, format).equals(tag))) {
+            throw new PreconditionFailedException("If-Match must be the entity tag of the user");
+        }
+        return version;
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 is not available", ex);
+        }
+    }
+}
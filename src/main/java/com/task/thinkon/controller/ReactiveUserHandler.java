@@ -0,0 +1,248 @@
+package com.task.thinkon.controller;
+
+import com.task.thinkon.dto.ApiResponse;
+import com.task.thinkon.dto.CreateUserDTO;
+import com.task.thinkon.dto.PatchUserDTO;
+import com.task.thinkon.dto.UserDTO;
+import com.task.thinkon.exceptions.EntityIsNullException;
+import com.task.thinkon.exceptions.EntityNotFoundException;
+import com.task.thinkon.exceptions.InvalidRequestException;
+import com.task.thinkon.exceptions.PreconditionFailedException;
+import com.task.thinkon.exceptions.PreconditionRequiredException;
+import com.task.thinkon.exceptions.UniqueConstraintViolationException;
+import com.task.thinkon.exceptions.handler.GlobalExceptionHandler;
+import com.task.thinkon.service.ReactiveUserService;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.core.codec.CodecException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import org.springframework.web.server.NotAcceptableStatusException;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebInputException;
+import org.springframework.web.server.UnsupportedMediaTypeStatusException;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+
+import static org.springframework.web.reactive.function.server.RequestPredicates.DELETE;
+import static org.springframework.web.reactive.function.server.RequestPredicates.GET;
+import static org.springframework.web.reactive.function.server.RequestPredicates.POST;
+import static org.springframework.web.reactive.function.server.RouterFunctions.route;
+
+/**
+ * The {@code /v2/users} endpoints: the {@link UserController} API, request for request, on WebFlux. Errors are
+ * rendered by the methods of {@link GlobalExceptionHandler}, so both versions answer with the same status codes and
+ * messages.
+ */
+public class ReactiveUserHandler {
+
+    private static final ParameterizedTypeReference<List<CreateUserDTO>> USER_LIST = new ParameterizedTypeReference<>() {
+    };
+    private static final ParameterizedTypeReference<List<UUID>> ID_LIST = new ParameterizedTypeReference<>() {
+    };
+
+    private final ReactiveUserService userService;
+    private final Validator validator;
+    private final GlobalExceptionHandler exceptionHandler;
+
+    public ReactiveUserHandler(ReactiveUserService userService, Validator validator, GlobalExceptionHandler exceptionHandler) {
+        this.userService = userService;
+        this.validator = validator;
+        this.exceptionHandler = exceptionHandler;
+    }
+
+    public RouterFunction<ServerResponse> routes() {
+        return route()
+                .path("/v2/users", users -> users
+                        .POST("/batch", this::createUsers)
+                        .GET("/export", this::exportUsers)
+                        .GET("/{id}", this::getUserById)
+                        .PUT("/{id}", this::updateUser)
+                        .PATCH("/{id}", this::patchUser)
+                        .DELETE("/{id}", this::deleteUser)
+                        .route(POST(""), this::createUser)
+                        .route(GET(""), this::getAllUsers)
+                        .route(DELETE(""), this::deleteUsers))
+                .filter((request, next) -> withErrorResponses(Mono.defer(() -> next.handle(request))))
+                .build();
+    }
+
+    private Mono<ServerResponse> createUser(ServerRequest request) {
+        return request.bodyToMono(CreateUserDTO.class)
+                .flatMap(this::validated)
+                .flatMap(userService::createUser)
+                .flatMap(userId -> ServerResponse.status(HttpStatus.CREATED)
+                        .bodyValue(new ApiResponse<>(HttpStatus.CREATED.value(), "User created successfully", userId)));
+    }
+
+    private Mono<ServerResponse> createUsers(ServerRequest request) {
+        return request.bodyToMono(USER_LIST)
+                .switchIfEmpty(Mono.fromSupplier(List::of))
+                .flatMap(userService::createUsers)
+                .flatMap(results -> ServerResponse.ok()
+                        .bodyValue(new ApiResponse<>(HttpStatus.OK.value(), "User batch processed", results)));
+    }
+
+    private Mono<ServerResponse> getAllUsers(ServerRequest request) {
+        int limit = request.queryParam("limit").map(ReactiveUserHandler::parseLimit).orElse(50);
+        String cursor = request.queryParam("cursor").orElse(null);
+        return userService.getAllUsers(limit, cursor)
+                .flatMap(users -> {
+                    String eTag = ETags.of(users);
+                    return request.checkNotModified(eTag).switchIfEmpty(Mono.defer(() -> ServerResponse.ok().eTag(eTag)
+                            .bodyValue(new ApiResponse<>(HttpStatus.OK.value(), "Users retrieved successfully", users))));
+                });
+    }
+
+    /**
+     * Streams the users as NDJSON. Rows are pulled from the database as the response is written, so a slow client
+     * slows down the query instead of buffering the table.
+     */
+    private Mono<ServerResponse> exportUsers(ServerRequest request) {
+        return ServerResponse.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(userService.exportUsers(), UserDTO.class);
+    }
+
+    private Mono<ServerResponse> getUserById(ServerRequest request) {
+        return userService.getUserById(pathId(request))
+                .flatMap(user -> {
+                    String eTag = ETags.of(user, MediaType.APPLICATION_JSON);
+                    return request.checkNotModified(eTag).switchIfEmpty(Mono.defer(() -> ServerResponse.ok().eTag(eTag)
+                            .bodyValue(new ApiResponse<>(HttpStatus.OK.value(), "User retrieved successfully", user))));
+                });
+    }
+
+    private Mono<ServerResponse> updateUser(ServerRequest request) {
+        UUID id = pathId(request);
+        Long expectedVersion = ETags.expectedVersion(request.headers().firstHeader(HttpHeaders.IF_MATCH));
+        return request.bodyToMono(CreateUserDTO.class)
+                .flatMap(this::validated)
+                .flatMap(userDTO -> userService.updateUser(id, userDTO, expectedVersion))
+                .flatMap(updatedUser -> ServerResponse.ok().eTag(ETags.of(updatedUser, MediaType.APPLICATION_JSON))
+                        .bodyValue(new ApiResponse<>(HttpStatus.OK.value(), "User updated successfully", updatedUser)));
+    }
+
+    private Mono<ServerResponse> patchUser(ServerRequest request) {
+        UUID id = pathId(request);
+        Long expectedVersion = ETags.expectedVersion(request.headers().firstHeader(HttpHeaders.IF_MATCH));
+        if (Objects.isNull(expectedVersion)) {
+            throw new PreconditionRequiredException("PATCH requires If-Match with the current ETag of the user");
+        }
+        return request.bodyToMono(PatchUserDTO.class)
+                .flatMap(this::validated)
+                .flatMap(userDTO -> userService.patchUser(id, userDTO, expectedVersion))
+                .flatMap(version -> ServerResponse.noContent().eTag(ETags.of(version, MediaType.APPLICATION_JSON)).build());
+    }
+
+    private Mono<ServerResponse> deleteUsers(ServerRequest request) {
+        return request.bodyToMono(ID_LIST)
+                .switchIfEmpty(Mono.fromSupplier(List::of))
+                .flatMap(userService::deleteUsers)
+                .flatMap(result -> ServerResponse.ok()
+                        .bodyValue(new ApiResponse<>(HttpStatus.OK.value(), "Users deleted", result)));
+    }
+
+    private Mono<ServerResponse> deleteUser(ServerRequest request) {
+        return userService.deleteUser(pathId(request))
+                .then(ServerResponse.noContent().build());
+    }
+
+    /**
+     * Bean validation of a request body, the counterpart of {@code @Valid} on the MVC controller.
+     */
+    private <T> Mono<T> validated(T body) {
+        Set<ConstraintViolation<T>> violations = validator.validate(body);
+        if (violations.isEmpty()) {
+            return Mono.just(body);
+        }
+        return Mono.error(new ValidationException(violations));
+    }
+
+    /**
+     * Maps the errors of a handler to the responses {@link GlobalExceptionHandler} gives for them on {@code /users}.
+     * Errors the framework raises as a {@link ResponseStatusException}, such as an unreadable body or an unsupported
+     * content type, keep their own status.
+     */
+    private Mono<ServerResponse> withErrorResponses(Mono<ServerResponse> response) {
+        return response
+                .onErrorResume(ValidationException.class, ex -> ServerResponse.badRequest()
+                        .bodyValue(new ApiResponse<>(HttpStatus.BAD_REQUEST.value(), "Validation failed", ex.errors)))
+                .onErrorResume(EntityNotFoundException.class, ex -> render(exceptionHandler.handleEntityNotFoundException(ex)))
+                .onErrorResume(EntityIsNullException.class, ex -> render(exceptionHandler.handleEntityIsNullException(ex)))
+                .onErrorResume(UniqueConstraintViolationException.class,
+                        ex -> render(exceptionHandler.handleUniqueConstraintViolationException(ex)))
+                .onErrorResume(InvalidRequestException.class, ex -> render(exceptionHandler.handleInvalidRequestException(ex)))
+                .onErrorResume(PreconditionFailedException.class,
+                        ex -> render(exceptionHandler.handlePreconditionFailedException(ex)))
+                .onErrorResume(PreconditionRequiredException.class,
+                        ex -> render(exceptionHandler.handlePreconditionRequiredException(ex)))
+                .onErrorResume(OptimisticLockingFailureException.class,
+                        ex -> render(exceptionHandler.handleOptimisticLockingFailureException(ex)))
+                .onErrorResume(ServerWebInputException.class, ex -> render(ex, "Malformed JSON request"))
+                .onErrorResume(CodecException.class, ex -> render(HttpStatus.BAD_REQUEST, HttpHeaders.EMPTY,
+                        "Malformed JSON request"))
+                .onErrorResume(UnsupportedMediaTypeStatusException.class,
+                        ex -> render(ex, "Unsupported media type: " + ex.getReason()))
+                .onErrorResume(NotAcceptableStatusException.class, ex -> render(ex, "Not acceptable: " + ex.getReason()))
+                .onErrorResume(ResponseStatusException.class, ex -> render(ex, Objects.requireNonNullElse(ex.getReason(),
+                        HttpStatus.valueOf(ex.getStatusCode().value()).getReasonPhrase())))
+                .onErrorResume(Exception.class, ex -> render(exceptionHandler.handleGenericException(ex)));
+    }
+
+    private static Mono<ServerResponse> render(ResponseEntity<?> response) {
+        return ServerResponse.status(response.getStatusCode())
+                .headers(headers -> headers.addAll(response.getHeaders()))
+                .bodyValue(Objects.requireNonNull(response.getBody()));
+    }
+
+    private static Mono<ServerResponse> render(ResponseStatusException ex, String message) {
+        return render(ex.getStatusCode(), ex.getHeaders(), message);
+    }
+
+    private static Mono<ServerResponse> render(HttpStatusCode status, HttpHeaders headers, String message) {
+        return ServerResponse.status(status)
+                .headers(responseHeaders -> responseHeaders.addAll(headers))
+                .bodyValue(new ApiResponse<>(status.value(), message, null));
+    }
+
+    private static UUID pathId(ServerRequest request) {
+        String id = request.pathVariable("id");
+        try {
+            return UUID.fromString(id);
+        } catch (IllegalArgumentException ex) {
+            throw new InvalidRequestException("Malformed user id: " + id);
+        }
+    }
+
+    private static int parseLimit(String limit) {
+        try {
+            return Integer.parseInt(limit);
+        } catch (NumberFormatException ex) {
+            throw new InvalidRequestException("Malformed limit: " + limit);
+        }
+    }
+
+    private static final class ValidationException extends RuntimeException {
+        private final Map<String, String> errors = new TreeMap<>();
+
+        private <T> ValidationException(Set<ConstraintViolation<T>> violations) {
+            super("Validation failed", null, false, false);
+            violations.forEach(violation -> errors.put(violation.getPropertyPath().toString(), violation.getMessage()));
+        }
+    }
+}
@@ -1,57 +1,233 @@
 package com.task.thinkon.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.task.thinkon.dto.ApiResponse;
+import com.task.thinkon.dto.BatchItemResultDTO;
+import com.task.thinkon.dto.BulkDeleteResultDTO;
+import com.task.thinkon.dto.ChangeFeedDTO;
 import com.task.thinkon.dto.CreateUserDTO;
+import com.task.thinkon.dto.PageDTO;
+import com.task.thinkon.dto.PatchUserDTO;
 import com.task.thinkon.dto.UserDTO;
+import com.task.thinkon.dto.UserJson;
+import com.task.thinkon.dto.UserSearchDTO;
+import com.task.thinkon.dto.UserSuggestionDTO;
+import com.task.thinkon.exceptions.PreconditionRequiredException;
+import com.task.thinkon.service.IdempotencyService;
+import com.task.thinkon.service.UserFields;
 import com.task.thinkon.service.UserService;
 import jakarta.validation.Valid;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.HttpMediaTypeNotAcceptableException;
+import org.springframework.web.accept.ContentNegotiationManager;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
+import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
 
 @RestController
 @RequestMapping("/users")
 public class UserController {
 
+    static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+    static final String IDEMPOTENT_REPLAYED = "Idempotent-Replayed";
+
     private final UserService userService;
+    private final IdempotencyService idempotencyService;
+    private final ObjectMapper objectMapper;
+    private final ContentNegotiationManager contentNegotiationManager;
 
-    public UserController(UserService userService) {
+    public UserController(UserService userService, IdempotencyService idempotencyService, ObjectMapper objectMapper,
+                          ContentNegotiationManager contentNegotiationManager) {
         this.userService = userService;
+        this.idempotencyService = idempotencyService;
+        this.objectMapper = objectMapper;
+        this.contentNegotiationManager = contentNegotiationManager;
     }
 
+    /**
+     * With an {@value #IDEMPOTENCY_KEY} header, a retry of a request gets the response of the original one, marked by
+     * {@value #IDEMPOTENT_REPLAYED}{@code : true}, instead of creating the user again.
+     */
     @PostMapping
-    public ResponseEntity<ApiResponse<UUID>> createUser(@Valid @RequestBody CreateUserDTO userDTO) {
-        UUID userId = userService.createUser(userDTO);
+    public ResponseEntity<ApiResponse<UUID>> createUser(@Valid @RequestBody CreateUserDTO userDTO,
+                                                        @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey) {
+        if (Objects.isNull(idempotencyKey)) {
+            UUID userId = userService.createUser(userDTO);
+            return ResponseEntity.status(HttpStatus.CREATED)
+                    .body(new ApiResponse<>(HttpStatus.CREATED.value(), "User created successfully", userId));
+        }
+
+        IdempotencyService.Result result = idempotencyService.createUser(idempotencyKey, userDTO);
         return ResponseEntity.status(HttpStatus.CREATED)
-                .body(new ApiResponse<>(HttpStatus.CREATED.value(), "User created successfully", userId));
+                .header(IDEMPOTENT_REPLAYED, String.valueOf(result.replayed()))
+                .body(new ApiResponse<>(HttpStatus.CREATED.value(), "User created successfully", result.userId()));
+    }
+
+    @PostMapping("/batch")
+    public ResponseEntity<ApiResponse<List<BatchItemResultDTO>>> createUsers(@RequestBody List<CreateUserDTO> userDTOs) {
+        List<BatchItemResultDTO> results = userService.createUsers(userDTOs);
+        return ResponseEntity.ok(new ApiResponse<>(HttpStatus.OK.value(), "User batch processed", results));
+    }
+
+    /**
+     * JSON pages of whole users, the common case. Users are spliced into the response as JSON cached by id and
+     * version, instead of being mapped and serialized on every request. Sparse fieldsets and the other formats are
+     * served by {@link #getAllUsers}.
+     */
+    @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE, params = "!fields")
+    public ResponseEntity<ApiResponse<PageDTO<UserJson>>> getAllUsersJson(@RequestParam(defaultValue = "50") int limit,
+                                                                          @RequestParam(required = false) String cursor,
+                                                                          WebRequest request) {
+        PageDTO<UserJson> users = userService.getAllUsersJson(limit, cursor);
+        String eTag = ETags.ofJson(users);
+        if (request.checkNotModified(eTag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(eTag).varyBy(HttpHeaders.ACCEPT)
+                .body(new ApiResponse<>(HttpStatus.OK.value(), "Users retrieved successfully", users));
     }
 
     @GetMapping
-    public ResponseEntity<ApiResponse<List<UserDTO>>> getAllUsers() {
-        List<UserDTO> users = userService.getAllUsers();
-        return ResponseEntity.ok(new ApiResponse<>(HttpStatus.OK.value(), "Users retrieved successfully", users));
+    public ResponseEntity<ApiResponse<PageDTO<UserDTO>>> getAllUsers(@RequestParam(defaultValue = "50") int limit,
+                                                                     @RequestParam(required = false) String cursor,
+                                                                     @RequestParam(required = false) String fields,
+                                                                     WebRequest request) {
+        Set<String> fieldSet = UserFields.parse(fields);
+        PageDTO<UserDTO> users = userService.getAllUsers(limit, cursor, fieldSet);
+        String eTag = ETags.of(users);
+        if (request.checkNotModified(eTag)) {
+            return null;
+        }
+        if (Objects.nonNull(fieldSet)) {
+            users.getItems().forEach(user -> UserFields.retain(user, fieldSet));
+        }
+        return ResponseEntity.ok().eTag(eTag).varyBy(HttpHeaders.ACCEPT)
+                .body(new ApiResponse<>(HttpStatus.OK.value(), "Users retrieved successfully", users));
+    }
+
+    /**
+     * JSON search results, with users spliced in as cached JSON like {@link #getAllUsersJson}.
+     */
+    @GetMapping(value = "/search", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<ApiResponse<PageDTO<UserJson>>> searchUsersJson(@Valid UserSearchDTO filters,
+                                                                          @RequestParam(defaultValue = "50") int limit,
+                                                                          @RequestParam(required = false) String cursor,
+                                                                          WebRequest request) {
+        PageDTO<UserJson> users = userService.searchUsersJson(filters, limit, cursor);
+        String eTag = ETags.ofJson(users);
+        if (request.checkNotModified(eTag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(eTag).varyBy(HttpHeaders.ACCEPT)
+                .body(new ApiResponse<>(HttpStatus.OK.value(), "Users retrieved successfully", users));
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<ApiResponse<PageDTO<UserDTO>>> searchUsers(@Valid UserSearchDTO filters,
+                                                                     @RequestParam(defaultValue = "50") int limit,
+                                                                     @RequestParam(required = false) String cursor,
+                                                                     WebRequest request) {
+        PageDTO<UserDTO> users = userService.searchUsers(filters, limit, cursor);
+        String eTag = ETags.of(users);
+        if (request.checkNotModified(eTag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(eTag).varyBy(HttpHeaders.ACCEPT)
+                .body(new ApiResponse<>(HttpStatus.OK.value(), "Users retrieved successfully", users));
+    }
+
+    @GetMapping("/suggest")
+    public ResponseEntity<ApiResponse<List<UserSuggestionDTO>>> suggestUsers(@RequestParam(required = false) String q,
+                                                                             @RequestParam(defaultValue = "10") int limit) {
+        List<UserSuggestionDTO> suggestions = userService.suggestUsers(q, limit);
+        return ResponseEntity.ok(new ApiResponse<>(HttpStatus.OK.value(), "Suggestions retrieved successfully", suggestions));
+    }
+
+    /**
+     * Changes after {@code since}, so that a client keeps its copy of the users up to date without listing them all
+     * again. Start without {@code since} and pass back {@code nextSince} from then on.
+     */
+    @GetMapping("/changes")
+    public ResponseEntity<ApiResponse<ChangeFeedDTO>> getChanges(@RequestParam(required = false) String since,
+                                                                @RequestParam(defaultValue = "50") int limit) {
+        ChangeFeedDTO changes = userService.getChanges(since, limit);
+        return ResponseEntity.ok(new ApiResponse<>(HttpStatus.OK.value(), "Changes retrieved successfully", changes));
+    }
+
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportUsers() {
+        StreamingResponseBody body = outputStream -> {
+            try (JsonGenerator generator = objectMapper.createGenerator(outputStream)) {
+                generator.setRootValueSeparator(null);
+                userService.exportUsers(user -> writeLine(generator, user));
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<ApiResponse<UserDTO>> getUserById(@PathVariable UUID id) {
-        UserDTO user = userService.getUserById(id);
-        return ResponseEntity.ok(new ApiResponse<>(HttpStatus.OK.value(), "User retrieved successfully", user));
+    public ResponseEntity<ApiResponse<UserDTO>> getUserById(@PathVariable UUID id,
+                                                           @RequestParam(required = false) String fields,
+                                                           NativeWebRequest request) throws HttpMediaTypeNotAcceptableException {
+        Set<String> fieldSet = UserFields.parse(fields);
+        UserDTO user = userService.getUserById(id, fieldSet);
+        String eTag = ETags.of(user, responseFormat(request));
+        if (request.checkNotModified(eTag)) {
+            return null;
+        }
+        if (Objects.nonNull(fieldSet)) {
+            UserFields.retain(user, fieldSet);
+        }
+        return ResponseEntity.ok().eTag(eTag).varyBy(HttpHeaders.ACCEPT)
+                .body(new ApiResponse<>(HttpStatus.OK.value(), "User retrieved successfully", user));
     }
 
     @PutMapping("/{id}")
-    public ResponseEntity<ApiResponse<UserDTO>> updateUser(@PathVariable UUID id, @Valid @RequestBody CreateUserDTO userDTO) {
-        UserDTO updatedUser = userService.updateUser(id, userDTO);
-        return ResponseEntity.ok(new ApiResponse<>(HttpStatus.OK.value(), "User updated successfully", updatedUser));
+    public ResponseEntity<ApiResponse<UserDTO>> updateUser(@PathVariable UUID id, @Valid @RequestBody CreateUserDTO userDTO,
+                                                           @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                                           NativeWebRequest request) throws HttpMediaTypeNotAcceptableException {
+        UserDTO updatedUser = userService.updateUser(id, userDTO, ETags.expectedVersion(ifMatch));
+        return ResponseEntity.ok().eTag(ETags.of(updatedUser, responseFormat(request)))
+                .body(new ApiResponse<>(HttpStatus.OK.value(), "User updated successfully", updatedUser));
+    }
+
+    @PatchMapping("/{id}")
+    public ResponseEntity<Void> patchUser(@PathVariable UUID id, @Valid @RequestBody PatchUserDTO userDTO,
+                                          @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Long expectedVersion = ETags.expectedVersion(ifMatch);
+        if (Objects.isNull(expectedVersion)) {
+            throw new PreconditionRequiredException("PATCH requires If-Match with the current ETag of the user");
+        }
+        long version = userService.patchUser(id, userDTO, expectedVersion);
+        return ResponseEntity.noContent().eTag(ETags.of(version, MediaType.APPLICATION_JSON)).build();
+    }
+
+    @DeleteMapping
+    public ResponseEntity<ApiResponse<BulkDeleteResultDTO>> deleteUsers(@RequestBody List<UUID> ids) {
+        BulkDeleteResultDTO result = userService.deleteUsers(ids);
+        return ResponseEntity.ok(new ApiResponse<>(HttpStatus.OK.value(), "Users deleted", result));
     }
 
     @DeleteMapping("/{id}")
@@ -59,4 +235,20 @@ public class UserController {
         userService.deleteUser(id);
         return ResponseEntity.noContent().build();
     }
-}
\ No newline at end of file
+
+    private static void writeLine(JsonGenerator generator, UserDTO user) {
+        try {
+            generator.writeObject(user);
+            generator.writeRaw('\n');
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    /**
+     * Format the message converters answer {@code request} in, which the tag of a single user names.
+     */
+    private MediaType responseFormat(NativeWebRequest request) throws HttpMediaTypeNotAcceptableException {
+        return ETags.format(contentNegotiationManager.resolveMediaTypes(request));
+    }
+}
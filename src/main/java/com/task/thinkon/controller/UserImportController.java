@@ -0,0 +1,58 @@
+package com.task.thinkon.controller;
+
+import com.task.thinkon.dto.ApiResponse;
+import com.task.thinkon.dto.ImportJobStatusDTO;
+import com.task.thinkon.dto.ImportRejectionDTO;
+import com.task.thinkon.service.importing.UserImportService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.util.List;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/users/imports")
+public class UserImportController {
+
+    private final UserImportService userImportService;
+
+    public UserImportController(UserImportService userImportService) {
+        this.userImportService = userImportService;
+    }
+
+    @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<ApiResponse<ImportJobStatusDTO>> startImport(@RequestParam("file") MultipartFile file) {
+        ImportJobStatusDTO status = userImportService.startImport(file);
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .body(new ApiResponse<>(HttpStatus.ACCEPTED.value(), "Import started", status));
+    }
+
+    @GetMapping("/{jobId}")
+    public ResponseEntity<ApiResponse<ImportJobStatusDTO>> getStatus(@PathVariable UUID jobId) {
+        ImportJobStatusDTO status = userImportService.getStatus(jobId);
+        return ResponseEntity.ok(new ApiResponse<>(HttpStatus.OK.value(), "Import status retrieved successfully", status));
+    }
+
+    @GetMapping("/{jobId}/rejections")
+    public ResponseEntity<ApiResponse<List<ImportRejectionDTO>>> getRejections(@PathVariable UUID jobId,
+                                                                              @RequestParam(defaultValue = "0") long afterLine,
+                                                                              @RequestParam(defaultValue = "100") int limit) {
+        List<ImportRejectionDTO> rejections = userImportService.getRejections(jobId, afterLine, limit);
+        return ResponseEntity.ok(new ApiResponse<>(HttpStatus.OK.value(), "Import rejections retrieved successfully", rejections));
+    }
+
+    @DeleteMapping("/{jobId}")
+    public ResponseEntity<Void> deleteJob(@PathVariable UUID jobId) {
+        userImportService.deleteJob(jobId);
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -0,0 +1,147 @@
+package com.task.thinkon.dto;
+
+import com.google.protobuf.ByteString;
+import com.task.thinkon.proto.User;
+import com.task.thinkon.proto.UserPage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Protobuf encoding of {@link ApiResponse} envelopes carrying a user, a page of users or field errors, with the
+ * messages generated from {@code src/main/proto/users.proto}.
+ */
+public final class ApiResponseProtobuf {
+
+    public static final String MEDIA_TYPE = "application/x-protobuf";
+
+    private ApiResponseProtobuf() {
+        throw new UnsupportedOperationException("Utility class cannot be instantiated");
+    }
+
+    /**
+     * Writes {@code response} to {@code out}, which is flushed but not closed.
+     *
+     * @throws IllegalArgumentException if the data of the response is not a {@link UserDTO}, a {@link PageDTO} of
+     *                                  them or a map of field errors
+     */
+    public static void write(ApiResponse<?> response, OutputStream out) throws IOException {
+        com.task.thinkon.proto.ApiResponse.Builder message = com.task.thinkon.proto.ApiResponse.newBuilder()
+                .setStatus(response.getStatus());
+        if (Objects.nonNull(response.getMessage())) {
+            message.setMessage(response.getMessage());
+        }
+
+        Object data = response.getData();
+        if (data instanceof UserDTO user) {
+            message.setUser(toMessage(user));
+        } else if (data instanceof PageDTO<?> page) {
+            UserPage.Builder items = UserPage.newBuilder();
+            page.getItems().forEach(item -> items.addItems(toMessage(asUser(item))));
+            if (Objects.nonNull(page.getNextCursor())) {
+                items.setNextCursor(page.getNextCursor());
+            }
+            message.setPage(items);
+        } else if (data instanceof Map<?, ?> errors) {
+            errors.forEach((field, error) -> message.putErrors(String.valueOf(field), String.valueOf(error)));
+        } else if (Objects.nonNull(data)) {
+            throw new IllegalArgumentException("Cannot encode " + data.getClass().getName() + " as protobuf");
+        }
+        message.build().writeTo(out);
+        out.flush();
+    }
+
+    /**
+     * Reads a response written by {@link #write}. Its data is a {@link UserDTO}, a {@link PageDTO} of them, a
+     * {@code Map<String, String>} of field errors or {@code null}.
+     */
+    public static ApiResponse<Object> read(InputStream in) throws IOException {
+        com.task.thinkon.proto.ApiResponse message = com.task.thinkon.proto.ApiResponse.parseFrom(in);
+        ApiResponse<Object> response = new ApiResponse<>(message.getStatus(), message.getMessage(), null);
+        switch (message.getDataCase()) {
+            case USER -> response.setData(toDTO(message.getUser()));
+            case PAGE -> {
+                List<UserDTO> items = new ArrayList<>(message.getPage().getItemsCount());
+                message.getPage().getItemsList().forEach(user -> items.add(toDTO(user)));
+                response.setData(new PageDTO<>(items,
+                        message.getPage().hasNextCursor() ? message.getPage().getNextCursor() : null));
+            }
+            default -> {
+                if (message.getErrorsCount() > 0) {
+                    response.setData(new LinkedHashMap<>(message.getErrorsMap()));
+                }
+            }
+        }
+        return response;
+    }
+
+    private static User toMessage(UserDTO user) {
+        User.Builder message = User.newBuilder();
+        if (Objects.nonNull(user.getId())) {
+            message.setId(ByteString.copyFrom(toBytes(user.getId())));
+        }
+        if (Objects.nonNull(user.getUsername())) {
+            message.setUsername(user.getUsername());
+        }
+        if (Objects.nonNull(user.getFirstName())) {
+            message.setFirstName(user.getFirstName());
+        }
+        if (Objects.nonNull(user.getLastName())) {
+            message.setLastName(user.getLastName());
+        }
+        if (Objects.nonNull(user.getEmail())) {
+            message.setEmail(user.getEmail());
+        }
+        if (Objects.nonNull(user.getPhoneNumber())) {
+            message.setPhoneNumber(user.getPhoneNumber());
+        }
+        if (Objects.nonNull(user.getVersion())) {
+            message.setVersion(user.getVersion());
+        }
+        return message.build();
+    }
+
+    private static UserDTO toDTO(User message) {
+        UserDTO user = new UserDTO();
+        if (!message.getId().isEmpty()) {
+            user.setId(toUuid(message.getId()));
+        }
+        user.setUsername(message.hasUsername() ? message.getUsername() : null);
+        user.setFirstName(message.hasFirstName() ? message.getFirstName() : null);
+        user.setLastName(message.hasLastName() ? message.getLastName() : null);
+        user.setEmail(message.hasEmail() ? message.getEmail() : null);
+        user.setPhoneNumber(message.hasPhoneNumber() ? message.getPhoneNumber() : null);
+        user.setVersion(message.hasVersion() ? message.getVersion() : null);
+        return user;
+    }
+
+    private static UserDTO asUser(Object item) {
+        if (item instanceof UserDTO user) {
+            return user;
+        }
+        throw new IllegalArgumentException("Cannot encode a page of " + item.getClass().getName() + " as protobuf");
+    }
+
+    private static byte[] toBytes(UUID id) {
+        return ByteBuffer.allocate(16)
+                .putLong(id.getMostSignificantBits())
+                .putLong(id.getLeastSignificantBits())
+                .array();
+    }
+
+    private static UUID toUuid(ByteString bytes) {
+        if (bytes.size() != 16) {
+            throw new IllegalArgumentException("A user id must be 16 bytes long, got " + bytes.size());
+        }
+        ByteBuffer buffer = bytes.asReadOnlyByteBuffer();
+        return new UUID(buffer.getLong(), buffer.getLong());
+    }
+}
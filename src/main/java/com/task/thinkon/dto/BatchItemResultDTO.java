@@ -0,0 +1,37 @@
+package com.task.thinkon.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.Map;
+import java.util.UUID;
+
+@Setter
+@Getter
+@AllArgsConstructor
+public class BatchItemResultDTO {
+
+    /**
+     * Position of the item in the submitted batch.
+     */
+    private int index;
+
+    /**
+     * Id of the created user, {@code null} if the item was rejected.
+     */
+    private UUID id;
+
+    /**
+     * Field-level validation or conflict errors, {@code null} if the item was created.
+     */
+    private Map<String, String> errors;
+
+    public static BatchItemResultDTO created(int index, UUID id) {
+        return new BatchItemResultDTO(index, id, null);
+    }
+
+    public static BatchItemResultDTO rejected(int index, Map<String, String> errors) {
+        return new BatchItemResultDTO(index, null, errors);
+    }
+}
@@ -0,0 +1,24 @@
+package com.task.thinkon.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+import java.util.UUID;
+
+@Setter
+@Getter
+@AllArgsConstructor
+public class BulkDeleteResultDTO {
+
+    /**
+     * Number of users deleted by the request.
+     */
+    private int deleted;
+
+    /**
+     * Requested ids that did not match any user, in request order.
+     */
+    private List<UUID> notFound;
+}
@@ -0,0 +1,25 @@
+package com.task.thinkon.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+@Setter
+@Getter
+@AllArgsConstructor
+public class ChangeFeedDTO {
+
+    private List<UserChangeDTO> changes;
+
+    /**
+     * Token to pass back as {@code since} to fetch the changes that follow, present even when there are none yet.
+     */
+    private String nextSince;
+
+    /**
+     * Whether more changes were already available beyond this page.
+     */
+    private boolean hasMore;
+}
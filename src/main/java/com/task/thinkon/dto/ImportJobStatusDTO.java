@@ -0,0 +1,24 @@
+package com.task.thinkon.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.Instant;
+import java.util.UUID;
+
+@Setter
+@Getter
+@AllArgsConstructor
+public class ImportJobStatusDTO {
+
+    private UUID jobId;
+    private String state;
+    private long rowsRead;
+    private long rowsRejected;
+    private long rowsImported;
+    private double rowsPerSecond;
+    private Instant startedAt;
+    private Instant finishedAt;
+    private String error;
+}
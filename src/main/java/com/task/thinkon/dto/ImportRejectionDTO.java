@@ -0,0 +1,14 @@
+package com.task.thinkon.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+
+@Setter
+@Getter
+@AllArgsConstructor
+public class ImportRejectionDTO {
+
+    private long lineNumber;
+    private String reason;
+}
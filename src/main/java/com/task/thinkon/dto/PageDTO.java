@@ -0,0 +1,20 @@
+package com.task.thinkon.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+@Setter
+@Getter
+@AllArgsConstructor
+public class PageDTO<T> {
+
+    private List<T> items;
+
+    /**
+     * Opaque token to pass back as {@code cursor} to fetch the next page, {@code null} on the last page.
+     */
+    private String nextCursor;
+}
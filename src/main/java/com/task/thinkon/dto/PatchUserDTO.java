@@ -0,0 +1,30 @@
+package com.task.thinkon.dto;
+
+import jakarta.validation.constraints.Email;
+import jakarta.validation.constraints.Pattern;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Partial update of a user: absent ({@code null}) fields are left unchanged.
+ */
+@Getter
+@Setter
+public class PatchUserDTO {
+
+    @Pattern(regexp = ".*\\S.*", message = "Username must not be blank")
+    private String username;
+
+    @Pattern(regexp = ".*\\S.*", message = "First name must not be blank")
+    private String firstName;
+
+    @Pattern(regexp = ".*\\S.*", message = "Last name must not be blank")
+    private String lastName;
+
+    @Email(message = "Email should be valid")
+    @Pattern(regexp = ".*\\S.*", message = "Email must not be blank")
+    private String email;
+
+    @Pattern(regexp = "\\+?[0-9]+", message = "Phone number should be valid")
+    private String phoneNumber;
+}
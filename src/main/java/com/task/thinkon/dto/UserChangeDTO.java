@@ -0,0 +1,31 @@
+package com.task.thinkon.dto;
+
+import com.task.thinkon.entities.UserChange;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.Instant;
+import java.util.UUID;
+
+@Setter
+@Getter
+@AllArgsConstructor
+public class UserChangeDTO {
+
+    /**
+     * Position of the change in the log.
+     */
+    private long seq;
+
+    private UUID id;
+
+    private UserChange.Type type;
+
+    private Instant changedAt;
+
+    /**
+     * Current state of the user, {@code null} for a {@code DELETED} change.
+     */
+    private UserDTO user;
+}
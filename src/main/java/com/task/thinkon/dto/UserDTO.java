@@ -1,12 +1,18 @@
 package com.task.thinkon.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.Getter;
 import lombok.Setter;
 
 import java.util.UUID;
 
+/**
+ * A user as returned by the API. Properties left out of a sparse fieldset ({@code ?fields=}) are {@code null} and
+ * omitted from the JSON.
+ */
 @Getter
 @Setter
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public class UserDTO {
     private UUID id;
     private String username;
@@ -14,5 +20,6 @@ public class UserDTO {
     private String lastName;
     private String email;
     private String phoneNumber;
+    private Long version;
 }
 
@@ -0,0 +1,30 @@
+package com.task.thinkon.dto;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+import java.util.UUID;
+
+/**
+ * A {@link UserDTO} already serialized as JSON, for a given version of the user. It is written to responses as is,
+ * by copying its UTF-8 bytes into the output, so it only fits JSON responses.
+ */
+@JsonSerialize(using = UserJson.Serializer.class)
+public record UserJson(UUID id, long version, SerializableString json) {
+
+    static final class Serializer extends StdSerializer<UserJson> {
+
+        Serializer() {
+            super(UserJson.class);
+        }
+
+        @Override
+        public void serialize(UserJson user, JsonGenerator generator, SerializerProvider provider) throws IOException {
+            generator.writeRawValue(user.json());
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.task.thinkon.dto;
+
+import jakarta.validation.constraints.Pattern;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Filters of {@code GET /users/search}. Absent or blank filters are ignored; the others must all match. Text filters
+ * are case-insensitive.
+ */
+@Getter
+@Setter
+public class UserSearchDTO {
+
+    /**
+     * Prefix of the username.
+     */
+    private String username;
+
+    /**
+     * Domain of the email, the part after {@code @}.
+     */
+    @Pattern(regexp = "[^@]*", message = "Email domain must not contain '@'")
+    private String emailDomain;
+
+    /**
+     * Prefix of the first name.
+     */
+    private String firstName;
+
+    /**
+     * Prefix of the last name.
+     */
+    private String lastName;
+
+    /**
+     * Prefix of the phone number.
+     */
+    @Pattern(regexp = "\\+?[0-9]*", message = "Phone number prefix should be valid")
+    private String phoneNumber;
+}
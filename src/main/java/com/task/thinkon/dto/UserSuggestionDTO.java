@@ -0,0 +1,24 @@
+package com.task.thinkon.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.UUID;
+
+/**
+ * A user matching the query of {@code GET /users/suggest}, with just enough to display it in a picker.
+ */
+@Setter
+@Getter
+@AllArgsConstructor
+public class UserSuggestionDTO {
+
+    private UUID id;
+
+    private String username;
+
+    private String firstName;
+
+    private String lastName;
+}
@@ -1,11 +1,19 @@
 package com.task.thinkon.dto.mapper;
 
 import com.task.thinkon.dto.CreateUserDTO;
+import com.task.thinkon.dto.PatchUserDTO;
 import com.task.thinkon.dto.UserDTO;
 import com.task.thinkon.entities.User;
+import com.task.thinkon.entities.UserRecord;
 import com.task.thinkon.exceptions.EntityIsNullException;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TupleElement;
 import lombok.extern.slf4j.Slf4j;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
 @Slf4j
 public final class UserMapper {
 
@@ -32,10 +40,82 @@ public final class UserMapper {
         dto.setLastName(user.getLastName());
         dto.setEmail(user.getEmail());
         dto.setPhoneNumber(user.getPhoneNumber());
+        dto.setVersion(user.getVersion());
+
+        return dto;
+    }
+
+    /**
+     * Maps a projection of some user attributes, leaving the others {@code null}.
+     */
+    public static UserDTO toDTO(Tuple tuple) {
+        UserDTO dto = new UserDTO();
+        for (TupleElement<?> element : tuple.getElements()) {
+            Object value = tuple.get(element);
+            switch (element.getAlias()) {
+                case "id" -> dto.setId((UUID) value);
+                case "username" -> dto.setUsername((String) value);
+                case "firstName" -> dto.setFirstName((String) value);
+                case "lastName" -> dto.setLastName((String) value);
+                case "email" -> dto.setEmail((String) value);
+                case "phoneNumber" -> dto.setPhoneNumber((String) value);
+                case "version" -> dto.setVersion((Long) value);
+                default -> throw new IllegalArgumentException("Unknown user attribute " + element.getAlias());
+            }
+        }
+
+        return dto;
+    }
+
+    public static UserRecord toRecord(CreateUserDTO dto) {
+        UserRecord user = new UserRecord();
+        user.setId(UUID.randomUUID());
+        user.setUsername(dto.getUsername());
+        user.setFirstName(dto.getFirstName());
+        user.setLastName(dto.getLastName());
+        user.setEmail(dto.getEmail());
+        user.setPhoneNumber(dto.getPhoneNumber());
+
+        return user;
+    }
+
+    public static UserDTO toDTO(UserRecord user) {
+        UserDTO dto = new UserDTO();
+        dto.setId(user.getId());
+        dto.setUsername(user.getUsername());
+        dto.setFirstName(user.getFirstName());
+        dto.setLastName(user.getLastName());
+        dto.setEmail(user.getEmail());
+        dto.setPhoneNumber(user.getPhoneNumber());
+        dto.setVersion(user.getVersion());
 
         return dto;
     }
 
+    public static UserRecord updateRecordFromDTO(CreateUserDTO dto, UserRecord user) {
+        user.setUsername(dto.getUsername());
+        user.setFirstName(dto.getFirstName());
+        user.setLastName(dto.getLastName());
+        user.setEmail(dto.getEmail());
+        user.setPhoneNumber(dto.getPhoneNumber());
+
+        return user;
+    }
+
+    /**
+     * Entity attributes set by a partial update, keyed by attribute name, in a stable order.
+     */
+    public static Map<String, Object> toChanges(PatchUserDTO dto) {
+        Map<String, Object> changes = new LinkedHashMap<>();
+        putIfPresent(changes, "username", dto.getUsername());
+        putIfPresent(changes, "firstName", dto.getFirstName());
+        putIfPresent(changes, "lastName", dto.getLastName());
+        putIfPresent(changes, "email", dto.getEmail());
+        putIfPresent(changes, "phoneNumber", dto.getPhoneNumber());
+
+        return changes;
+    }
+
     public static User updateEntityFromDTO(CreateUserDTO dto, User user) {
         if (dto == null || user == null) {
             log.error("Attempted to update entity from DTO, DTO and User must not be null");
@@ -50,4 +130,10 @@ public final class UserMapper {
 
         return user;
     }
+
+    private static void putIfPresent(Map<String, Object> changes, String attribute, Object value) {
+        if (value != null) {
+            changes.put(attribute, value);
+        }
+    }
 }
@@ -0,0 +1,47 @@
+package com.task.thinkon.entities;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * A {@code POST /users} request made with an {@code Idempotency-Key}: the user it created, or no user yet while the
+ * request claiming the key is in flight. Written by {@link com.task.thinkon.repository.IdempotencyRecordRepository}.
+ */
+@Entity
+@Table(name = "idempotency_keys", indexes = @Index(name = "idx_idempotency_keys_created_at", columnList = "created_at"))
+@Getter
+@Setter
+@NoArgsConstructor
+public class IdempotencyRecord {
+
+    @Id
+    @Column(name = "idempotency_key", length = 255)
+    private String key;
+
+    /**
+     * SHA-256 of the request body, which a retry must repeat.
+     */
+    @Column(name = "request_hash", nullable = false, length = 64)
+    private String requestHash;
+
+    /**
+     * The request holding the key, so that only it completes or releases the record.
+     */
+    @Column(name = "owner", nullable = false)
+    private UUID owner;
+
+    @Column(name = "user_id")
+    private UUID userId;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+}
@@ -1,37 +1,44 @@
 package com.task.thinkon.entities;
 
+import com.task.thinkon.repository.UserUniqueKeys;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.Id;
 import jakarta.persistence.Table;
 import jakarta.persistence.UniqueConstraint;
+import jakarta.persistence.Version;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Pattern;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.util.UUID;
 
 @Entity
 @Table(name = "users", uniqueConstraints = {
-        @UniqueConstraint(columnNames = {"email"}),
-        @UniqueConstraint(columnNames = {"username"}),
-        @UniqueConstraint(columnNames = {"phoneNumber"})
+        @UniqueConstraint(name = User.EMAIL_CONSTRAINT, columnNames = {"email"}),
+        @UniqueConstraint(name = User.USERNAME_CONSTRAINT, columnNames = {"username"}),
+        @UniqueConstraint(name = User.PHONE_NUMBER_CONSTRAINT, columnNames = {"phoneNumber"})
 })
 @Getter
 @Setter
 @NoArgsConstructor
-public class User {
+public class User implements UserUniqueKeys {
+
+    public static final String EMAIL_CONSTRAINT = "uk_users_email";
+    public static final String USERNAME_CONSTRAINT = "uk_users_username";
+    public static final String PHONE_NUMBER_CONSTRAINT = "uk_users_phone_number";
 
     @Id
     @GeneratedValue
     private UUID id;
 
     @NotBlank(message = "Username is mandatory")
-    @Column(nullable = false, unique = true)
+    @Column(nullable = false)
     private String username;
 
     @NotBlank(message = "First name is mandatory")
@@ -44,11 +51,16 @@ public class User {
 
     @NotBlank(message = "Email is mandatory")
     @Email(message = "Email should be valid")
-    @Column(nullable = false, unique = true)
+    @Column(nullable = false)
     private String email;
 
     @NotBlank(message = "Phone number is mandatory")
     @Pattern(regexp = "\\+?[0-9]+", message = "Phone number should be valid")
-    @Column(nullable = false, unique = true)
+    @Column(nullable = false)
     private String phoneNumber;
+
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
 }
@@ -0,0 +1,54 @@
+package com.task.thinkon.entities;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Entry of the user change log read by {@code GET /users/changes}. Entries are written over JDBC by
+ * {@link com.task.thinkon.repository.UserChangeLog} in the transaction of the write they describe, numbered from
+ * {@link UserChangeSequence} so that sequence numbers follow commit order.
+ */
+@Entity
+@Table(name = "user_changes", indexes = @Index(name = "idx_user_changes_user_id", columnList = "user_id, seq"))
+@Getter
+@Setter
+@NoArgsConstructor
+public class UserChange {
+
+    @Id
+    private Long seq;
+
+    @Column(name = "user_id", nullable = false)
+    private UUID userId;
+
+    // A plain string column, rather than a native enum type, so that the R2DBC writers can bind a string
+    @Enumerated(EnumType.STRING)
+    @JdbcTypeCode(SqlTypes.VARCHAR)
+    @Column(name = "change_type", nullable = false, length = 16)
+    private Type type;
+
+    @Column(name = "changed_at", nullable = false)
+    private Instant changedAt;
+
+    public enum Type {
+        CREATED,
+        UPDATED,
+        /**
+         * Tombstone of a deleted user, kept by compaction so that every client eventually sees the delete.
+         */
+        DELETED
+    }
+}
@@ -0,0 +1,29 @@
+package com.task.thinkon.entities;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Single row holding the last sequence number handed out to a {@link UserChange}. Writers advance it at the end of
+ * their transaction, so its row lock orders the commits of concurrent writers and no number is ever skipped.
+ */
+@Entity
+@Table(name = "user_change_sequence")
+@Getter
+@Setter
+@NoArgsConstructor
+public class UserChangeSequence {
+
+    public static final int ID = 1;
+
+    @Id
+    private Integer id;
+
+    @Column(name = "last_seq", nullable = false)
+    private long lastSeq;
+}
@@ -0,0 +1,76 @@
+package com.task.thinkon.entities;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.io.Serializable;
+import java.util.UUID;
+
+/**
+ * Staging row of a CSV import job. Rows are written in bulk over JDBC (COPY on PostgreSQL), checked with set-based
+ * SQL and merged into {@code users}; only rejected rows are kept afterwards, for the job's rejection report.
+ */
+@Entity
+@Table(name = "user_import_staging", indexes = {
+        @Index(name = "idx_user_import_staging_email", columnList = "job_id, email"),
+        @Index(name = "idx_user_import_staging_username", columnList = "job_id, username"),
+        @Index(name = "idx_user_import_staging_phone_number", columnList = "job_id, phone_number")
+})
+@IdClass(UserImportRow.Key.class)
+@Getter
+@Setter
+@NoArgsConstructor
+public class UserImportRow {
+
+    @Id
+    @Column(name = "job_id")
+    private UUID jobId;
+
+    /**
+     * Line of the row in the uploaded file, the header being line 1.
+     */
+    @Id
+    @Column(name = "line_number")
+    private long lineNumber;
+
+    /**
+     * Id the user will get once merged, generated while loading so the merge is a plain INSERT ... SELECT.
+     */
+    @Column(name = "user_id", nullable = false)
+    private UUID userId;
+
+    @Column(name = "username")
+    private String username;
+
+    @Column(name = "first_name")
+    private String firstName;
+
+    @Column(name = "last_name")
+    private String lastName;
+
+    @Column(name = "email")
+    private String email;
+
+    @Column(name = "phone_number")
+    private String phoneNumber;
+
+    @Column(name = "reject_reason")
+    private String rejectReason;
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @EqualsAndHashCode
+    public static class Key implements Serializable {
+        private UUID jobId;
+        private long lineNumber;
+    }
+}
@@ -0,0 +1,38 @@
+package com.task.thinkon.entities;
+
+import com.task.thinkon.repository.UserUniqueKeys;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.util.UUID;
+
+/**
+ * R2DBC mapping of the {@code users} table used by the reactive API. The schema, constraints and validation rules
+ * are owned by {@link User}.
+ */
+@Table("users")
+@Getter
+@Setter
+@NoArgsConstructor
+public class UserRecord implements UserUniqueKeys {
+
+    @Id
+    private UUID id;
+
+    private String username;
+
+    private String firstName;
+
+    private String lastName;
+
+    private String email;
+
+    private String phoneNumber;
+
+    @Version
+    private Long version;
+}
@@ -5,6 +5,10 @@ import java.util.UUID;
 public class EntityNotFoundException extends RuntimeException {
 
     public EntityNotFoundException(UUID id) {
-        super("User with id " + id + " not found");
+        this("User", id);
+    }
+
+    public EntityNotFoundException(String entityName, UUID id) {
+        super(entityName + " with id " + id + " not found");
     }
 }
\ No newline at end of file
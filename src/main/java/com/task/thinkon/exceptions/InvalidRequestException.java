@@ -0,0 +1,8 @@
+package com.task.thinkon.exceptions;
+
+public class InvalidRequestException extends RuntimeException {
+
+    public InvalidRequestException(String message) {
+        super(message);
+    }
+}
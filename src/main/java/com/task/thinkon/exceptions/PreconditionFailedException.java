@@ -0,0 +1,14 @@
+package com.task.thinkon.exceptions;
+
+import java.util.UUID;
+
+public class PreconditionFailedException extends RuntimeException {
+
+    public PreconditionFailedException(UUID id) {
+        super("User with id " + id + " has been modified since it was last read");
+    }
+
+    public PreconditionFailedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,8 @@
+package com.task.thinkon.exceptions;
+
+public class PreconditionRequiredException extends RuntimeException {
+
+    public PreconditionRequiredException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,8 @@
+package com.task.thinkon.exceptions;
+
+public class RequestInProgressException extends RuntimeException {
+
+    public RequestInProgressException(String message) {
+        super(message);
+    }
+}
@@ -3,11 +3,21 @@ package com.task.thinkon.exceptions.handler;
 import com.task.thinkon.dto.ApiResponse;
 import com.task.thinkon.exceptions.EntityIsNullException;
 import com.task.thinkon.exceptions.EntityNotFoundException;
+import com.task.thinkon.exceptions.InvalidRequestException;
+import com.task.thinkon.exceptions.PreconditionFailedException;
+import com.task.thinkon.exceptions.PreconditionRequiredException;
+import com.task.thinkon.exceptions.RequestInProgressException;
+import com.task.thinkon.exceptions.ServiceUnavailableException;
 import com.task.thinkon.exceptions.UniqueConstraintViolationException;
+import com.task.thinkon.service.UserMetrics;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.web.HttpMediaTypeNotAcceptableException;
+import org.springframework.web.HttpMediaTypeNotSupportedException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
@@ -19,6 +29,12 @@ import java.util.Map;
 @Slf4j
 public class GlobalExceptionHandler {
 
+    private final UserMetrics userMetrics;
+
+    public GlobalExceptionHandler(UserMetrics userMetrics) {
+        this.userMetrics = userMetrics;
+    }
+
     @ExceptionHandler(EntityNotFoundException.class)
     public ResponseEntity<ApiResponse<Void>> handleEntityNotFoundException(EntityNotFoundException ex) {
         ApiResponse<Void> response = new ApiResponse<>(HttpStatus.NOT_FOUND.value(), "Entity not found: " + ex.getMessage(), null);
@@ -37,14 +53,66 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
     }
 
+    @ExceptionHandler(InvalidRequestException.class)
+    public ResponseEntity<ApiResponse<Void>> handleInvalidRequestException(InvalidRequestException ex) {
+        ApiResponse<Void> response = new ApiResponse<>(HttpStatus.BAD_REQUEST.value(), "Invalid request: " + ex.getMessage(), null);
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+    }
+
+    @ExceptionHandler(PreconditionFailedException.class)
+    public ResponseEntity<ApiResponse<Void>> handlePreconditionFailedException(PreconditionFailedException ex) {
+        ApiResponse<Void> response = new ApiResponse<>(HttpStatus.PRECONDITION_FAILED.value(), "Precondition failed: " + ex.getMessage(), null);
+        return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).body(response);
+    }
+
+    @ExceptionHandler(PreconditionRequiredException.class)
+    public ResponseEntity<ApiResponse<Void>> handlePreconditionRequiredException(PreconditionRequiredException ex) {
+        ApiResponse<Void> response = new ApiResponse<>(HttpStatus.PRECONDITION_REQUIRED.value(), "Precondition required: " + ex.getMessage(), null);
+        return ResponseEntity.status(HttpStatus.PRECONDITION_REQUIRED).body(response);
+    }
+
+    @ExceptionHandler(RequestInProgressException.class)
+    public ResponseEntity<ApiResponse<Void>> handleRequestInProgressException(RequestInProgressException ex) {
+        ApiResponse<Void> response = new ApiResponse<>(HttpStatus.CONFLICT.value(), "Conflict: " + ex.getMessage(), null);
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
+    }
+
+    @ExceptionHandler(ServiceUnavailableException.class)
+    public ResponseEntity<ApiResponse<Void>> handleServiceUnavailableException(ServiceUnavailableException ex) {
+        ApiResponse<Void> response = new ApiResponse<>(HttpStatus.SERVICE_UNAVAILABLE.value(), "Service unavailable: " + ex.getMessage(), null);
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, ex.getRetryAfter().toSeconds())))
+                .body(response);
+    }
+
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<ApiResponse<Void>> handleOptimisticLockingFailureException(OptimisticLockingFailureException ex) {
+        ApiResponse<Void> response = new ApiResponse<>(HttpStatus.CONFLICT.value(), "Conflict: User was modified concurrently, retry with its latest version", null);
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
+    }
+
     @ExceptionHandler(HttpMessageNotReadableException.class)
     public ResponseEntity<ApiResponse<Void>> handleHttpMessageNotReadableException(HttpMessageNotReadableException ex) {
         ApiResponse<Void> response = new ApiResponse<>(HttpStatus.BAD_REQUEST.value(), "Malformed JSON request", null);
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
     }
 
+    @ExceptionHandler(HttpMediaTypeNotAcceptableException.class)
+    public ResponseEntity<ApiResponse<Void>> handleHttpMediaTypeNotAcceptableException(HttpMediaTypeNotAcceptableException ex) {
+        ApiResponse<Void> response = new ApiResponse<>(HttpStatus.NOT_ACCEPTABLE.value(), "Not acceptable: " + ex.getMessage(), null);
+        return ResponseEntity.status(HttpStatus.NOT_ACCEPTABLE).body(response);
+    }
+
+    @ExceptionHandler(HttpMediaTypeNotSupportedException.class)
+    public ResponseEntity<ApiResponse<Void>> handleHttpMediaTypeNotSupportedException(HttpMediaTypeNotSupportedException ex) {
+        ApiResponse<Void> response = new ApiResponse<>(HttpStatus.UNSUPPORTED_MEDIA_TYPE.value(), "Unsupported media type: " + ex.getMessage(), null);
+        return ResponseEntity.status(HttpStatus.UNSUPPORTED_MEDIA_TYPE).body(response);
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<ApiResponse<Map<String, String>>> handleValidationExceptions(MethodArgumentNotValidException ex) {
+        // Bean validation rejects the request before it reaches the service, so its outcome is counted here
+        userMetrics.count(ex.getParameter().getExecutable().getName(), UserMetrics.Outcome.VALIDATION_FAILED, 1);
         Map<String, String> errors = new HashMap<>();
         ex.getBindingResult().getFieldErrors().forEach(error ->
                 errors.put(error.getField(), error.getDefaultMessage()));
@@ -0,0 +1,62 @@
+package com.task.thinkon.repository;
+
+import com.task.thinkon.entities.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Claims, completes and expires idempotency keys, each in its own transaction so that other requests and instances
+ * see a claim as soon as it is made.
+ */
+@Repository
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+
+    /**
+     * Claims {@code key} for the request {@code owner}; fails with a
+     * {@link org.springframework.dao.DataIntegrityViolationException} if the key is already taken.
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO idempotency_keys (idempotency_key, request_hash, owner, created_at) "
+            + "VALUES (:key, :requestHash, :owner, :now)", nativeQuery = true)
+    void claim(@Param("key") String key, @Param("requestHash") String requestHash, @Param("owner") UUID owner,
+               @Param("now") Instant now);
+
+    /**
+     * Claims {@code key} for the request {@code owner} if it is still held, uncompleted, by a request that claimed it
+     * before {@code abandonedBefore}, or if it was claimed before {@code expiredBefore}. Returns 1 if it did.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE IdempotencyRecord r SET r.requestHash = :requestHash, r.owner = :owner, r.userId = NULL, "
+            + "r.createdAt = :now WHERE r.key = :key "
+            + "AND ((r.userId IS NULL AND r.createdAt < :abandonedBefore) OR r.createdAt < :expiredBefore)")
+    int takeOver(@Param("key") String key, @Param("requestHash") String requestHash, @Param("owner") UUID owner,
+                 @Param("now") Instant now, @Param("abandonedBefore") Instant abandonedBefore,
+                 @Param("expiredBefore") Instant expiredBefore);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE IdempotencyRecord r SET r.userId = :userId WHERE r.key = :key AND r.owner = :owner")
+    int complete(@Param("key") String key, @Param("owner") UUID owner, @Param("userId") UUID userId);
+
+    /**
+     * Frees {@code key} after its request failed, so that a retry runs again.
+     */
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.key = :key AND r.owner = :owner AND r.userId IS NULL")
+    int release(@Param("key") String key, @Param("owner") UUID owner);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.createdAt < :before")
+    int deleteCreatedBefore(@Param("before") Instant before);
+}
@@ -0,0 +1,187 @@
+package com.task.thinkon.repository;
+
+import com.task.thinkon.entities.UserChange;
+import com.task.thinkon.entities.UserChangeSequence;
+import com.task.thinkon.entities.UserRecord;
+import io.r2dbc.pool.ConnectionPool;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.data.relational.core.query.Criteria;
+import org.springframework.data.relational.core.query.Update;
+import org.springframework.r2dbc.connection.R2dbcTransactionManager;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+
+import static org.springframework.data.relational.core.query.Criteria.where;
+import static org.springframework.data.relational.core.query.Query.query;
+
+/**
+ * Non-blocking access to {@code users} for the reactive API. It owns its R2DBC connection pool and transaction
+ * manager rather than exposing them as beans, which would switch the JDBC stack off (see
+ * {@link com.task.thinkon.config.ReactiveApiConfig}).
+ */
+public class ReactiveUserRepository implements DisposableBean {
+
+    private static final String LOCK_EXISTING_IDS_SQL = "SELECT id FROM users WHERE id IN (:ids) FOR UPDATE";
+    private static final String RESERVE_SQL = "UPDATE user_change_sequence SET last_seq = last_seq + :count WHERE id = :id";
+    private static final String LAST_SEQ_SQL = "SELECT last_seq FROM user_change_sequence WHERE id = :id";
+    private static final String INSERT_CHANGE_SQL = "INSERT INTO user_changes (seq, user_id, change_type, changed_at) "
+            + "VALUES (:seq, :userId, :type, :changedAt)";
+
+    private final ConnectionPool connectionPool;
+    private final R2dbcEntityTemplate template;
+    private final TransactionalOperator transactionalOperator;
+
+    public ReactiveUserRepository(ConnectionPool connectionPool) {
+        this.connectionPool = connectionPool;
+        this.template = new R2dbcEntityTemplate(connectionPool);
+        this.transactionalOperator = TransactionalOperator.create(new R2dbcTransactionManager(connectionPool));
+    }
+
+    public Mono<UserRecord> findById(UUID id) {
+        return template.selectOne(query(where("id").is(id)), UserRecord.class);
+    }
+
+    /**
+     * Users ordered by id after {@code afterId} ({@code null} for the first page), at most {@code limit} of them.
+     */
+    public Flux<UserRecord> findPage(UUID afterId, int limit) {
+        Criteria criteria = Objects.isNull(afterId) ? Criteria.empty() : where("id").greaterThan(afterId);
+        return template.select(query(criteria).sort(Sort.by("id")).limit(limit), UserRecord.class);
+    }
+
+    /**
+     * Every user, emitted as the subscriber requests them.
+     */
+    public Flux<UserRecord> findAll() {
+        return template.select(UserRecord.class).all();
+    }
+
+    /**
+     * Users other than {@code userId} that own one of the given unique values; {@code null} values are ignored.
+     */
+    public Flux<UserRecord> findByUniqueValues(String email, String username, String phoneNumber, UUID userId) {
+        Criteria owners = Criteria.empty();
+        owners = orIs(owners, "email", email);
+        owners = orIs(owners, "username", username);
+        owners = orIs(owners, "phoneNumber", phoneNumber);
+        if (owners.isEmpty()) {
+            return Flux.empty();
+        }
+
+        Criteria criteria = Objects.isNull(userId) ? owners : where("id").not(userId).and(owners);
+        return template.select(query(criteria), UserRecord.class);
+    }
+
+    public Flux<UserRecord> findByUniqueValuesIn(Collection<String> emails, Collection<String> usernames,
+                                                 Collection<String> phoneNumbers) {
+        Criteria criteria = where("email").in(emails).or("username").in(usernames).or("phoneNumber").in(phoneNumbers);
+        return template.select(query(criteria), UserRecord.class);
+    }
+
+    public Mono<Boolean> existsById(UUID id) {
+        return template.exists(query(where("id").is(id)), UserRecord.class);
+    }
+
+    /**
+     * The given ids that match a user, like {@link UserRepository#lockExistingIds}. Only meaningful within
+     * {@link #inTransaction}, which holds the row locks until it ends.
+     */
+    public Flux<UUID> lockExistingIds(Collection<UUID> ids) {
+        return template.getDatabaseClient().sql(LOCK_EXISTING_IDS_SQL)
+                .bind("ids", ids)
+                .map(row -> row.get(0, UUID.class))
+                .all();
+    }
+
+    public Mono<UserRecord> insert(UserRecord user) {
+        return template.insert(user);
+    }
+
+    /**
+     * Writes every column of the user, provided it is still at the version it was read with; a concurrent update
+     * fails with an {@link org.springframework.dao.OptimisticLockingFailureException}.
+     */
+    public Mono<UserRecord> update(UserRecord user) {
+        return template.update(user);
+    }
+
+    /**
+     * Sets the given attributes and bumps the version in a single {@code UPDATE}, provided the user is still at
+     * {@code expectedVersion}. Emits the number of updated rows: 0 if the user is missing or was changed.
+     */
+    public Mono<Long> updateIfVersion(UUID id, long expectedVersion, Map<String, Object> changes) {
+        Update update = Update.update("version", expectedVersion + 1);
+        for (Map.Entry<String, Object> change : changes.entrySet()) {
+            update = update.set(change.getKey(), change.getValue());
+        }
+        return template.update(query(where("id").is(id).and("version").is(expectedVersion)), update, UserRecord.class);
+    }
+
+    public Mono<Long> deleteById(UUID id) {
+        return template.delete(query(where("id").is(id)), UserRecord.class);
+    }
+
+    public Mono<Long> deleteAllById(Collection<UUID> ids) {
+        return template.delete(query(where("id").in(ids)), UserRecord.class);
+    }
+
+    /**
+     * Appends one entry per user to the change log, numbered like {@link UserChangeLog} does. Must run in the
+     * transaction of the write, as its last statement.
+     */
+    public Mono<Void> recordChanges(Collection<UUID> userIds, UserChange.Type type) {
+        if (userIds.isEmpty()) {
+            return Mono.empty();
+        }
+
+        Instant changedAt = Instant.now();
+        return template.getDatabaseClient().sql(RESERVE_SQL)
+                .bind("count", userIds.size())
+                .bind("id", UserChangeSequence.ID)
+                .fetch().rowsUpdated()
+                .then(template.getDatabaseClient().sql(LAST_SEQ_SQL)
+                        .bind("id", UserChangeSequence.ID)
+                        .map(row -> row.get(0, Long.class))
+                        .one())
+                .flatMapMany(lastSeq -> Flux.fromIterable(userIds).index()
+                        .concatMap(entry -> template.getDatabaseClient().sql(INSERT_CHANGE_SQL)
+                                .bind("seq", lastSeq - userIds.size() + entry.getT1() + 1)
+                                .bind("userId", entry.getT2())
+                                .bind("type", type.name())
+                                .bind("changedAt", changedAt)
+                                .fetch().rowsUpdated()))
+                .then();
+    }
+
+    /**
+     * Runs {@code operation} in a single R2DBC transaction.
+     */
+    public <T> Flux<T> inTransaction(Flux<T> operation) {
+        return transactionalOperator.transactional(operation);
+    }
+
+    public <T> Mono<T> inTransaction(Mono<T> operation) {
+        return transactionalOperator.transactional(operation);
+    }
+
+    @Override
+    public void destroy() {
+        connectionPool.dispose();
+    }
+
+    private static Criteria orIs(Criteria criteria, String column, Object value) {
+        if (Objects.isNull(value)) {
+            return criteria;
+        }
+        return criteria.isEmpty() ? where(column).is(value) : criteria.or(column).is(value);
+    }
+}
@@ -0,0 +1,112 @@
+package com.task.thinkon.repository;
+
+import com.task.thinkon.entities.UserChange;
+import com.task.thinkon.entities.UserChangeSequence;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Writes the user change log (the outbox behind {@code GET /users/changes}) in the caller's transaction, over JDBC
+ * so that a batch of entries costs a single batched insert.
+ * <p>
+ * Sequence numbers are taken from the single {@link UserChangeSequence} row, which a writer updates as the last
+ * statement of its transaction. Its row lock is then held until commit, so concurrent writers commit their entries
+ * in sequence order and a reader never sees a number before all lower ones are visible: a client that resumes after
+ * the last number it read cannot miss a change that was still in flight. The price is that the commits of writers
+ * are serialized, for the duration of a commit.
+ */
+@Repository
+@Slf4j
+public class UserChangeLog implements SmartInitializingSingleton {
+
+    private static final String RESERVE_SQL = "UPDATE user_change_sequence SET last_seq = last_seq + ? WHERE id = ?";
+    private static final String LAST_SEQ_SQL = "SELECT last_seq FROM user_change_sequence WHERE id = ?";
+    private static final String INSERT_SQL = "INSERT INTO user_changes (seq, user_id, change_type, changed_at) VALUES (?, ?, ?, ?)";
+
+    private static final String SEQUENCE_EXISTS_SQL = "SELECT COUNT(*) FROM user_change_sequence WHERE id = ?";
+    private static final String BACKFILL_SQL = "INSERT INTO user_changes (seq, user_id, change_type, changed_at) "
+            + "SELECT ROW_NUMBER() OVER (ORDER BY id), id, '" + UserChange.Type.CREATED + "', "
+            + "CAST(? AS TIMESTAMP WITH TIME ZONE) FROM users";
+    private static final String CREATE_SEQUENCE_SQL = "INSERT INTO user_change_sequence (id, last_seq) VALUES (?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    public UserChangeLog(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    /**
+     * Creates the sequence row on first start, along with a {@code CREATED} entry for every existing user, so that
+     * reading the log from the beginning always yields every user.
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                Integer sequences = jdbcTemplate.queryForObject(SEQUENCE_EXISTS_SQL, Integer.class, UserChangeSequence.ID);
+                if (Objects.requireNonNullElse(sequences, 0) > 0) {
+                    return;
+                }
+
+                int backfilled = jdbcTemplate.update(BACKFILL_SQL, Timestamp.from(Instant.now()));
+                jdbcTemplate.update(CREATE_SEQUENCE_SQL, UserChangeSequence.ID, backfilled);
+                log.info("User change log initialised with {} existing users", backfilled);
+            });
+        } catch (DuplicateKeyException ex) {
+            // Another instance initialised it first
+            log.info("User change log already initialised");
+        }
+    }
+
+    /**
+     * Reserves {@code count} sequence numbers, holding the sequence row until the calling transaction ends, and
+     * returns the last of them; the range is {@code (returned - count, returned]}.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public long reserve(int count) {
+        if (jdbcTemplate.update(RESERVE_SQL, count, UserChangeSequence.ID) == 0) {
+            throw new IllegalStateException("User change sequence is not initialised");
+        }
+        Long lastSeq = jdbcTemplate.queryForObject(LAST_SEQ_SQL, Long.class, UserChangeSequence.ID);
+        return Objects.requireNonNull(lastSeq);
+    }
+
+    /**
+     * Appends one entry per user, in iteration order. Must be the last write of the calling transaction.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(Collection<UUID> userIds, UserChange.Type type) {
+        if (userIds.isEmpty()) {
+            return;
+        }
+
+        long seq = reserve(userIds.size()) - userIds.size();
+        Timestamp changedAt = Timestamp.from(Instant.now());
+        List<Object[]> rows = new ArrayList<>(userIds.size());
+        for (UUID userId : userIds) {
+            rows.add(new Object[]{++seq, userId, type.name(), changedAt});
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, rows);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(UUID userId, UserChange.Type type) {
+        record(List.of(userId), type);
+    }
+}
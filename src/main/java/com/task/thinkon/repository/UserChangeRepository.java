@@ -0,0 +1,35 @@
+package com.task.thinkon.repository;
+
+import com.task.thinkon.entities.UserChange;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Reads and compacts the user change log. Entries are written by {@link UserChangeLog}.
+ */
+@Repository
+public interface UserChangeRepository extends JpaRepository<UserChange, Long> {
+
+    List<UserChange> findBySeqGreaterThanOrderBySeqAsc(long seq, Limit limit);
+
+    @Query("SELECT MAX(c.seq) FROM UserChange c")
+    Long findLastSeq();
+
+    /**
+     * Deletes the entries superseded by an entry numbered in {@code (fromSeq, toSeq]}, i.e. older entries of the
+     * users changed in that range. Returns the number of deleted entries.
+     */
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM UserChange c WHERE c.userId IN "
+            + "(SELECT n.userId FROM UserChange n WHERE n.seq > :fromSeq AND n.seq <= :toSeq) "
+            + "AND EXISTS (SELECT 1 FROM UserChange n WHERE n.userId = c.userId AND n.seq > c.seq)")
+    int deleteSuperseded(@Param("fromSeq") long fromSeq, @Param("toSeq") long toSeq);
+}
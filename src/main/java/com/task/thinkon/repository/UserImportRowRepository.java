@@ -0,0 +1,17 @@
+package com.task.thinkon.repository;
+
+import com.task.thinkon.entities.UserImportRow;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface UserImportRowRepository extends JpaRepository<UserImportRow, UserImportRow.Key> {
+
+    List<UserImportRow> findByJobIdAndRejectReasonIsNotNullAndLineNumberGreaterThanOrderByLineNumberAsc(UUID jobId,
+                                                                                                        long lineNumber,
+                                                                                                        Limit limit);
+}
@@ -1,16 +1,27 @@
 package com.task.thinkon.repository;
 
 import com.task.thinkon.entities.User;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
-public interface UserRepository extends JpaRepository<User, UUID> {
+public interface UserRepository extends JpaRepository<User, UUID>, JpaSpecificationExecutor<User>, UserRepositoryCustom {
 
     @Query("SELECT u FROM User u WHERE (u.email = :email OR u.username = :username OR u.phoneNumber = :phoneNumber) "
             + "AND (:userId IS NULL OR u.id <> :userId)")
@@ -18,4 +29,54 @@ public interface UserRepository extends JpaRepository<User, UUID> {
                                                           @Param("username") String username,
                                                           @Param("phoneNumber") String phoneNumber,
                                                           @Param("userId") UUID userId);
+
+    List<User> findByEmailInOrUsernameInOrPhoneNumberIn(Collection<String> emails,
+                                                        Collection<String> usernames,
+                                                        Collection<String> phoneNumbers);
+
+    /**
+     * The given ids that match a user, whose rows stay locked until the transaction ends so that a concurrent delete
+     * of the same users waits for it and then no longer finds them.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT u.id FROM User u WHERE u.id IN :ids")
+    List<UUID> lockExistingIds(@Param("ids") Collection<UUID> ids);
+
+    /**
+     * Deletes a user without loading it first, returning the number of deleted rows.
+     */
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM User u WHERE u.id = :id")
+    int deleteUserById(@Param("id") UUID id);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM User u WHERE u.id IN :ids")
+    int deleteUsersByIdIn(@Param("ids") Collection<UUID> ids);
+
+    List<User> findAllByOrderByIdAsc(Limit limit);
+
+    List<User> findByIdGreaterThanOrderByIdAsc(UUID id, Limit limit);
+
+    /**
+     * Forward-only cursor over the whole table. Must be consumed inside a transaction and closed afterwards;
+     * the fetch size keeps the driver from buffering the full result set.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    @Query("SELECT u FROM User u")
+    Stream<User> streamAll();
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT u.id AS id, u.email AS email, u.username AS username, u.phoneNumber AS phoneNumber FROM User u")
+    Stream<UserUniqueKeys> streamUniqueKeys();
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT u.id AS id, u.username AS username, u.firstName AS firstName, u.lastName AS lastName, "
+            + "u.email AS email FROM User u")
+    Stream<UserSuggestionKeys> streamSuggestionKeys();
 }
@@ -0,0 +1,30 @@
+package com.task.thinkon.repository;
+
+import jakarta.persistence.Tuple;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+public interface UserRepositoryCustom {
+
+    /**
+     * Sets the given attributes of a user and bumps its version in a single {@code UPDATE}, provided the user is
+     * still at {@code expectedVersion}. Returns the number of updated rows: 0 if the user is missing or was changed.
+     */
+    int updateIfVersion(UUID id, long expectedVersion, Map<String, Object> changes);
+
+    /**
+     * Reads the given attributes of up to {@code limit} users ordered by id, starting after {@code afterId} when it is
+     * set. Only the selected columns are read and no entity is loaded. Each tuple holds the attributes under their
+     * names, always including {@code id} and {@code version}.
+     */
+    List<Tuple> findAttributes(Collection<String> attributes, UUID afterId, int limit);
+
+    /**
+     * Reads the given attributes of one user, like {@link #findAttributes}.
+     */
+    Optional<Tuple> findAttributesById(UUID id, Collection<String> attributes);
+}
@@ -0,0 +1,76 @@
+package com.task.thinkon.repository;
+
+import com.task.thinkon.entities.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.CriteriaUpdate;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+class UserRepositoryCustomImpl implements UserRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @Transactional
+    public int updateIfVersion(UUID id, long expectedVersion, Map<String, Object> changes) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<User> update = cb.createCriteriaUpdate(User.class);
+        Root<User> user = update.from(User.class);
+        Path<Long> version = user.get("version");
+
+        changes.forEach(update::set);
+        update.set(version, cb.sum(version, 1L));
+        update.where(cb.equal(user.get("id"), id), cb.equal(version, expectedVersion));
+
+        return entityManager.createQuery(update).executeUpdate();
+    }
+
+    @Override
+    public List<Tuple> findAttributes(Collection<String> attributes, UUID afterId, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<User> user = query.from(User.class);
+
+        query.multiselect(selections(user, attributes));
+        if (Objects.nonNull(afterId)) {
+            query.where(cb.greaterThan(user.get("id"), afterId));
+        }
+        query.orderBy(cb.asc(user.get("id")));
+
+        return entityManager.createQuery(query).setMaxResults(limit).getResultList();
+    }
+
+    @Override
+    public Optional<Tuple> findAttributesById(UUID id, Collection<String> attributes) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<User> user = query.from(User.class);
+
+        query.multiselect(selections(user, attributes));
+        query.where(cb.equal(user.get("id"), id));
+
+        return entityManager.createQuery(query).getResultList().stream().findFirst();
+    }
+
+    private static List<Selection<?>> selections(Root<User> user, Collection<String> attributes) {
+        Set<String> selected = new LinkedHashSet<>(List.of("id", "version"));
+        selected.addAll(attributes);
+        return selected.stream().<Selection<?>>map(attribute -> user.get(attribute).alias(attribute)).toList();
+    }
+}
@@ -0,0 +1,81 @@
+package com.task.thinkon.repository;
+
+import com.task.thinkon.entities.User;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.Locale;
+import java.util.UUID;
+
+/**
+ * Search predicates over {@link User}. Text matches compare {@code lower(column)} against a {@code LIKE} pattern
+ * anchored at one end, so that on PostgreSQL they are served by the indexes of {@code schema-postgresql.sql}:
+ * prefixes by the {@code lower(...) text_pattern_ops} indexes, the email domain by the trigram index.
+ */
+public final class UserSpecifications {
+
+    private static final char ESCAPE = '\\';
+
+    private UserSpecifications() {
+        throw new UnsupportedOperationException("Utility class cannot be instantiated");
+    }
+
+    public static Specification<User> usernameStartsWith(String prefix) {
+        return lowerStartsWith("username", prefix);
+    }
+
+    public static Specification<User> firstNameStartsWith(String prefix) {
+        return lowerStartsWith("firstName", prefix);
+    }
+
+    public static Specification<User> lastNameStartsWith(String prefix) {
+        return lowerStartsWith("lastName", prefix);
+    }
+
+    /**
+     * The first name followed by a space and the last name starts with {@code prefix}. The part of the prefix before
+     * its first space is also matched against the first name alone, so that the first name index narrows the rows.
+     */
+    public static Specification<User> fullNameStartsWith(String prefix) {
+        int space = prefix.indexOf(' ');
+        Specification<User> firstName = firstNameStartsWith(space < 0 ? prefix : prefix.substring(0, space));
+        if (space < 0) {
+            return firstName;
+        }
+        String pattern = escape(prefix.toLowerCase(Locale.ROOT)) + "%";
+        return firstName.and((user, query, cb) -> cb.like(
+                cb.lower(cb.concat(cb.concat(user.get("firstName"), " "), user.get("lastName"))), pattern, ESCAPE));
+    }
+
+    public static Specification<User> emailStartsWith(String prefix) {
+        return lowerStartsWith("email", prefix);
+    }
+
+    public static Specification<User> emailDomainIs(String domain) {
+        String pattern = "%@" + escape(domain.toLowerCase(Locale.ROOT));
+        return (user, query, cb) -> cb.like(cb.lower(user.get("email")), pattern, ESCAPE);
+    }
+
+    public static Specification<User> phoneNumberStartsWith(String prefix) {
+        String pattern = escape(prefix) + "%";
+        return (user, query, cb) -> cb.like(user.get("phoneNumber"), pattern, ESCAPE);
+    }
+
+    /**
+     * Keyset position of a page: the users after the last one of the previous page, in id order.
+     */
+    public static Specification<User> idGreaterThan(UUID id) {
+        return (user, query, cb) -> cb.greaterThan(user.get("id"), id);
+    }
+
+    private static Specification<User> lowerStartsWith(String attribute, String prefix) {
+        String pattern = escape(prefix.toLowerCase(Locale.ROOT)) + "%";
+        return (user, query, cb) -> cb.like(cb.lower(user.get(attribute)), pattern, ESCAPE);
+    }
+
+    /**
+     * Makes the {@code LIKE} wildcards of user input match literally.
+     */
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
@@ -0,0 +1,19 @@
+package com.task.thinkon.repository;
+
+import java.util.UUID;
+
+/**
+ * Projection of the columns a user is suggested by, read without loading the entity into the persistence context.
+ */
+public interface UserSuggestionKeys {
+
+    UUID getId();
+
+    String getUsername();
+
+    String getFirstName();
+
+    String getLastName();
+
+    String getEmail();
+}
@@ -0,0 +1,17 @@
+package com.task.thinkon.repository;
+
+import java.util.UUID;
+
+/**
+ * Projection of the unique columns of a user, read without loading the entity into the persistence context.
+ */
+public interface UserUniqueKeys {
+
+    UUID getId();
+
+    String getEmail();
+
+    String getUsername();
+
+    String getPhoneNumber();
+}
@@ -0,0 +1,42 @@
+package com.task.thinkon.service;
+
+import com.task.thinkon.exceptions.InvalidRequestException;
+
+import java.nio.ByteBuffer;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Encodes the keyset position of a page (the id of its last row) as an opaque, URL-safe token.
+ */
+public final class CursorCodec {
+
+    private static final int UUID_BYTES = 16;
+
+    private CursorCodec() {
+        throw new UnsupportedOperationException("Utility class cannot be instantiated");
+    }
+
+    public static String encode(UUID lastId) {
+        ByteBuffer buffer = ByteBuffer.allocate(UUID_BYTES);
+        buffer.putLong(lastId.getMostSignificantBits());
+        buffer.putLong(lastId.getLeastSignificantBits());
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(buffer.array());
+    }
+
+    public static UUID decode(String cursor) {
+        byte[] bytes;
+        try {
+            bytes = Base64.getUrlDecoder().decode(cursor);
+        } catch (IllegalArgumentException ex) {
+            throw new InvalidRequestException("Malformed cursor");
+        }
+
+        if (bytes.length != UUID_BYTES) {
+            throw new InvalidRequestException("Malformed cursor");
+        }
+
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        return new UUID(buffer.getLong(), buffer.getLong());
+    }
+}
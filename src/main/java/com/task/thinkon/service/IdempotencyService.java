@@ -0,0 +1,244 @@
+package com.task.thinkon.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.task.thinkon.config.IdempotencyProperties;
+import com.task.thinkon.dto.CreateUserDTO;
+import com.task.thinkon.entities.IdempotencyRecord;
+import com.task.thinkon.exceptions.EntityIsNullException;
+import com.task.thinkon.exceptions.InvalidRequestException;
+import com.task.thinkon.exceptions.RequestInProgressException;
+import com.task.thinkon.repository.IdempotencyRecordRepository;
+import com.task.thinkon.service.UserMetrics.Outcome;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * {@code Idempotency-Key} support for {@code POST /users}: the first request with a key creates the user, and
+ * retries with the same key and body get the id of that user back without calling
+ * {@link UserService#createUser} again.
+ * <p>
+ * Keys are claimed in the {@code idempotency_keys} table, so retries are recognized across instances and restarts,
+ * and completed keys are kept in a bounded in-memory cache in front of it. A duplicate that arrives while the key is
+ * in flight waits for the request holding it, on a future when both are on this instance and by polling the table
+ * otherwise. A failed request releases its key, so that its retry runs again.
+ */
+@Service
+@Slf4j
+public class IdempotencyService {
+
+    static final int MAX_KEY_LENGTH = 255;
+    private static final Duration POLL_INTERVAL = Duration.ofMillis(50);
+    private static final String CACHE_NAME = "idempotency-keys";
+
+    private final IdempotencyRecordRepository idempotencyRecordRepository;
+    private final UserService userService;
+    private final UserMetrics userMetrics;
+    private final IdempotencyProperties properties;
+    private final Cache<String, Completed> completed;
+    private final ConcurrentMap<String, InFlight> inFlight = new ConcurrentHashMap<>();
+
+    public IdempotencyService(IdempotencyRecordRepository idempotencyRecordRepository, UserService userService,
+                              UserMetrics userMetrics, IdempotencyProperties properties, MeterRegistry meterRegistry) {
+        this.idempotencyRecordRepository = idempotencyRecordRepository;
+        this.userService = userService;
+        this.userMetrics = userMetrics;
+        this.properties = properties;
+        this.completed = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfterWrite(properties.getTtl())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, completed, CACHE_NAME);
+    }
+
+    /**
+     * The user created by the request, and whether it was created by an earlier request with the same key.
+     */
+    public record Result(UUID userId, boolean replayed) {
+    }
+
+    /**
+     * Creates the user unless a request with the same {@code key} already did, in which case its id is returned.
+     *
+     * @throws InvalidRequestException     if the key is blank, too long, or was used for a different user
+     * @throws RequestInProgressException  if the request holding the key did not complete within
+     *                                     {@code users.idempotency.in-flight-timeout}
+     */
+    public Result createUser(String key, CreateUserDTO createUserDTO) {
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new InvalidRequestException("Idempotency-Key must be between 1 and " + MAX_KEY_LENGTH + " characters");
+        }
+        if (Objects.isNull(createUserDTO)) {
+            throw new EntityIsNullException();
+        }
+        String requestHash = fingerprint(createUserDTO);
+
+        Completed done = completed.getIfPresent(key);
+        if (Objects.nonNull(done)) {
+            checkSameRequest(done.requestHash(), requestHash);
+            return replayed(done.userId());
+        }
+
+        InFlight mine = new InFlight(requestHash, new CompletableFuture<>());
+        InFlight running = inFlight.putIfAbsent(key, mine);
+        if (Objects.nonNull(running)) {
+            checkSameRequest(running.requestHash(), requestHash);
+            return replayed(await(running.userId()));
+        }
+
+        try {
+            Result result = claimAndCreate(key, requestHash, createUserDTO);
+            completed.put(key, new Completed(requestHash, result.userId()));
+            mine.userId().complete(result.userId());
+            return result;
+        } catch (RuntimeException ex) {
+            mine.userId().completeExceptionally(ex);
+            throw ex;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    /**
+     * Deletes the keys older than {@code users.idempotency.ttl}.
+     */
+    @Scheduled(initialDelayString = "${users.idempotency.cleanup-interval:PT1H}",
+            fixedDelayString = "${users.idempotency.cleanup-interval:PT1H}")
+    public void purgeExpired() {
+        int deleted = idempotencyRecordRepository.deleteCreatedBefore(Instant.now().minus(properties.getTtl()));
+        if (deleted > 0) {
+            log.info("{} expired idempotency keys deleted", deleted);
+        }
+    }
+
+    /**
+     * Claims {@code key} in the database and creates the user, or waits for the request holding it on another
+     * instance.
+     */
+    private Result claimAndCreate(String key, String requestHash, CreateUserDTO createUserDTO) {
+        UUID owner = UUID.randomUUID();
+        long deadline = System.nanoTime() + properties.getInFlightTimeout().toNanos();
+        while (true) {
+            if (claim(key, requestHash, owner)) {
+                UUID userId;
+                try {
+                    userId = userService.createUser(createUserDTO);
+                } catch (RuntimeException ex) {
+                    idempotencyRecordRepository.release(key, owner);
+                    throw ex;
+                }
+                if (idempotencyRecordRepository.complete(key, owner, userId) == 0) {
+                    log.warn("Idempotency-Key {} was taken over while its request was running", key);
+                }
+                return new Result(userId, false);
+            }
+
+            Optional<IdempotencyRecord> held = idempotencyRecordRepository.findById(key);
+            if (held.isPresent() && !isExpired(held.get())) {
+                checkSameRequest(held.get().getRequestHash(), requestHash);
+                if (Objects.nonNull(held.get().getUserId())) {
+                    return replayed(held.get().getUserId());
+                }
+                if (System.nanoTime() - deadline > 0) {
+                    throw new RequestInProgressException("A request with this Idempotency-Key is still in progress");
+                }
+                sleep(POLL_INTERVAL);
+            }
+        }
+    }
+
+    private boolean claim(String key, String requestHash, UUID owner) {
+        Instant now = Instant.now();
+        try {
+            idempotencyRecordRepository.claim(key, requestHash, owner, now);
+            return true;
+        } catch (DataIntegrityViolationException ex) {
+            return idempotencyRecordRepository.takeOver(key, requestHash, owner, now,
+                    now.minus(properties.getInFlightTimeout()), now.minus(properties.getTtl())) == 1;
+        }
+    }
+
+    private boolean isExpired(IdempotencyRecord record) {
+        return record.getCreatedAt().isBefore(Instant.now().minus(properties.getTtl()));
+    }
+
+    private UUID await(CompletableFuture<UUID> userId) {
+        try {
+            return userId.get(properties.getInFlightTimeout().toNanos(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException ex) {
+            throw new RequestInProgressException("A request with this Idempotency-Key is still in progress");
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new RequestInProgressException("Interrupted while waiting for the request with this Idempotency-Key");
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(ex.getCause());
+        }
+    }
+
+    private Result replayed(UUID userId) {
+        userMetrics.count("createUser", Outcome.REPLAYED, 1);
+        return new Result(userId, true);
+    }
+
+    private static void checkSameRequest(String expectedHash, String requestHash) {
+        if (!expectedHash.equals(requestHash)) {
+            throw new InvalidRequestException("Idempotency-Key was already used for a different request");
+        }
+    }
+
+    private static void sleep(Duration duration) {
+        try {
+            Thread.sleep(duration.toMillis());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new RequestInProgressException("Interrupted while waiting for the request with this Idempotency-Key");
+        }
+    }
+
+    /**
+     * SHA-256 of the fields of the request, each prefixed with its length so that no two requests share an encoding.
+     */
+    static String fingerprint(CreateUserDTO createUserDTO) {
+        StringBuilder fields = new StringBuilder();
+        for (String field : new String[]{createUserDTO.getUsername(), createUserDTO.getFirstName(),
+                createUserDTO.getLastName(), createUserDTO.getEmail(), createUserDTO.getPhoneNumber()}) {
+            fields.append(Objects.isNull(field) ? -1 : field.length()).append(':').append(Objects.toString(field, ""));
+        }
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(fields.toString().getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private record Completed(String requestHash, UUID userId) {
+    }
+
+    private record InFlight(String requestHash, CompletableFuture<UUID> userId) {
+    }
+}
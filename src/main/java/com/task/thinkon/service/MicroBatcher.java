@@ -0,0 +1,140 @@
+package com.task.thinkon.service;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Group commit for calls made concurrently: items submitted by different threads are queued and handed to the
+ * processor in groups, so that they share its cost (a transaction, a query, a batched insert). A group is closed when
+ * it holds {@code maxSize} items or when its oldest item has waited {@code maxDelay}, whichever comes first.
+ * <p>
+ * Groups are processed one after the other by a single worker thread, started on the first submit, so the processor
+ * never runs concurrently with itself. While a group is processed, the next one fills up.
+ */
+@Slf4j
+public class MicroBatcher<I, O> implements AutoCloseable {
+
+    private final String name;
+    private final int maxSize;
+    private final long maxDelayNanos;
+    private final Function<List<I>, List<O>> processor;
+    private final BlockingQueue<Pending<I, O>> queue = new LinkedBlockingQueue<>();
+    private volatile Thread worker;
+    private volatile boolean closed;
+
+    /**
+     * @param processor turns a group of items into one result per item, in the same order; an exception fails every
+     *                  item of the group
+     */
+    public MicroBatcher(String name, int maxSize, Duration maxDelay, Function<List<I>, List<O>> processor) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("maxSize must be at least 1");
+        }
+        this.name = name;
+        this.maxSize = maxSize;
+        this.maxDelayNanos = maxDelay.toNanos();
+        this.processor = processor;
+    }
+
+    /**
+     * Queues {@code item} for the next group. The returned future completes once the group has been processed.
+     */
+    public CompletableFuture<O> submit(I item) {
+        if (closed) {
+            throw new IllegalStateException(name + " is closed");
+        }
+        if (Objects.isNull(worker)) {
+            start();
+        }
+
+        Pending<I, O> pending = new Pending<>(item, System.nanoTime(), new CompletableFuture<>());
+        queue.add(pending);
+        if (closed) {
+            failQueued();
+        }
+        return pending.result();
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        Thread current = worker;
+        if (Objects.nonNull(current)) {
+            current.interrupt();
+        }
+        failQueued();
+    }
+
+    private synchronized void start() {
+        if (Objects.isNull(worker)) {
+            Thread thread = new Thread(this::run, name);
+            thread.setDaemon(true);
+            thread.start();
+            worker = thread;
+        }
+    }
+
+    private void run() {
+        List<Pending<I, O>> group = new ArrayList<>(maxSize);
+        while (!closed) {
+            try {
+                collect(group);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                group.forEach(pending -> pending.result().completeExceptionally(new IllegalStateException(name + " is closed")));
+                break;
+            }
+            process(group);
+            group.clear();
+        }
+        failQueued();
+    }
+
+    /**
+     * Waits for a first item, then for more until the group is full or the first item is {@code maxDelay} old. Items
+     * that queued up while the previous group was processed may already be past that delay, and go out at once.
+     */
+    private void collect(List<Pending<I, O>> group) throws InterruptedException {
+        group.add(queue.take());
+        long deadline = group.get(0).submittedAt() + maxDelayNanos;
+        queue.drainTo(group, maxSize - group.size());
+        while (group.size() < maxSize) {
+            Pending<I, O> next = queue.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+            if (Objects.isNull(next)) {
+                return;
+            }
+            group.add(next);
+            queue.drainTo(group, maxSize - group.size());
+        }
+    }
+
+    private void process(List<Pending<I, O>> group) {
+        try {
+            List<O> results = processor.apply(group.stream().map(Pending::item).toList());
+            for (int i = 0; i < group.size(); i++) {
+                group.get(i).result().complete(results.get(i));
+            }
+        } catch (RuntimeException | Error ex) {
+            log.error("{} failed to process a group of {}", name, group.size(), ex);
+            group.forEach(pending -> pending.result().completeExceptionally(ex));
+        }
+    }
+
+    private void failQueued() {
+        for (Pending<I, O> pending = queue.poll(); Objects.nonNull(pending); pending = queue.poll()) {
+            pending.result().completeExceptionally(new IllegalStateException(name + " is closed"));
+        }
+    }
+
+    private record Pending<I, O>(I item, long submittedAt, CompletableFuture<O> result) {
+    }
+}
@@ -0,0 +1,355 @@
+package com.task.thinkon.service;
+
+import com.task.thinkon.config.UserUniquenessProperties;
+import com.task.thinkon.dto.BatchItemResultDTO;
+import com.task.thinkon.dto.BulkDeleteResultDTO;
+import com.task.thinkon.dto.CreateUserDTO;
+import com.task.thinkon.dto.PageDTO;
+import com.task.thinkon.dto.PatchUserDTO;
+import com.task.thinkon.dto.UserDTO;
+import com.task.thinkon.dto.mapper.UserMapper;
+import com.task.thinkon.entities.UserChange;
+import com.task.thinkon.entities.UserRecord;
+import com.task.thinkon.exceptions.EntityIsNullException;
+import com.task.thinkon.exceptions.EntityNotFoundException;
+import com.task.thinkon.exceptions.InvalidRequestException;
+import com.task.thinkon.exceptions.PreconditionFailedException;
+import com.task.thinkon.exceptions.UniqueConstraintViolationException;
+import com.task.thinkon.repository.ReactiveUserRepository;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Non-blocking counterpart of {@link UserService} behind {@code /v2/users}: same rules, errors and side effects on the
+ * uniqueness index and the user cache, over R2DBC. Reads go to the database rather than through the cache, whose
+ * loader blocks.
+ */
+@Slf4j
+public class ReactiveUserService {
+
+    private final ReactiveUserRepository userRepository;
+    private final Validator validator;
+    private final UserUniquenessIndex userUniquenessIndex;
+    private final UserSuggestionIndex userSuggestionIndex;
+    private final UserUniquenessProperties userUniquenessProperties;
+    private final UserCache userCache;
+
+    public ReactiveUserService(ReactiveUserRepository userRepository,
+                               Validator validator,
+                               UserUniquenessIndex userUniquenessIndex,
+                               UserSuggestionIndex userSuggestionIndex,
+                               UserUniquenessProperties userUniquenessProperties,
+                               UserCache userCache) {
+        this.userRepository = userRepository;
+        this.validator = validator;
+        this.userUniquenessIndex = userUniquenessIndex;
+        this.userSuggestionIndex = userSuggestionIndex;
+        this.userUniquenessProperties = userUniquenessProperties;
+        this.userCache = userCache;
+    }
+
+    public Mono<UUID> createUser(CreateUserDTO createUserDTO) {
+        if (Objects.isNull(createUserDTO)) {
+            log.error("Provided entity is null");
+            return Mono.error(new EntityIsNullException());
+        }
+
+        String email = createUserDTO.getEmail();
+        String username = createUserDTO.getUsername();
+        String phoneNumber = createUserDTO.getPhoneNumber();
+        return checkUniqueConstraints(email, username, phoneNumber, null)
+                .then(Mono.defer(() -> userRepository.inTransaction(userRepository.insert(UserMapper.toRecord(createUserDTO))
+                        .flatMap(savedUser -> userRepository.recordChanges(List.of(savedUser.getId()), UserChange.Type.CREATED)
+                                .thenReturn(savedUser)))))
+                .onErrorResume(DataIntegrityViolationException.class,
+                        ex -> translateConflict(ex, email, username, phoneNumber, null))
+                .map(savedUser -> {
+                    UUID savedUserId = savedUser.getId();
+                    userUniquenessIndex.register(savedUserId, savedUser.getEmail(), savedUser.getUsername(), savedUser.getPhoneNumber());
+                    userSuggestionIndex.register(savedUserId, savedUser.getUsername(), savedUser.getFirstName(), savedUser.getLastName(), savedUser.getEmail());
+                    userCache.invalidate(savedUserId);
+
+                    log.info("User successfully created, ID: {} ", savedUserId);
+                    return savedUserId;
+                });
+    }
+
+    /**
+     * Creates a batch of users like {@link UserService#createUsers}: one uniqueness query for the whole batch, then
+     * the accepted users are inserted in a single transaction.
+     */
+    public Mono<List<BatchItemResultDTO>> createUsers(List<CreateUserDTO> createUserDTOs) {
+        return Mono.fromCallable(() -> UserBatch.validate(createUserDTOs, UserService.MAX_BATCH_SIZE, validator))
+                .flatMap(batch -> findTakenValues(batch).then(Mono.defer(() -> insertAccepted(batch))));
+    }
+
+    private Mono<Void> findTakenValues(UserBatch batch) {
+        if (!batch.hasValidItems()) {
+            return Mono.empty();
+        }
+
+        return userRepository.findByUniqueValuesIn(batch.emails(), batch.usernames(), batch.phoneNumbers())
+                .doOnNext(existingUser -> batch.taken(existingUser.getEmail(), existingUser.getUsername(), existingUser.getPhoneNumber()))
+                .then();
+    }
+
+    private Mono<List<BatchItemResultDTO>> insertAccepted(UserBatch batch) {
+        List<UserRecord> newUsers = batch.accept().stream().map(UserMapper::toRecord).collect(Collectors.toList());
+        return userRepository.inTransaction(Flux.fromIterable(newUsers).concatMap(userRepository::insert)
+                        .collectList()
+                        .flatMap(savedUsers -> userRepository.recordChanges(savedUsers.stream().map(UserRecord::getId).toList(),
+                                UserChange.Type.CREATED).thenReturn(savedUsers)))
+                .map(savedUsers -> {
+                    for (int i = 0; i < savedUsers.size(); i++) {
+                        UserRecord savedUser = savedUsers.get(i);
+                        batch.created(i, savedUser.getId());
+                        userUniquenessIndex.register(savedUser.getId(), savedUser.getEmail(), savedUser.getUsername(), savedUser.getPhoneNumber());
+                        userSuggestionIndex.register(savedUser.getId(), savedUser.getUsername(), savedUser.getFirstName(), savedUser.getLastName(), savedUser.getEmail());
+                    }
+
+                    log.info("User batch processed, {} created, {} rejected", savedUsers.size(), batch.size() - savedUsers.size());
+                    return batch.results();
+                });
+    }
+
+    /**
+     * Returns one page of users ordered by id, addressed by the same cursors as {@link UserService#getAllUsers}.
+     * The rows are requested from the database as a bounded stream of {@code limit + 1}.
+     */
+    public Mono<PageDTO<UserDTO>> getAllUsers(int limit, String cursor) {
+        int pageSize = Math.min(Math.max(limit, 1), UserService.MAX_PAGE_SIZE);
+        return Mono.defer(() -> userRepository.findPage(Objects.isNull(cursor) ? null : CursorCodec.decode(cursor), pageSize + 1)
+                        .map(UserMapper::toDTO)
+                        .collectList())
+                .map(users -> {
+                    boolean hasNext = users.size() > pageSize;
+                    List<UserDTO> items = hasNext ? users.subList(0, pageSize) : users;
+                    String nextCursor = hasNext ? CursorCodec.encode(items.get(items.size() - 1).getId()) : null;
+                    return new PageDTO<>(items, nextCursor);
+                });
+    }
+
+    /**
+     * Every user, read from the database only as fast as the subscriber consumes them.
+     */
+    public Flux<UserDTO> exportUsers() {
+        return userRepository.findAll().map(UserMapper::toDTO);
+    }
+
+    public Mono<UserDTO> getUserById(UUID id) {
+        return userRepository.findById(id)
+                .map(UserMapper::toDTO)
+                .switchIfEmpty(Mono.error(() -> notFound(id)));
+    }
+
+    /**
+     * Replaces the user, provided it is still at {@code expectedVersion} ({@code null} accepts any version).
+     * A concurrent update that slips in after the check is caught by the version column.
+     */
+    public Mono<UserDTO> updateUser(UUID id, CreateUserDTO createUserDTO, Long expectedVersion) {
+        if (Objects.isNull(createUserDTO)) {
+            log.error("Provided entity is null");
+            return Mono.error(new EntityIsNullException());
+        }
+
+        String email = createUserDTO.getEmail();
+        String username = createUserDTO.getUsername();
+        String phoneNumber = createUserDTO.getPhoneNumber();
+        return userRepository.findById(id)
+                .switchIfEmpty(Mono.error(() -> notFound(id)))
+                .flatMap(existingUser -> {
+                    if (Objects.nonNull(expectedVersion) && !expectedVersion.equals(existingUser.getVersion())) {
+                        log.error("User with ID: {} is at version {}, expected {}", id, existingUser.getVersion(), expectedVersion);
+                        return Mono.error(new PreconditionFailedException(id));
+                    }
+
+                    return checkUniqueConstraints(email, username, phoneNumber, id)
+                            .then(Mono.defer(() -> userRepository.inTransaction(userRepository.update(UserMapper.updateRecordFromDTO(createUserDTO, existingUser))
+                                    .flatMap(updatedUser -> userRepository.recordChanges(List.of(id), UserChange.Type.UPDATED)
+                                            .thenReturn(updatedUser)))))
+                            .onErrorResume(DataIntegrityViolationException.class,
+                                    ex -> translateConflict(ex, email, username, phoneNumber, id));
+                })
+                .map(updatedUser -> {
+                    userUniquenessIndex.register(id, updatedUser.getEmail(), updatedUser.getUsername(), updatedUser.getPhoneNumber());
+                    userSuggestionIndex.register(id, updatedUser.getUsername(), updatedUser.getFirstName(), updatedUser.getLastName(), updatedUser.getEmail());
+
+                    UserDTO updatedUserDTO = UserMapper.toDTO(updatedUser);
+                    userCache.put(updatedUserDTO);
+
+                    log.info("User with ID: {} successfully updated", id);
+                    return updatedUserDTO;
+                });
+    }
+
+    /**
+     * Applies the fields present in {@code patchUserDTO} with a single versioned {@code UPDATE}, like
+     * {@link UserService#patchUser}. Emits the new version of the user.
+     */
+    public Mono<Long> patchUser(UUID id, PatchUserDTO patchUserDTO, long expectedVersion) {
+        if (Objects.isNull(patchUserDTO)) {
+            log.error("Provided entity is null");
+            return Mono.error(new EntityIsNullException());
+        }
+
+        Map<String, Object> changes = UserMapper.toChanges(patchUserDTO);
+        if (changes.isEmpty()) {
+            return Mono.error(new InvalidRequestException("Patch must set at least one field"));
+        }
+
+        String email = patchUserDTO.getEmail();
+        String username = patchUserDTO.getUsername();
+        String phoneNumber = patchUserDTO.getPhoneNumber();
+        return checkUniqueConstraints(email, username, phoneNumber, id)
+                .then(Mono.defer(() -> userRepository.inTransaction(userRepository.updateIfVersion(id, expectedVersion, changes)
+                        .flatMap(updated -> updated == 0 ? Mono.just(updated)
+                                : userRepository.recordChanges(List.of(id), UserChange.Type.UPDATED).thenReturn(updated)))))
+                .onErrorResume(DataIntegrityViolationException.class,
+                        ex -> translateConflict(ex, email, username, phoneNumber, id))
+                .flatMap(updated -> {
+                    if (updated > 0) {
+                        return Mono.just(expectedVersion + 1);
+                    }
+
+                    // Only the failure path pays for telling a missing user from a stale version
+                    return userRepository.existsById(id).flatMap(exists -> {
+                        if (!exists) {
+                            return Mono.error(notFound(id));
+                        }
+                        log.error("User with ID: {} is no longer at version {}", id, expectedVersion);
+                        return Mono.error(new PreconditionFailedException(id));
+                    });
+                })
+                .doOnNext(version -> {
+                    userUniquenessIndex.registerChanges(id, email, username, phoneNumber);
+                    userSuggestionIndex.registerChanges(id, username, patchUserDTO.getFirstName(), patchUserDTO.getLastName(), email);
+                    userCache.invalidate(id);
+
+                    log.info("User with ID: {} successfully patched", id);
+                });
+    }
+
+    public Mono<Void> deleteUser(UUID id) {
+        return userRepository.inTransaction(userRepository.deleteById(id)
+                        .flatMap(deleted -> deleted == 0 ? Mono.just(deleted)
+                                : userRepository.recordChanges(List.of(id), UserChange.Type.DELETED).thenReturn(deleted)))
+                .flatMap(deleted -> {
+                    if (deleted == 0) {
+                        return Mono.error(notFound(id));
+                    }
+
+                    userUniquenessIndex.unregister(id);
+                    userSuggestionIndex.unregister(id);
+                    userCache.invalidate(id);
+                    log.info("User with ID: {} successfully deleted", id);
+                    return Mono.empty();
+                });
+    }
+
+    /**
+     * Deletes the given users in chunks, like {@link UserService#deleteUsers}. Chunks are processed one after the
+     * other, so at most one of them holds a connection.
+     */
+    public Mono<BulkDeleteResultDTO> deleteUsers(List<UUID> ids) {
+        return Mono.fromCallable(() -> UserService.distinctIds(ids))
+                .flatMap(distinctIds -> {
+                    Set<UUID> existingIds = new HashSet<>();
+                    AtomicInteger deleted = new AtomicInteger();
+                    return Flux.range(0, (distinctIds.size() + UserService.DELETE_CHUNK_SIZE - 1) / UserService.DELETE_CHUNK_SIZE)
+                            .map(chunk -> distinctIds.subList(chunk * UserService.DELETE_CHUNK_SIZE,
+                                    Math.min((chunk + 1) * UserService.DELETE_CHUNK_SIZE, distinctIds.size())))
+                            .concatMap(chunk -> userRepository.inTransaction(userRepository.lockExistingIds(chunk).collectList()
+                                    .filter(found -> !found.isEmpty())
+                                    .flatMap(found -> userRepository.deleteAllById(found)
+                                            .then(userRepository.recordChanges(found, UserChange.Type.DELETED))
+                                            .thenReturn(found))))
+                            .doOnNext(found -> {
+                                deleted.addAndGet(found.size());
+                                existingIds.addAll(found);
+                                found.forEach(id -> {
+                                    userUniquenessIndex.unregister(id);
+                                    userSuggestionIndex.unregister(id);
+                                    userCache.invalidate(id);
+                                });
+                            })
+                            .then(Mono.fromSupplier(() -> {
+                                List<UUID> notFound = distinctIds.stream().filter(id -> !existingIds.contains(id)).toList();
+                                log.info("Deleted {} users, {} requested ids not found", deleted.get(), notFound.size());
+                                return new BulkDeleteResultDTO(deleted.get(), notFound);
+                            }));
+                });
+    }
+
+    private EntityNotFoundException notFound(UUID id) {
+        log.error("User with ID: {} not found", id);
+        return new EntityNotFoundException(id);
+    }
+
+    /**
+     * Maps the violated constraint to its field by name, falling back to a lookup when the name is not recognised.
+     */
+    private <T> Mono<T> translateConflict(DataIntegrityViolationException ex, String email, String username,
+                                          String phoneNumber, UUID userId) {
+        Map<String, String> validationErrors = UniqueConstraints.toFieldErrors(ex);
+        Mono<Map<String, String>> conflicts = validationErrors.isEmpty()
+                ? queryUniqueConstraints(email, username, phoneNumber, userId)
+                : Mono.just(validationErrors);
+
+        return conflicts.flatMap(errors -> {
+            if (errors.isEmpty()) {
+                return Mono.error(ex);
+            }
+
+            log.error("Unique fields {} are already in use", errors.keySet());
+            return Mono.error(new UniqueConstraintViolationException(errors));
+        });
+    }
+
+    private Mono<Void> checkUniqueConstraints(String email, String username, String phoneNumber, UUID userId) {
+        if (userUniquenessProperties.getMode() == UserUniquenessProperties.Mode.OPTIMISTIC) {
+            // The write itself is the check, see translateConflict
+            return Mono.empty();
+        }
+
+        Mono<Map<String, String>> conflicts = userUniquenessIndex.isActive()
+                ? Mono.just(userUniquenessIndex.findConflicts(email, username, phoneNumber, userId))
+                : queryUniqueConstraints(email, username, phoneNumber, userId);
+
+        return conflicts.flatMap(validationErrors -> validationErrors.isEmpty()
+                ? Mono.empty()
+                : Mono.error(new UniqueConstraintViolationException(validationErrors)));
+    }
+
+    /**
+     * Looks up the owners of the given unique values; {@code null} values are not checked.
+     */
+    private Mono<Map<String, String>> queryUniqueConstraints(String email, String username, String phoneNumber, UUID userId) {
+        if (Stream.of(email, username, phoneNumber).allMatch(Objects::isNull)) {
+            return Mono.just(new HashMap<>());
+        }
+
+        return userRepository.findByUniqueValues(email, username, phoneNumber, userId)
+                .collectList()
+                .map(conflictingUsers -> {
+                    Map<String, String> validationErrors = UniqueConstraints.conflicts(conflictingUsers, email, username, phoneNumber, userId);
+                    if (!validationErrors.isEmpty()) {
+                        log.error("Unique fields {} are already in use", validationErrors.keySet());
+                    }
+                    return validationErrors;
+                });
+    }
+}
@@ -0,0 +1,82 @@
+package com.task.thinkon.service;
+
+import com.task.thinkon.entities.User;
+import com.task.thinkon.repository.UserUniqueKeys;
+import org.hibernate.exception.ConstraintViolationException;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Field-level errors for unique email, username and phone number conflicts, from the owners found by the pre-check
+ * or from a unique constraint violation on {@code users}.
+ */
+final class UniqueConstraints {
+
+    private UniqueConstraints() {
+        throw new UnsupportedOperationException("Utility class cannot be instantiated");
+    }
+
+    /**
+     * Returns the field whose unique constraint was violated, or an empty map if the violation is not one of the
+     * named constraints of {@link User} (e.g. a schema created before they were named).
+     * <p>
+     * The constraint name extracted by Hibernate is used when available. It is matched by containment because H2
+     * reports it schema-qualified and suffixed with its index; the driver message is the fallback.
+     */
+    static Map<String, String> toFieldErrors(Throwable ex) {
+        Map<String, String> errors = new HashMap<>();
+        for (Throwable cause = ex; Objects.nonNull(cause) && errors.isEmpty(); cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation && Objects.nonNull(violation.getConstraintName())) {
+                putField(errors, violation.getConstraintName());
+            }
+        }
+        for (Throwable cause = ex; Objects.nonNull(cause) && errors.isEmpty(); cause = cause.getCause()) {
+            putField(errors, cause.getMessage());
+        }
+        return errors;
+    }
+
+    /**
+     * Returns the fields whose requested value is already owned by one of {@code owners}, ignoring the user
+     * {@code userId} itself. {@code null} values never conflict.
+     */
+    static Map<String, String> conflicts(Iterable<? extends UserUniqueKeys> owners, String email, String username,
+                                         String phoneNumber, UUID userId) {
+        Map<String, String> errors = new HashMap<>();
+        for (UserUniqueKeys owner : owners) {
+            if (owner.getId().equals(userId)) {
+                continue;
+            }
+
+            if (owner.getEmail().equals(email)) {
+                errors.put("email", "Email is already in use");
+            }
+            if (owner.getUsername().equals(username)) {
+                errors.put("username", "Username is already in use");
+            }
+            if (owner.getPhoneNumber().equals(phoneNumber)) {
+                errors.put("phoneNumber", "Phone number is already in use");
+            }
+        }
+        return errors;
+    }
+
+    private static void putField(Map<String, String> errors, String text) {
+        if (Objects.isNull(text)) {
+            return;
+        }
+
+        String name = text.toLowerCase(Locale.ROOT);
+        if (name.contains(User.EMAIL_CONSTRAINT)) {
+            errors.put("email", "Email is already in use");
+        } else if (name.contains(User.USERNAME_CONSTRAINT)) {
+            errors.put("username", "Username is already in use");
+        } else if (name.contains(User.PHONE_NUMBER_CONSTRAINT)) {
+            errors.put("phoneNumber", "Phone number is already in use");
+        }
+    }
+}
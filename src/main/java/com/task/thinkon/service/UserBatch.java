@@ -0,0 +1,202 @@
+package com.task.thinkon.service;
+
+import com.task.thinkon.dto.BatchItemResultDTO;
+import com.task.thinkon.dto.CreateUserDTO;
+import com.task.thinkon.exceptions.InvalidRequestException;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * The outcome of a batch create, item by item. Shared by the blocking and the reactive service, which only differ in
+ * how they look up the existing owners of the batch's unique values and how they insert the accepted users, and by
+ * the group commit of concurrent single-user creates:
+ * <ol>
+ *     <li>{@link #validate} rejects the items that fail bean validation,</li>
+ *     <li>{@link #taken} records every existing owner of one of {@link #emails()}, {@link #usernames()} or
+ *     {@link #phoneNumbers()},</li>
+ *     <li>{@link #accept()} rejects the conflicting items and returns the users to insert, in order,</li>
+ *     <li>{@link #created} records the id of each inserted user.</li>
+ * </ol>
+ */
+final class UserBatch {
+
+    private final List<CreateUserDTO> items;
+    private final List<BatchItemResultDTO> results;
+    private final List<Integer> acceptedIndexes = new ArrayList<>();
+    private final Set<String> takenEmails = new HashSet<>();
+    private final Set<String> takenUsernames = new HashSet<>();
+    private final Set<String> takenPhoneNumbers = new HashSet<>();
+    private final int invalidCount;
+    private final String duplicateMessage;
+    private int conflictCount;
+
+    private UserBatch(List<CreateUserDTO> items, List<BatchItemResultDTO> results, int invalidCount,
+                      String duplicateMessage) {
+        this.items = items;
+        this.results = results;
+        this.invalidCount = invalidCount;
+        this.duplicateMessage = duplicateMessage;
+    }
+
+    static UserBatch validate(List<CreateUserDTO> items, int maxSize, Validator validator) {
+        return validate(items, maxSize, validator, " is duplicated within the batch");
+    }
+
+    /**
+     * A group of creates submitted separately. An item that repeats a value of an earlier item is reported as a
+     * conflict with an existing user, since that is what it is by the time its caller gets the answer.
+     */
+    static UserBatch group(List<CreateUserDTO> items, Validator validator) {
+        return validate(items, Integer.MAX_VALUE, validator, " is already in use");
+    }
+
+    private static UserBatch validate(List<CreateUserDTO> items, int maxSize, Validator validator,
+                                      String duplicateMessage) {
+        if (Objects.isNull(items) || items.isEmpty()) {
+            throw new InvalidRequestException("Batch must contain at least one user");
+        }
+        if (items.size() > maxSize) {
+            throw new InvalidRequestException("Batch must not contain more than " + maxSize + " users");
+        }
+
+        List<BatchItemResultDTO> results = new ArrayList<>(items.size());
+        int invalidCount = 0;
+        for (int i = 0; i < items.size(); i++) {
+            Map<String, String> validationErrors = validate(items.get(i), validator);
+            if (validationErrors.isEmpty()) {
+                results.add(null);
+            } else {
+                results.add(BatchItemResultDTO.rejected(i, validationErrors));
+                invalidCount++;
+            }
+        }
+        return new UserBatch(items, results, invalidCount, duplicateMessage);
+    }
+
+    boolean hasValidItems() {
+        return results.contains(null);
+    }
+
+    Set<String> emails() {
+        return validValues(CreateUserDTO::getEmail);
+    }
+
+    Set<String> usernames() {
+        return validValues(CreateUserDTO::getUsername);
+    }
+
+    Set<String> phoneNumbers() {
+        return validValues(CreateUserDTO::getPhoneNumber);
+    }
+
+    void taken(String email, String username, String phoneNumber) {
+        takenEmails.add(email);
+        takenUsernames.add(username);
+        takenPhoneNumbers.add(phoneNumber);
+    }
+
+    /**
+     * Rejects the valid items that claim a taken value or one claimed by an earlier item of the batch, and returns
+     * the others.
+     */
+    List<CreateUserDTO> accept() {
+        Set<String> batchEmails = new HashSet<>();
+        Set<String> batchUsernames = new HashSet<>();
+        Set<String> batchPhoneNumbers = new HashSet<>();
+        List<CreateUserDTO> accepted = new ArrayList<>();
+        for (int i = 0; i < items.size(); i++) {
+            if (results.get(i) != null) {
+                continue;
+            }
+
+            CreateUserDTO createUserDTO = items.get(i);
+            Map<String, String> conflicts = new HashMap<>();
+            checkConflict(conflicts, "email", "Email", createUserDTO.getEmail(), takenEmails, batchEmails);
+            checkConflict(conflicts, "username", "Username", createUserDTO.getUsername(), takenUsernames, batchUsernames);
+            checkConflict(conflicts, "phoneNumber", "Phone number", createUserDTO.getPhoneNumber(), takenPhoneNumbers, batchPhoneNumbers);
+
+            if (!conflicts.isEmpty()) {
+                results.set(i, BatchItemResultDTO.rejected(i, conflicts));
+                conflictCount++;
+                continue;
+            }
+
+            batchEmails.add(createUserDTO.getEmail());
+            batchUsernames.add(createUserDTO.getUsername());
+            batchPhoneNumbers.add(createUserDTO.getPhoneNumber());
+            accepted.add(createUserDTO);
+            acceptedIndexes.add(i);
+        }
+        return accepted;
+    }
+
+    /**
+     * Records the id of the {@code n}th user returned by {@link #accept()}.
+     */
+    void created(int n, UUID id) {
+        int index = acceptedIndexes.get(n);
+        results.set(index, BatchItemResultDTO.created(index, id));
+    }
+
+    int size() {
+        return items.size();
+    }
+
+    /**
+     * The number of items rejected by bean validation.
+     */
+    int invalidCount() {
+        return invalidCount;
+    }
+
+    /**
+     * The number of valid items rejected by {@link #accept()} for a taken or duplicated value.
+     */
+    int conflictCount() {
+        return conflictCount;
+    }
+
+    List<BatchItemResultDTO> results() {
+        return results;
+    }
+
+    private Set<String> validValues(Function<CreateUserDTO, String> attribute) {
+        Set<String> values = new HashSet<>();
+        for (int i = 0; i < items.size(); i++) {
+            if (results.get(i) == null) {
+                values.add(attribute.apply(items.get(i)));
+            }
+        }
+        return values;
+    }
+
+    private static Map<String, String> validate(CreateUserDTO createUserDTO, Validator validator) {
+        if (Objects.isNull(createUserDTO)) {
+            return Map.of("user", "User must not be null");
+        }
+
+        return validator.validate(createUserDTO).stream()
+                .collect(Collectors.toMap(violation -> violation.getPropertyPath().toString(),
+                        ConstraintViolation::getMessage, (first, second) -> first, HashMap::new));
+    }
+
+    private void checkConflict(Map<String, String> conflicts, String field, String label, String value,
+                               Set<String> takenValues, Set<String> batchValues) {
+        if (takenValues.contains(value)) {
+            conflicts.put(field, label + " is already in use");
+        } else if (batchValues.contains(value)) {
+            conflicts.put(field, label + duplicateMessage);
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.task.thinkon.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.task.thinkon.config.UserCacheProperties;
+import com.task.thinkon.dto.UserDTO;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Bounded read-through cache of {@link UserDTO} by id in front of the database. Not-found lookups are cached too,
+ * with a shorter lifetime. Hit, miss and eviction statistics are published as the {@code users} cache metrics.
+ * <p>
+ * Cached DTOs are shared between callers and must not be modified.
+ */
+@Component
+public class UserCache {
+
+    private static final String CACHE_NAME = "users";
+
+    private final Cache<UUID, Optional<UserDTO>> cache;
+
+    public UserCache(UserCacheProperties properties, MeterRegistry meterRegistry) {
+        if (!properties.isEnabled()) {
+            this.cache = null;
+            return;
+        }
+
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfter(new FoundOrMissingExpiry(properties.getTtl(), properties.getNegativeTtl()))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    public boolean isEnabled() {
+        return cache != null;
+    }
+
+    /**
+     * Returns the cached lookup for {@code id}, calling {@code loader} at most once per id on a miss.
+     */
+    public Optional<UserDTO> get(UUID id, Function<UUID, Optional<UserDTO>> loader) {
+        return cache == null ? loader.apply(id) : cache.get(id, loader);
+    }
+
+    public void put(UserDTO user) {
+        if (cache != null) {
+            cache.put(user.getId(), Optional.of(user));
+        }
+    }
+
+    public void invalidate(UUID id) {
+        if (cache != null) {
+            cache.invalidate(id);
+        }
+    }
+
+    private static final class FoundOrMissingExpiry implements Expiry<UUID, Optional<UserDTO>> {
+
+        private final long ttlNanos;
+        private final long negativeTtlNanos;
+
+        private FoundOrMissingExpiry(Duration ttl, Duration negativeTtl) {
+            this.ttlNanos = ttl.toNanos();
+            this.negativeTtlNanos = negativeTtl.toNanos();
+        }
+
+        @Override
+        public long expireAfterCreate(UUID id, Optional<UserDTO> user, long currentTime) {
+            return user.isPresent() ? ttlNanos : negativeTtlNanos;
+        }
+
+        @Override
+        public long expireAfterUpdate(UUID id, Optional<UserDTO> user, long currentTime, long currentDuration) {
+            return expireAfterCreate(id, user, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(UUID id, Optional<UserDTO> user, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
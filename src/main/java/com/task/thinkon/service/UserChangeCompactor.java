@@ -0,0 +1,48 @@
+package com.task.thinkon.service;
+
+import com.task.thinkon.repository.UserChangeRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Objects;
+
+/**
+ * Periodically trims the user change log down to the latest entry of each user. Entries are only deleted once a
+ * newer entry of the same user exists, and tombstones are never superseded, so a client resuming from any position
+ * still ends up with the current state of every user it saw.
+ * <p>
+ * Each run only looks at the entries added since the previous run of this instance, in batches of
+ * {@value #BATCH_SIZE}; the first run after a start goes through the whole log.
+ */
+@Component
+@Slf4j
+public class UserChangeCompactor {
+
+    static final int BATCH_SIZE = 10_000;
+
+    private final UserChangeRepository userChangeRepository;
+    private long compactedSeq;
+
+    public UserChangeCompactor(UserChangeRepository userChangeRepository) {
+        this.userChangeRepository = userChangeRepository;
+    }
+
+    @Scheduled(initialDelayString = "${users.changes.compaction-interval:PT10M}",
+            fixedDelayString = "${users.changes.compaction-interval:PT10M}")
+    public synchronized void compact() {
+        Long lastSeq = userChangeRepository.findLastSeq();
+        if (Objects.isNull(lastSeq) || lastSeq <= compactedSeq) {
+            return;
+        }
+
+        long start = System.nanoTime();
+        long deleted = 0;
+        for (long fromSeq = compactedSeq; fromSeq < lastSeq; fromSeq += BATCH_SIZE) {
+            deleted += userChangeRepository.deleteSuperseded(fromSeq, Math.min(fromSeq + BATCH_SIZE, lastSeq));
+        }
+        compactedSeq = lastSeq;
+        log.info("User change log compacted up to {}: {} superseded entries deleted in {} ms", lastSeq, deleted,
+                (System.nanoTime() - start) / 1_000_000);
+    }
+}
@@ -0,0 +1,77 @@
+package com.task.thinkon.service;
+
+import com.task.thinkon.dto.UserDTO;
+import com.task.thinkon.exceptions.InvalidRequestException;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Sparse fieldsets of user reads: the {@code fields} query parameter, a comma-separated list of {@link UserDTO}
+ * properties.
+ */
+public final class UserFields {
+
+    public static final List<String> ALL = List.of("id", "username", "firstName", "lastName", "email", "phoneNumber", "version");
+
+    private UserFields() {
+        throw new UnsupportedOperationException("Utility class cannot be instantiated");
+    }
+
+    /**
+     * Returns the requested fields in request order, or {@code null} when the parameter is absent and every field is
+     * wanted.
+     */
+    public static Set<String> parse(String fields) {
+        if (Objects.isNull(fields)) {
+            return null;
+        }
+
+        Set<String> parsed = new LinkedHashSet<>();
+        for (String field : fields.split(",")) {
+            String name = field.strip();
+            if (name.isEmpty()) {
+                continue;
+            }
+            if (!ALL.contains(name)) {
+                throw new InvalidRequestException("Unknown field '" + name + "', expected any of " + ALL);
+            }
+            parsed.add(name);
+        }
+
+        if (parsed.isEmpty()) {
+            throw new InvalidRequestException("Fields must name at least one field");
+        }
+        return parsed;
+    }
+
+    /**
+     * Clears the properties of {@code user} that were not requested, so that they are left out of the response.
+     */
+    public static UserDTO retain(UserDTO user, Set<String> fields) {
+        if (!fields.contains("id")) {
+            user.setId(null);
+        }
+        if (!fields.contains("username")) {
+            user.setUsername(null);
+        }
+        if (!fields.contains("firstName")) {
+            user.setFirstName(null);
+        }
+        if (!fields.contains("lastName")) {
+            user.setLastName(null);
+        }
+        if (!fields.contains("email")) {
+            user.setEmail(null);
+        }
+        if (!fields.contains("phoneNumber")) {
+            user.setPhoneNumber(null);
+        }
+        if (!fields.contains("version")) {
+            user.setVersion(null);
+        }
+        return user;
+    }
+}
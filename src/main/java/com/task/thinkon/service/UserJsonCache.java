@@ -0,0 +1,84 @@
+package com.task.thinkon.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.task.thinkon.config.UserJsonCacheProperties;
+import com.task.thinkon.dto.UserDTO;
+import com.task.thinkon.dto.UserJson;
+import com.task.thinkon.dto.mapper.UserMapper;
+import com.task.thinkon.entities.User;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+
+import java.io.UncheckedIOException;
+import java.util.UUID;
+
+/**
+ * Bounded cache of the JSON of each user, by id, for list responses. An entry holds the JSON of one version of the
+ * user and is only returned for that version, so a user changed by any writer, on any instance, is serialized again
+ * on its next read. Invalidation on update and delete just frees the entry early. Statistics are published as the
+ * {@code users-json} cache metrics.
+ */
+@Component
+public class UserJsonCache {
+
+    private static final String CACHE_NAME = "users-json";
+
+    private final ObjectWriter writer;
+    private final Cache<UUID, UserJson> cache;
+
+    public UserJsonCache(UserJsonCacheProperties properties, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.writer = objectMapper.writerFor(UserDTO.class);
+        if (!properties.isEnabled()) {
+            this.cache = null;
+            return;
+        }
+
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    /**
+     * Returns the JSON of {@code user}, serializing it only if its current version is not cached yet.
+     */
+    public UserJson get(User user) {
+        if (cache == null) {
+            return serialize(user);
+        }
+
+        UserJson cached = cache.getIfPresent(user.getId());
+        if (cached != null && cached.version() == user.getVersion()) {
+            return cached;
+        }
+        UserJson json = serialize(user);
+        // A reader that loaded an older version concurrently must not replace a newer one
+        cache.asMap().merge(user.getId(), json, (previous, current) ->
+                previous.version() > current.version() ? previous : current);
+        return json;
+    }
+
+    public void invalidate(UUID id) {
+        if (cache != null) {
+            cache.invalidate(id);
+        }
+    }
+
+    private UserJson serialize(User user) {
+        try {
+            SerializedString json = new SerializedString(writer.writeValueAsString(UserMapper.toDTO(user)));
+            // Encode the UTF-8 bytes once, rather than on the first response that includes the user
+            json.asUnquotedUTF8();
+            return new UserJson(user.getId(), user.getVersion(), json);
+        } catch (JsonProcessingException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.task.thinkon.service;
+
+import com.task.thinkon.exceptions.EntityIsNullException;
+import com.task.thinkon.exceptions.EntityNotFoundException;
+import com.task.thinkon.exceptions.InvalidRequestException;
+import com.task.thinkon.exceptions.PreconditionFailedException;
+import com.task.thinkon.exceptions.UniqueConstraintViolationException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Supplier;
+
+/**
+ * Time and outcome of the {@link UserService} operations:
+ * <ul>
+ *     <li>{@code users.service}: timer of each call, tagged with the {@code operation} (the service method) and its
+ *     {@code outcome};</li>
+ *     <li>{@code users.outcomes}: counter of the users each operation affected or rejected, by {@code operation} and
+ *     {@code outcome}. A batch counts every item, and requests rejected by bean validation before reaching the
+ *     service count as {@code validation-failed};</li>
+ *     <li>{@code users.group.size}: distribution of the number of calls an operation served together when they are
+ *     grouped (see {@link MicroBatcher}), by {@code operation}.</li>
+ * </ul>
+ */
+@Component
+public class UserMetrics {
+
+    public enum Outcome {
+        CREATED("created"),
+        REPLAYED("replayed"),
+        FOUND("found"),
+        UPDATED("updated"),
+        DELETED("deleted"),
+        CONFLICT("conflict"),
+        NOT_FOUND("not-found"),
+        VALIDATION_FAILED("validation-failed"),
+        PRECONDITION_FAILED("precondition-failed"),
+        COMPLETED("completed"),
+        ERROR("error");
+
+        private final String tag;
+
+        Outcome(String tag) {
+            this.tag = tag;
+        }
+
+        public String tag() {
+            return tag;
+        }
+    }
+
+    private final MeterRegistry meterRegistry;
+
+    public UserMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Times {@code call} and counts one user with {@code success} as the outcome, or with the outcome its exception
+     * maps to.
+     */
+    public <T> T record(String operation, Outcome success, Supplier<T> call) {
+        return time(operation, success, true, call);
+    }
+
+    public void record(String operation, Outcome success, Runnable call) {
+        time(operation, success, true, () -> {
+            call.run();
+            return null;
+        });
+    }
+
+    /**
+     * Times {@code call} without counting users, for operations on many users that {@link #count} them themselves.
+     */
+    public <T> T time(String operation, Supplier<T> call) {
+        return time(operation, Outcome.COMPLETED, false, call);
+    }
+
+    public void time(String operation, Runnable call) {
+        time(operation, Outcome.COMPLETED, false, () -> {
+            call.run();
+            return null;
+        });
+    }
+
+    private <T> T time(String operation, Outcome success, boolean countUser, Supplier<T> call) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        Outcome outcome = Outcome.ERROR;
+        try {
+            T result = call.get();
+            outcome = success;
+            return result;
+        } catch (RuntimeException ex) {
+            outcome = outcomeOf(ex);
+            throw ex;
+        } finally {
+            sample.stop(Timer.builder("users.service")
+                    .description("Time spent in user service operations")
+                    .tag("operation", operation)
+                    .tag("outcome", outcome.tag())
+                    .register(meterRegistry));
+            if (countUser || outcome != Outcome.ERROR && outcome != Outcome.COMPLETED) {
+                count(operation, outcome, 1);
+            }
+        }
+    }
+
+    /**
+     * Counts {@code users} users of {@code operation} with the given outcome.
+     */
+    public void count(String operation, Outcome outcome, long users) {
+        if (users <= 0) {
+            return;
+        }
+        Counter.builder("users.outcomes")
+                .description("Users affected or rejected by user service operations")
+                .tag("operation", operation)
+                .tag("outcome", outcome.tag())
+                .register(meterRegistry)
+                .increment(users);
+    }
+
+    public void groupSize(String operation, int calls) {
+        DistributionSummary.builder("users.group.size")
+                .description("Calls to user service operations served together")
+                .tag("operation", operation)
+                .register(meterRegistry)
+                .record(calls);
+    }
+
+    private static Outcome outcomeOf(RuntimeException ex) {
+        if (ex instanceof UniqueConstraintViolationException || ex instanceof OptimisticLockingFailureException) {
+            return Outcome.CONFLICT;
+        }
+        if (ex instanceof EntityNotFoundException) {
+            return Outcome.NOT_FOUND;
+        }
+        if (ex instanceof InvalidRequestException || ex instanceof EntityIsNullException) {
+            return Outcome.VALIDATION_FAILED;
+        }
+        if (ex instanceof PreconditionFailedException) {
+            return Outcome.PRECONDITION_FAILED;
+        }
+        return Outcome.ERROR;
+    }
+}
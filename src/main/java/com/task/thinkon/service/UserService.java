@@ -1,71 +1,582 @@
 package com.task.thinkon.service;
 
+import com.task.thinkon.config.ReadReplicaRoutingDataSource;
+import com.task.thinkon.config.UserCreateBatchingProperties;
+import com.task.thinkon.config.UserUniquenessProperties;
+import com.task.thinkon.dto.BatchItemResultDTO;
+import com.task.thinkon.dto.BulkDeleteResultDTO;
+import com.task.thinkon.dto.ChangeFeedDTO;
 import com.task.thinkon.dto.CreateUserDTO;
+import com.task.thinkon.dto.PageDTO;
+import com.task.thinkon.dto.PatchUserDTO;
+import com.task.thinkon.dto.UserChangeDTO;
 import com.task.thinkon.dto.UserDTO;
+import com.task.thinkon.dto.UserJson;
+import com.task.thinkon.dto.UserSearchDTO;
+import com.task.thinkon.dto.UserSuggestionDTO;
 import com.task.thinkon.dto.mapper.UserMapper;
 import com.task.thinkon.entities.User;
+import com.task.thinkon.entities.UserChange;
 import com.task.thinkon.exceptions.EntityIsNullException;
 import com.task.thinkon.exceptions.EntityNotFoundException;
+import com.task.thinkon.exceptions.InvalidRequestException;
+import com.task.thinkon.exceptions.PreconditionFailedException;
 import com.task.thinkon.exceptions.UniqueConstraintViolationException;
+import com.task.thinkon.repository.UserChangeLog;
+import com.task.thinkon.repository.UserChangeRepository;
 import com.task.thinkon.repository.UserRepository;
+import com.task.thinkon.repository.UserSpecifications;
+import com.task.thinkon.service.UserMetrics.Outcome;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @Slf4j
-public class UserService {
+public class UserService implements DisposableBean {
+
+    public static final int MAX_PAGE_SIZE = 500;
+    public static final int MAX_BATCH_SIZE = 1000;
+    public static final int MAX_BULK_DELETE_SIZE = 100_000;
+    public static final int MAX_SUGGESTIONS = 50;
+    static final int DELETE_CHUNK_SIZE = 1000;
 
     private final UserRepository userRepository;
+    private final UserChangeRepository userChangeRepository;
+    private final UserChangeLog userChangeLog;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate readTransactionTemplate;
+    private final EntityManager entityManager;
+    private final Validator validator;
+    private final UserUniquenessIndex userUniquenessIndex;
+    private final UserSuggestionIndex userSuggestionIndex;
+    private final UserUniquenessProperties userUniquenessProperties;
+    private final UserCreateBatchingProperties userCreateBatchingProperties;
+    private final MicroBatcher<CreateUserDTO, BatchItemResultDTO> createBatcher;
+    private final UserCache userCache;
+    private final UserJsonCache userJsonCache;
+    private final UserMetrics userMetrics;
 
     @Autowired
-    public UserService(UserRepository userRepository) {
+    public UserService(UserRepository userRepository,
+                       UserChangeRepository userChangeRepository,
+                       UserChangeLog userChangeLog,
+                       TransactionTemplate transactionTemplate,
+                       EntityManager entityManager,
+                       Validator validator,
+                       UserUniquenessIndex userUniquenessIndex,
+                       UserSuggestionIndex userSuggestionIndex,
+                       UserUniquenessProperties userUniquenessProperties,
+                       UserCreateBatchingProperties userCreateBatchingProperties,
+                       UserCache userCache,
+                       UserJsonCache userJsonCache,
+                       UserMetrics userMetrics) {
         this.userRepository = userRepository;
+        this.userChangeRepository = userChangeRepository;
+        this.userChangeLog = userChangeLog;
+        this.transactionTemplate = transactionTemplate;
+        this.readTransactionTemplate = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        this.readTransactionTemplate.setReadOnly(true);
+        this.readTransactionTemplate.setName(ReadReplicaRoutingDataSource.READ_TRANSACTION);
+        this.entityManager = entityManager;
+        this.validator = validator;
+        this.userUniquenessIndex = userUniquenessIndex;
+        this.userSuggestionIndex = userSuggestionIndex;
+        this.userUniquenessProperties = userUniquenessProperties;
+        this.userCreateBatchingProperties = userCreateBatchingProperties;
+        this.createBatcher = new MicroBatcher<>("user-create-batcher",
+                Math.min(userCreateBatchingProperties.getMaxBatchSize(), MAX_BATCH_SIZE),
+                userCreateBatchingProperties.getMaxDelay(), this::createGroup);
+        this.userCache = userCache;
+        this.userJsonCache = userJsonCache;
+        this.userMetrics = userMetrics;
     }
 
     public UUID createUser(CreateUserDTO createUserDTO) {
+        return userMetrics.record("createUser", Outcome.CREATED, () -> userCreateBatchingProperties.isEnabled()
+                ? createGrouped(createUserDTO)
+                : create(createUserDTO));
+    }
+
+    @Override
+    public void destroy() {
+        createBatcher.close();
+    }
+
+    private UUID create(CreateUserDTO createUserDTO) {
         if (Objects.isNull(createUserDTO)) {
             log.error("Provided entity is null");
             throw new EntityIsNullException();
         }
 
-        Map<String, String> validationErrors = validateUniqueConstraints(createUserDTO, null);
+        Map<String, String> validationErrors = validateUniqueConstraints(createUserDTO.getEmail(), createUserDTO.getUsername(), createUserDTO.getPhoneNumber(), null);
 
         if (!validationErrors.isEmpty()) {
             throw new UniqueConstraintViolationException(validationErrors);
         }
 
         User user = UserMapper.toEntity(createUserDTO);
-        User savedUser = userRepository.save(user);
+        User savedUser = saveChecked(user, createUserDTO, null, UserChange.Type.CREATED);
         UUID savedUserId = savedUser.getId();
+        userUniquenessIndex.register(savedUserId, savedUser.getEmail(), savedUser.getUsername(), savedUser.getPhoneNumber());
+        userSuggestionIndex.register(savedUserId, savedUser.getUsername(), savedUser.getFirstName(), savedUser.getLastName(), savedUser.getEmail());
+        userCache.invalidate(savedUserId);
 
         log.info("User successfully created, ID: {} ", savedUserId);
         return savedUserId;
     }
 
-    public List<UserDTO> getAllUsers() {
-        return userRepository.findAll().stream()
+    /**
+     * Creates a batch of users with a single uniqueness query for the whole batch and one batched insert.
+     * Items are validated and checked independently, each one either gets the id of the created user or the
+     * field-level errors that rejected it. Within the batch, the first item claiming a unique value wins.
+     */
+    @Transactional
+    public List<BatchItemResultDTO> createUsers(List<CreateUserDTO> createUserDTOs) {
+        return userMetrics.time("createUsers", () -> createAll(createUserDTOs));
+    }
+
+    private List<BatchItemResultDTO> createAll(List<CreateUserDTO> createUserDTOs) {
+        UserBatch batch = UserBatch.validate(createUserDTOs, MAX_BATCH_SIZE, validator);
+        int created = insert(batch);
+
+        userMetrics.count("createUsers", Outcome.CREATED, created);
+        userMetrics.count("createUsers", Outcome.VALIDATION_FAILED, batch.invalidCount());
+        userMetrics.count("createUsers", Outcome.CONFLICT, batch.conflictCount());
+        log.info("User batch processed, {} created, {} rejected", created, batch.size() - created);
+        return batch.results();
+    }
+
+    /**
+     * Creates a user as part of a group of concurrent creates: the calling thread waits at most
+     * {@code users.create-batching.max-delay} for others to join, then the whole group is checked and inserted at
+     * once. The outcome is the same as {@link #create}'s, except that a conflict within the group is reported like
+     * one with an existing user.
+     */
+    private UUID createGrouped(CreateUserDTO createUserDTO) {
+        if (Objects.isNull(createUserDTO)) {
+            log.error("Provided entity is null");
+            throw new EntityIsNullException();
+        }
+        Set<ConstraintViolation<CreateUserDTO>> violations = validator.validate(createUserDTO);
+        if (!violations.isEmpty()) {
+            throw new InvalidRequestException(violations.stream()
+                    .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining(", ")));
+        }
+
+        BatchItemResultDTO result;
+        try {
+            result = createBatcher.submit(createUserDTO).join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw ex;
+        }
+
+        if (Objects.isNull(result.getId())) {
+            throw new UniqueConstraintViolationException(result.getErrors());
+        }
+        userCache.invalidate(result.getId());
+        return result.getId();
+    }
+
+    /**
+     * Creates a group of users submitted by concurrent {@link #createUser} calls in a single transaction. If a user
+     * created outside the group claims one of its values in the meantime, the insert fails as a whole and the group
+     * falls back to creating its users one by one, so that only the conflicting ones are rejected.
+     */
+    private List<BatchItemResultDTO> createGroup(List<CreateUserDTO> createUserDTOs) {
+        userMetrics.groupSize("createUser", createUserDTOs.size());
+        try {
+            UserBatch batch = UserBatch.group(createUserDTOs, validator);
+            transactionTemplate.executeWithoutResult(status -> insert(batch));
+            return batch.results();
+        } catch (DataIntegrityViolationException ex) {
+            log.warn("Group of {} user creates hit a concurrent write, creating them one by one", createUserDTOs.size());
+            List<BatchItemResultDTO> results = new ArrayList<>(createUserDTOs.size());
+            for (int i = 0; i < createUserDTOs.size(); i++) {
+                try {
+                    results.add(BatchItemResultDTO.created(i, create(createUserDTOs.get(i))));
+                } catch (UniqueConstraintViolationException conflict) {
+                    results.add(BatchItemResultDTO.rejected(i, conflict.getErrors()));
+                }
+            }
+            return results;
+        }
+    }
+
+    /**
+     * Inserts the valid, non-conflicting users of {@code batch} with one uniqueness query and one batched insert, in
+     * the caller's transaction, and returns how many were created. The users are added to the uniqueness and
+     * suggestion indexes when that transaction commits.
+     */
+    private int insert(UserBatch batch) {
+        if (batch.hasValidItems()) {
+            userRepository.findByEmailInOrUsernameInOrPhoneNumberIn(batch.emails(), batch.usernames(), batch.phoneNumbers())
+                    .forEach(existingUser -> batch.taken(existingUser.getEmail(), existingUser.getUsername(), existingUser.getPhoneNumber()));
+        }
+
+        List<User> newUsers = batch.accept().stream().map(UserMapper::toEntity).collect(Collectors.toList());
+        List<User> savedUsers = userRepository.saveAll(newUsers);
+        if (!savedUsers.isEmpty()) {
+            userRepository.flush();
+            userChangeLog.record(savedUsers.stream().map(User::getId).toList(), UserChange.Type.CREATED);
+        }
+        for (int i = 0; i < savedUsers.size(); i++) {
+            batch.created(i, savedUsers.get(i).getId());
+        }
+        afterCommit(() -> savedUsers.forEach(savedUser -> {
+            userUniquenessIndex.register(savedUser.getId(), savedUser.getEmail(), savedUser.getUsername(), savedUser.getPhoneNumber());
+            userSuggestionIndex.register(savedUser.getId(), savedUser.getUsername(), savedUser.getFirstName(), savedUser.getLastName(), savedUser.getEmail());
+        }));
+        return savedUsers.size();
+    }
+
+    /**
+     * Runs {@code action} once the current transaction has committed, or at once outside a transaction, so that the
+     * in-memory indexes never hold users a rollback discarded.
+     */
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    /**
+     * Returns one page of users ordered by id. Pages are addressed by the id of the previous page's
+     * last row (keyset pagination), so every page costs one index range scan regardless of its depth.
+     */
+    public PageDTO<UserDTO> getAllUsers(int limit, String cursor) {
+        return userMetrics.time("getAllUsers", () -> read(() -> findPage(limit, cursor)));
+    }
+
+    private PageDTO<UserDTO> findPage(int limit, String cursor) {
+        int pageSize = pageSize(limit);
+        return toPage(loadPage(pageSize, cursor), pageSize, UserMapper::toDTO);
+    }
+
+    /**
+     * Like {@link #getAllUsers(int, String)}, but returns each user as JSON from {@link UserJsonCache}, so that users
+     * unchanged since they were last listed are neither mapped nor serialized again.
+     */
+    public PageDTO<UserJson> getAllUsersJson(int limit, String cursor) {
+        return userMetrics.time("getAllUsers", () -> {
+            int pageSize = pageSize(limit);
+            return toPage(read(() -> loadPage(pageSize, cursor)), pageSize, userJsonCache::get);
+        });
+    }
+
+    private List<User> loadPage(int pageSize, String cursor) {
+        // One extra row tells us whether there is a next page without issuing a count query
+        Limit fetchLimit = Limit.of(pageSize + 1);
+
+        return Objects.isNull(cursor)
+                ? userRepository.findAllByOrderByIdAsc(fetchLimit)
+                : userRepository.findByIdGreaterThanOrderByIdAsc(CursorCodec.decode(cursor), fetchLimit);
+    }
+
+    /**
+     * Like {@link #getAllUsers(int, String)}, but reads only the given {@code fields} of each user (plus its id and
+     * version, which the cursor and the page's ETag need) with a projection query, without loading entities.
+     * {@code null} reads every field.
+     */
+    public PageDTO<UserDTO> getAllUsers(int limit, String cursor, Set<String> fields) {
+        if (Objects.isNull(fields)) {
+            return getAllUsers(limit, cursor);
+        }
+        return userMetrics.time("getAllUsers", () -> read(() -> findPage(limit, cursor, fields)));
+    }
+
+    private PageDTO<UserDTO> findPage(int limit, String cursor, Set<String> fields) {
+        int pageSize = pageSize(limit);
+        UUID afterId = Objects.isNull(cursor) ? null : CursorCodec.decode(cursor);
+
+        List<UserDTO> users = userRepository.findAttributes(fields, afterId, pageSize + 1).stream()
                 .map(UserMapper::toDTO)
                 .collect(Collectors.toList());
+        return toPage(users, pageSize);
+    }
+
+    /**
+     * Pages are read with one extra row, which tells whether there is a next page without issuing a count query.
+     */
+    private static PageDTO<UserDTO> toPage(List<UserDTO> users, int pageSize) {
+        boolean hasNext = users.size() > pageSize;
+        List<UserDTO> items = hasNext ? users.subList(0, pageSize) : users;
+        String nextCursor = hasNext ? CursorCodec.encode(items.get(items.size() - 1).getId()) : null;
+
+        return new PageDTO<>(items, nextCursor);
+    }
+
+    private static <T> PageDTO<T> toPage(List<User> users, int pageSize, Function<User, T> mapper) {
+        boolean hasNext = users.size() > pageSize;
+        List<User> items = hasNext ? users.subList(0, pageSize) : users;
+        String nextCursor = hasNext ? CursorCodec.encode(items.get(items.size() - 1).getId()) : null;
+
+        return new PageDTO<>(items.stream().map(mapper).collect(Collectors.toList()), nextCursor);
+    }
+
+    private static int pageSize(int limit) {
+        return Math.min(Math.max(limit, 1), MAX_PAGE_SIZE);
+    }
+
+    /**
+     * Returns one page of the users matching every given filter, ordered by id and addressed by cursor like
+     * {@link #getAllUsers}. The filters are evaluated by the database, see {@link UserSpecifications}.
+     */
+    public PageDTO<UserDTO> searchUsers(UserSearchDTO filters, int limit, String cursor) {
+        return userMetrics.time("searchUsers", () -> read(() -> search(filters, limit, cursor)));
+    }
+
+    private PageDTO<UserDTO> search(UserSearchDTO filters, int limit, String cursor) {
+        int pageSize = pageSize(limit);
+        return toPage(loadSearchPage(filters, pageSize, cursor), pageSize, UserMapper::toDTO);
+    }
+
+    /**
+     * Like {@link #searchUsers}, but returns each user as JSON from {@link UserJsonCache}, like {@link #getAllUsersJson}.
+     */
+    public PageDTO<UserJson> searchUsersJson(UserSearchDTO filters, int limit, String cursor) {
+        return userMetrics.time("searchUsers", () -> {
+            int pageSize = pageSize(limit);
+            return toPage(read(() -> loadSearchPage(filters, pageSize, cursor)), pageSize, userJsonCache::get);
+        });
+    }
+
+    private List<User> loadSearchPage(UserSearchDTO filters, int pageSize, String cursor) {
+        List<Specification<User>> specifications = new ArrayList<>();
+        addFilter(specifications, filters.getUsername(), UserSpecifications::usernameStartsWith);
+        addFilter(specifications, filters.getEmailDomain(), UserSpecifications::emailDomainIs);
+        addFilter(specifications, filters.getFirstName(), UserSpecifications::firstNameStartsWith);
+        addFilter(specifications, filters.getLastName(), UserSpecifications::lastNameStartsWith);
+        addFilter(specifications, filters.getPhoneNumber(), UserSpecifications::phoneNumberStartsWith);
+        if (Objects.nonNull(cursor)) {
+            specifications.add(UserSpecifications.idGreaterThan(CursorCodec.decode(cursor)));
+        }
+
+        return userRepository.findBy(Specification.allOf(specifications), query -> query
+                .sortBy(Sort.by("id"))
+                .limit(pageSize + 1)
+                .all());
+    }
+
+    private static void addFilter(List<Specification<User>> specifications, String value,
+                                  Function<String, Specification<User>> filter) {
+        if (Objects.nonNull(value) && !value.isBlank()) {
+            specifications.add(filter.apply(value.strip()));
+        }
+    }
+
+    /**
+     * Returns up to {@code limit} users whose username, first name followed by the last name, last name or email
+     * local part starts with {@code query}, ignoring case. Served from {@link UserSuggestionIndex} once it is loaded,
+     * and otherwise by the database, which matches the same terms.
+     */
+    public List<UserSuggestionDTO> suggestUsers(String query, int limit) {
+        return userMetrics.time("suggestUsers", () -> read(() -> suggest(query, limit)));
+    }
+
+    private List<UserSuggestionDTO> suggest(String query, int limit) {
+        if (Objects.isNull(query) || query.isBlank()) {
+            throw new InvalidRequestException("Query must not be blank");
+        }
+        int suggestionCount = Math.min(Math.max(limit, 1), MAX_SUGGESTIONS);
+
+        if (userSuggestionIndex.isActive()) {
+            return userSuggestionIndex.suggest(query, suggestionCount);
+        }
+
+        String prefix = query.strip();
+        List<Specification<User>> terms = new ArrayList<>(List.of(
+                UserSpecifications.usernameStartsWith(prefix),
+                UserSpecifications.fullNameStartsWith(prefix),
+                UserSpecifications.lastNameStartsWith(prefix)));
+        // Only the local part of the email is a term, as in the index
+        if (prefix.indexOf('@') < 0) {
+            terms.add(UserSpecifications.emailStartsWith(prefix));
+        }
+        Specification<User> matches = Specification.anyOf(terms);
+        return userRepository.findBy(matches, q -> q.sortBy(Sort.by("username")).limit(suggestionCount).all())
+                .stream()
+                .map(user -> new UserSuggestionDTO(user.getId(), user.getUsername(), user.getFirstName(), user.getLastName()))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Returns the changes made to users after the sequence number {@code since} ({@code null} to read the log from
+     * the beginning, which yields every existing user), oldest first. A user changed several times within the page
+     * is listed once, at its latest change, with its current state; a user deleted since a change listed here is
+     * left out, its tombstone following later in the log.
+     */
+    public ChangeFeedDTO getChanges(String since, int limit) {
+        return userMetrics.time("getChanges", () -> read(() -> changes(since, limit)));
+    }
+
+    private ChangeFeedDTO changes(String since, int limit) {
+        long sinceSeq = parseSince(since);
+        int pageSize = pageSize(limit);
+        List<UserChange> entries = userChangeRepository.findBySeqGreaterThanOrderBySeqAsc(sinceSeq, Limit.of(pageSize + 1));
+        boolean hasMore = entries.size() > pageSize;
+        if (hasMore) {
+            entries = entries.subList(0, pageSize);
+        }
+
+        Map<UUID, UserChange> latestChanges = new LinkedHashMap<>();
+        for (UserChange entry : entries) {
+            latestChanges.remove(entry.getUserId());
+            latestChanges.put(entry.getUserId(), entry);
+        }
+        List<UUID> changedIds = latestChanges.values().stream()
+                .filter(entry -> entry.getType() != UserChange.Type.DELETED)
+                .map(UserChange::getUserId)
+                .toList();
+        Map<UUID, User> users = changedIds.isEmpty() ? Map.of() : userRepository.findAllById(changedIds).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+
+        List<UserChangeDTO> changes = new ArrayList<>(latestChanges.size());
+        for (UserChange entry : latestChanges.values()) {
+            User user = users.get(entry.getUserId());
+            if (entry.getType() == UserChange.Type.DELETED || Objects.nonNull(user)) {
+                changes.add(new UserChangeDTO(entry.getSeq(), entry.getUserId(), entry.getType(), entry.getChangedAt(),
+                        Objects.isNull(user) ? null : UserMapper.toDTO(user)));
+            }
+        }
+
+        long nextSince = entries.isEmpty() ? sinceSeq : entries.get(entries.size() - 1).getSeq();
+        return new ChangeFeedDTO(changes, String.valueOf(nextSince), hasMore);
+    }
+
+    private static long parseSince(String since) {
+        if (Objects.isNull(since) || since.isBlank()) {
+            return 0;
+        }
+        try {
+            long seq = Long.parseLong(since.trim());
+            if (seq >= 0) {
+                return seq;
+            }
+        } catch (NumberFormatException ex) {
+            // Reported below
+        }
+        throw new InvalidRequestException("since must be a nextSince value returned by a previous request");
+    }
+
+    /**
+     * Streams every user to {@code consumer} in a single forward-only pass. Each entity is detached as soon as it
+     * has been mapped, so the persistence context (and heap use) stays flat regardless of the table size.
+     */
+    public void exportUsers(Consumer<UserDTO> consumer) {
+        userMetrics.time("exportUsers", () -> readTransactionTemplate.executeWithoutResult(status -> export(consumer)));
+    }
+
+    private void export(Consumer<UserDTO> consumer) {
+        try (Stream<User> users = userRepository.streamAll()) {
+            users.forEach(user -> {
+                consumer.accept(UserMapper.toDTO(user));
+                entityManager.detach(user);
+            });
+        }
     }
 
     public UserDTO getUserById(UUID id) {
-        User user = userRepository.findById(id)
+        return userMetrics.record("getUserById", Outcome.FOUND, () -> find(id));
+    }
+
+    /**
+     * Looks the user up in the cache, which is filled from the primary: a user read from a lagging replica would be
+     * served, stale or already deleted, for the whole ttl of the cache. Without the cache, the user is read like the
+     * other queries.
+     */
+    private UserDTO find(UUID id) {
+        Optional<UserDTO> user = userCache.isEnabled() ? userCache.get(id, this::loadUser) : read(() -> loadUser(id));
+        return user.orElseThrow(() -> {
+            log.error("User with ID: {} not found", id);
+            return new EntityNotFoundException(id);
+        });
+    }
+
+    /**
+     * Like {@link #getUserById(UUID)}, but reads only the given {@code fields} (plus the id and version) with a
+     * projection query. It always reads from the database, since the cache holds full users. {@code null} reads every
+     * field.
+     */
+    public UserDTO getUserById(UUID id, Set<String> fields) {
+        if (Objects.isNull(fields)) {
+            return getUserById(id);
+        }
+        return userMetrics.record("getUserById", Outcome.FOUND, () -> read(() -> userRepository.findAttributesById(id, fields))
+                .map(UserMapper::toDTO)
                 .orElseThrow(() -> {
                     log.error("User with ID: {} not found", id);
                     return new EntityNotFoundException(id);
-                });
-        return UserMapper.toDTO(user);
+                }));
+    }
+
+    private Optional<UserDTO> loadUser(UUID id) {
+        return userRepository.findById(id).map(UserMapper::toDTO);
+    }
+
+    /**
+     * Runs {@code reader} in a read-only transaction, which a replica serves when {@code users.read-replicas} are
+     * configured. Reads made on behalf of a write must not use it, since replicas may lag behind.
+     */
+    private <T> T read(Supplier<T> reader) {
+        return readTransactionTemplate.execute(status -> reader.get());
     }
 
     public UserDTO updateUser(UUID id, CreateUserDTO createUserDTO) {
+        return updateUser(id, createUserDTO, null);
+    }
+
+    /**
+     * Replaces the user, provided it is still at {@code expectedVersion} ({@code null} accepts any version).
+     * A concurrent update that slips in after the check is caught by the version column on flush.
+     */
+    public UserDTO updateUser(UUID id, CreateUserDTO createUserDTO, Long expectedVersion) {
+        return userMetrics.record("updateUser", Outcome.UPDATED, () -> update(id, createUserDTO, expectedVersion));
+    }
+
+    private UserDTO update(UUID id, CreateUserDTO createUserDTO, Long expectedVersion) {
         if (Objects.isNull(createUserDTO)) {
             log.error("Provided entity is null");
             throw new EntityIsNullException();
@@ -77,54 +588,244 @@ public class UserService {
                     return new EntityNotFoundException(id);
                 });
 
-        Map<String, String> validationErrors = validateUniqueConstraints(createUserDTO, id);
+        if (Objects.nonNull(expectedVersion) && !expectedVersion.equals(existingUser.getVersion())) {
+            log.error("User with ID: {} is at version {}, expected {}", id, existingUser.getVersion(), expectedVersion);
+            throw new PreconditionFailedException(id);
+        }
+
+        Map<String, String> validationErrors = validateUniqueConstraints(createUserDTO.getEmail(), createUserDTO.getUsername(), createUserDTO.getPhoneNumber(), id);
 
         if (!validationErrors.isEmpty()) {
             throw new UniqueConstraintViolationException(validationErrors);
         }
 
-        User updatedUser = UserMapper.updateEntityFromDTO(createUserDTO, existingUser);
-        userRepository.save(updatedUser);
+        User updatedUser = saveChecked(UserMapper.updateEntityFromDTO(createUserDTO, existingUser), createUserDTO, id,
+                UserChange.Type.UPDATED);
+        userUniquenessIndex.register(id, updatedUser.getEmail(), updatedUser.getUsername(), updatedUser.getPhoneNumber());
+        userSuggestionIndex.register(id, updatedUser.getUsername(), updatedUser.getFirstName(), updatedUser.getLastName(), updatedUser.getEmail());
+
+        UserDTO updatedUserDTO = UserMapper.toDTO(updatedUser);
+        userCache.put(updatedUserDTO);
+        userJsonCache.invalidate(id);
 
         log.info("User with ID: {} successfully updated", id);
-        return UserMapper.toDTO(updatedUser);
+        return updatedUserDTO;
+    }
+
+    /**
+     * Applies the fields present in {@code patchUserDTO} with a single versioned {@code UPDATE}, provided the user is
+     * still at {@code expectedVersion}. Only the unique fields present in the patch are checked. Returns the new
+     * version of the user.
+     */
+    public long patchUser(UUID id, PatchUserDTO patchUserDTO, long expectedVersion) {
+        return userMetrics.record("patchUser", Outcome.UPDATED, () -> patch(id, patchUserDTO, expectedVersion));
+    }
+
+    private long patch(UUID id, PatchUserDTO patchUserDTO, long expectedVersion) {
+        if (Objects.isNull(patchUserDTO)) {
+            log.error("Provided entity is null");
+            throw new EntityIsNullException();
+        }
+
+        Map<String, Object> changes = UserMapper.toChanges(patchUserDTO);
+        if (changes.isEmpty()) {
+            throw new InvalidRequestException("Patch must set at least one field");
+        }
+
+        String email = patchUserDTO.getEmail();
+        String username = patchUserDTO.getUsername();
+        String phoneNumber = patchUserDTO.getPhoneNumber();
+        Map<String, String> validationErrors = validateUniqueConstraints(email, username, phoneNumber, id);
+
+        if (!validationErrors.isEmpty()) {
+            throw new UniqueConstraintViolationException(validationErrors);
+        }
+
+        Integer updated;
+        try {
+            updated = transactionTemplate.execute(status -> {
+                int rows = userRepository.updateIfVersion(id, expectedVersion, changes);
+                if (rows > 0) {
+                    userChangeLog.record(id, UserChange.Type.UPDATED);
+                }
+                return rows;
+            });
+        } catch (DataIntegrityViolationException ex) {
+            throw translateConflict(ex, email, username, phoneNumber, id);
+        }
+
+        if (updated == 0) {
+            // Only the failure path pays for telling a missing user from a stale version
+            if (!userRepository.existsById(id)) {
+                log.error("User with ID: {} not found", id);
+                throw new EntityNotFoundException(id);
+            }
+            log.error("User with ID: {} is no longer at version {}", id, expectedVersion);
+            throw new PreconditionFailedException(id);
+        }
+
+        userUniquenessIndex.registerChanges(id, email, username, phoneNumber);
+        userSuggestionIndex.registerChanges(id, username, patchUserDTO.getFirstName(), patchUserDTO.getLastName(), email);
+        userCache.invalidate(id);
+        userJsonCache.invalidate(id);
+
+        log.info("User with ID: {} successfully patched", id);
+        return expectedVersion + 1;
     }
 
     public void deleteUser(UUID id) {
-        if (userRepository.existsById(id)) {
-            userRepository.deleteById(id);
-            log.info("User with ID: {} successfully deleted", id);
-        } else {
+        userMetrics.record("deleteUser", Outcome.DELETED, () -> delete(id));
+    }
+
+    private void delete(UUID id) {
+        Integer deleted = transactionTemplate.execute(status -> {
+            int rows = userRepository.deleteUserById(id);
+            if (rows > 0) {
+                userChangeLog.record(id, UserChange.Type.DELETED);
+            }
+            return rows;
+        });
+        if (deleted == 0) {
+            log.error("User with ID: {} not found", id);
             throw new EntityNotFoundException(id);
         }
+
+        userUniquenessIndex.unregister(id);
+        userSuggestionIndex.unregister(id);
+        userCache.invalidate(id);
+        userJsonCache.invalidate(id);
+        log.info("User with ID: {} successfully deleted", id);
     }
 
-    private Map<String, String> validateUniqueConstraints(CreateUserDTO createUserDTO, UUID userId) {
-        List<User> conflictingUsers = userRepository.findByEmailOrUsernameOrPhoneNumberAndIdNot(
-                createUserDTO.getEmail(),
-                createUserDTO.getUsername(),
-                createUserDTO.getPhoneNumber(),
-                userId);
+    /**
+     * Deletes the given users in chunks of {@value #DELETE_CHUNK_SIZE}, each costing one locking lookup of the ids that
+     * exist and one set-based delete in the same transaction. Ids that match no user, including those a concurrent
+     * delete removed first, are reported rather than failing the request.
+     */
+    public BulkDeleteResultDTO deleteUsers(List<UUID> ids) {
+        return userMetrics.time("deleteUsers", () -> deleteAll(ids));
+    }
 
-        Map<String, String> validationErrors = new HashMap<>();
+    private BulkDeleteResultDTO deleteAll(List<UUID> ids) {
+        List<UUID> distinctIds = distinctIds(ids);
+        Set<UUID> existingIds = new HashSet<>();
+        int deleted = 0;
+        for (int from = 0; from < distinctIds.size(); from += DELETE_CHUNK_SIZE) {
+            List<UUID> chunk = distinctIds.subList(from, Math.min(from + DELETE_CHUNK_SIZE, distinctIds.size()));
+            List<UUID> found = Objects.requireNonNull(transactionTemplate.execute(status -> {
+                List<UUID> locked = userRepository.lockExistingIds(chunk);
+                if (!locked.isEmpty()) {
+                    userRepository.deleteUsersByIdIn(locked);
+                    userChangeLog.record(locked, UserChange.Type.DELETED);
+                }
+                return locked;
+            }));
+            deleted += found.size();
+            existingIds.addAll(found);
+            found.forEach(id -> {
+                userUniquenessIndex.unregister(id);
+                userSuggestionIndex.unregister(id);
+                userCache.invalidate(id);
+                userJsonCache.invalidate(id);
+            });
+        }
 
-        for (User existingUser : conflictingUsers) {
-            if (!existingUser.getId().equals(userId) && existingUser.getEmail().equals(createUserDTO.getEmail())) {
-                log.error("Email {} is already in use", createUserDTO.getEmail());
-                validationErrors.put("email", "Email is already in use");
-            }
+        List<UUID> notFound = distinctIds.stream().filter(id -> !existingIds.contains(id)).toList();
+        userMetrics.count("deleteUsers", Outcome.DELETED, deleted);
+        userMetrics.count("deleteUsers", Outcome.NOT_FOUND, notFound.size());
+        log.info("Deleted {} users, {} requested ids not found", deleted, notFound.size());
+        return new BulkDeleteResultDTO(deleted, notFound);
+    }
 
-            if (!existingUser.getId().equals(userId) && existingUser.getUsername().equals(createUserDTO.getUsername())) {
-                log.error("Username {} is already in use", createUserDTO.getUsername());
-                validationErrors.put("username", "Username is already in use");
-            }
+    /**
+     * Validates the ids of a bulk delete and drops duplicates, keeping the order of their first occurrence.
+     */
+    static List<UUID> distinctIds(List<UUID> ids) {
+        if (Objects.isNull(ids) || ids.isEmpty()) {
+            throw new InvalidRequestException("Request must contain at least one id");
+        }
+        if (ids.size() > MAX_BULK_DELETE_SIZE) {
+            throw new InvalidRequestException("Request must not contain more than " + MAX_BULK_DELETE_SIZE + " ids");
+        }
+        if (ids.stream().anyMatch(Objects::isNull)) {
+            throw new InvalidRequestException("Ids must not be null");
+        }
 
-            if (!existingUser.getId().equals(userId) && existingUser.getPhoneNumber().equals(createUserDTO.getPhoneNumber())) {
-                log.error("Phone number {} is already in use", createUserDTO.getPhoneNumber());
-                validationErrors.put("phoneNumber", "Phone number is already in use");
+        return new ArrayList<>(new LinkedHashSet<>(ids));
+    }
+
+    /**
+     * Saves the user along with its change log entry and turns a unique constraint violation raised by the database,
+     * e.g. after a concurrent write or a miss of the uniqueness index, into the same field-level conflict as the
+     * pre-check.
+     */
+    private User saveChecked(User user, CreateUserDTO createUserDTO, UUID userId, UserChange.Type change) {
+        try {
+            return transactionTemplate.execute(status -> {
+                User savedUser = userRepository.save(user);
+                // The change log entry must be the last write of the transaction
+                userRepository.flush();
+                userChangeLog.record(savedUser.getId(), change);
+                return savedUser;
+            });
+        } catch (DataIntegrityViolationException ex) {
+            throw translateConflict(ex, createUserDTO.getEmail(), createUserDTO.getUsername(), createUserDTO.getPhoneNumber(), userId);
+        }
+    }
+
+    /**
+     * Maps the violated constraint to its field by name, falling back to a lookup when the name is not recognised.
+     */
+    private RuntimeException translateConflict(DataIntegrityViolationException ex, String email, String username,
+                                               String phoneNumber, UUID userId) {
+        Map<String, String> validationErrors = UniqueConstraints.toFieldErrors(ex);
+        if (validationErrors.isEmpty()) {
+            validationErrors = queryUniqueConstraints(email, username, phoneNumber, userId);
+        }
+        if (validationErrors.isEmpty()) {
+            return ex;
+        }
+
+        log.error("Unique fields {} are already in use", validationErrors.keySet());
+        return new UniqueConstraintViolationException(validationErrors);
+    }
+
+    private Map<String, String> validateUniqueConstraints(String email, String username, String phoneNumber, UUID userId) {
+        if (userUniquenessProperties.getMode() == UserUniquenessProperties.Mode.OPTIMISTIC) {
+            // The write itself is the check, see translateConflict
+            return new HashMap<>();
+        }
+
+        if (userUniquenessIndex.isActive()) {
+            // A hit is a definite conflict; a miss skips the query and leaves the final word to the DB constraints
+            Map<String, String> validationErrors = userUniquenessIndex.findConflicts(email, username, phoneNumber, userId);
+            if (!validationErrors.isEmpty()) {
+                log.error("Unique fields {} are already in use", validationErrors.keySet());
             }
+            return validationErrors;
+        }
+
+        return queryUniqueConstraints(email, username, phoneNumber, userId);
+    }
+
+    /**
+     * Looks up the owners of the given unique values; {@code null} values are not checked.
+     */
+    private Map<String, String> queryUniqueConstraints(String email, String username, String phoneNumber, UUID userId) {
+        if (Stream.of(email, username, phoneNumber).allMatch(Objects::isNull)) {
+            return new HashMap<>();
         }
 
+        List<User> conflictingUsers = userRepository.findByEmailOrUsernameOrPhoneNumberAndIdNot(
+                email,
+                username,
+                phoneNumber,
+                userId);
+
+        Map<String, String> validationErrors = UniqueConstraints.conflicts(conflictingUsers, email, username, phoneNumber, userId);
+        if (!validationErrors.isEmpty()) {
+            log.error("Unique fields {} are already in use", validationErrors.keySet());
+        }
         return validationErrors;
     }
 }
\ No newline at end of file
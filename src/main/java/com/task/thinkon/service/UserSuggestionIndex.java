@@ -0,0 +1,203 @@
+package com.task.thinkon.service;
+
+import com.task.thinkon.dto.UserSuggestionDTO;
+import com.task.thinkon.repository.UserRepository;
+import com.task.thinkon.repository.UserSuggestionKeys;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.stream.Stream;
+
+/**
+ * In-process prefix index for {@code GET /users/suggest}. Every user is indexed under four lower-cased terms: the
+ * username, the first name followed by the last name, the last name, and the local part of the email. A query walks
+ * the sorted terms from the query onwards and stops at the first term that no longer starts with it, so a lookup
+ * costs one skip list seek plus one step per match, whatever the number of users.
+ * <p>
+ * Reads never lock: the terms live in a {@link ConcurrentSkipListMap}. Writes for the same user are serialized on its
+ * entry, and replace a term in place when its user is still indexed under it, so a concurrent query sees either the
+ * old or the new user but never neither. Like {@link UserUniquenessIndex}, the index is loaded once at startup and
+ * kept up to date by the services of this instance only.
+ */
+@Component
+@Slf4j
+public class UserSuggestionIndex implements SmartInitializingSingleton {
+
+    private static final Comparator<Key> KEY_ORDER = Comparator.comparing(Key::term)
+            .thenComparing(Key::id, Comparator.nullsFirst(Comparator.naturalOrder()));
+
+    private final UserRepository userRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+
+    private final ConcurrentSkipListMap<Key, Entry> terms = new ConcurrentSkipListMap<>(KEY_ORDER);
+    private final Map<UUID, Entry> entriesById = new ConcurrentHashMap<>();
+    private volatile boolean ready;
+
+    public UserSuggestionIndex(UserRepository userRepository,
+                               TransactionTemplate transactionTemplate,
+                               @Value("${users.suggestion-index.enabled:false}") boolean enabled) {
+        this.userRepository = userRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.enabled = enabled;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (enabled) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Whether lookups can be trusted, i.e. the index is enabled and fully loaded.
+     */
+    public boolean isActive() {
+        return ready;
+    }
+
+    public void rebuild() {
+        ready = false;
+        long start = System.nanoTime();
+        terms.clear();
+        entriesById.clear();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<UserSuggestionKeys> users = userRepository.streamSuggestionKeys()) {
+                users.forEach(user -> register(user.getId(), user.getUsername(), user.getFirstName(), user.getLastName(), user.getEmail()));
+            }
+        });
+
+        ready = true;
+        log.info("Suggestion index loaded with {} users and {} terms in {} ms", entriesById.size(), terms.size(),
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Returns up to {@code limit} distinct users with a term starting with {@code query}, ignoring case, in the
+     * alphabetical order of their first matching term. Shorter terms sort first, so exact matches lead.
+     */
+    public List<UserSuggestionDTO> suggest(String query, int limit) {
+        String prefix = normalize(query);
+        Map<UUID, Entry> matches = new LinkedHashMap<>();
+        for (Map.Entry<Key, Entry> term : terms.tailMap(new Key(prefix, null)).entrySet()) {
+            if (matches.size() >= limit || !term.getKey().term().startsWith(prefix)) {
+                break;
+            }
+            matches.putIfAbsent(term.getKey().id(), term.getValue());
+        }
+
+        List<UserSuggestionDTO> suggestions = new ArrayList<>(matches.size());
+        matches.values().forEach(entry -> suggestions.add(entry.toDTO()));
+        return suggestions;
+    }
+
+    /**
+     * Records the current values of a user, replacing the values previously registered for the same id.
+     */
+    public void register(UUID id, String username, String firstName, String lastName, String email) {
+        if (!enabled) {
+            return;
+        }
+
+        entriesById.compute(id, (key, previous) -> {
+            Entry entry = new Entry(id, username, firstName, lastName, localPart(email));
+            Set<String> entryTerms = entry.terms();
+            entryTerms.forEach(term -> terms.put(new Key(term, id), entry));
+            if (previous != null) {
+                previous.terms().stream()
+                        .filter(term -> !entryTerms.contains(term))
+                        .forEach(term -> terms.remove(new Key(term, id)));
+            }
+            return entry;
+        });
+    }
+
+    /**
+     * Records the values changed by a partial update; {@code null} keeps the value previously registered. A user that
+     * is not indexed yet is left out, since its other values are unknown.
+     */
+    public void registerChanges(UUID id, String username, String firstName, String lastName, String email) {
+        if (!enabled) {
+            return;
+        }
+
+        Entry previous = entriesById.get(id);
+        if (previous == null) {
+            return;
+        }
+        register(id,
+                username != null ? username : previous.username(),
+                firstName != null ? firstName : previous.firstName(),
+                lastName != null ? lastName : previous.lastName(),
+                email != null ? email : previous.emailLocalPart());
+    }
+
+    public void unregister(UUID id) {
+        if (!enabled) {
+            return;
+        }
+
+        entriesById.computeIfPresent(id, (key, previous) -> {
+            previous.terms().forEach(term -> terms.remove(new Key(term, id)));
+            return null;
+        });
+    }
+
+    private static String normalize(String value) {
+        return value.strip().toLowerCase(Locale.ROOT);
+    }
+
+    private static String localPart(String email) {
+        if (Objects.isNull(email)) {
+            return null;
+        }
+        int at = email.indexOf('@');
+        return at < 0 ? email : email.substring(0, at);
+    }
+
+    private record Key(String term, UUID id) {
+    }
+
+    /**
+     * Only the local part of the email is kept: it is all the terms need, and it is usually the term itself.
+     */
+    private record Entry(UUID id, String username, String firstName, String lastName, String emailLocalPart) {
+
+        Set<String> terms() {
+            Set<String> terms = new HashSet<>(5);
+            addTerm(terms, username);
+            if (Objects.nonNull(firstName) && Objects.nonNull(lastName)) {
+                addTerm(terms, firstName + " " + lastName);
+            }
+            addTerm(terms, lastName);
+            addTerm(terms, emailLocalPart);
+            return terms;
+        }
+
+        UserSuggestionDTO toDTO() {
+            return new UserSuggestionDTO(id, username, firstName, lastName);
+        }
+
+        private static void addTerm(Set<String> terms, String value) {
+            if (Objects.nonNull(value) && !value.isBlank()) {
+                terms.add(normalize(value));
+            }
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package com.task.thinkon.service;
+
+import com.task.thinkon.repository.UserRepository;
+import com.task.thinkon.repository.UserUniqueKeys;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Optional in-process copy of the unique columns of {@code users} (email, username, phone number), used to answer
+ * the uniqueness pre-check of creates and updates without a database round trip. It is loaded once at startup,
+ * before the web server accepts requests, and kept up to date by {@link UserService}.
+ * <p>
+ * The index only sees writes made by this instance, so it must only be enabled when a single instance writes to the
+ * database. The database unique constraints remain the final authority: a write that slips past a stale index
+ * still fails on insert and is reported by {@link UserService} as a regular conflict.
+ */
+@Component
+@Slf4j
+public class UserUniquenessIndex implements SmartInitializingSingleton {
+
+    private final UserRepository userRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+
+    private final Map<String, UUID> emails = new ConcurrentHashMap<>();
+    private final Map<String, UUID> usernames = new ConcurrentHashMap<>();
+    private final Map<String, UUID> phoneNumbers = new ConcurrentHashMap<>();
+    private final Map<UUID, Keys> keysById = new ConcurrentHashMap<>();
+    private volatile boolean ready;
+
+    public UserUniquenessIndex(UserRepository userRepository,
+                               TransactionTemplate transactionTemplate,
+                               @Value("${users.uniqueness-index.enabled:false}") boolean enabled) {
+        this.userRepository = userRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.enabled = enabled;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (enabled) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Whether lookups can be trusted, i.e. the index is enabled and fully loaded.
+     */
+    public boolean isActive() {
+        return ready;
+    }
+
+    public void rebuild() {
+        ready = false;
+        long start = System.nanoTime();
+        clear();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<UserUniqueKeys> users = userRepository.streamUniqueKeys()) {
+                users.forEach(user -> register(user.getId(), user.getEmail(), user.getUsername(), user.getPhoneNumber()));
+            }
+        });
+
+        ready = true;
+        log.info("Uniqueness index loaded with {} users in {} ms", keysById.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Returns the same field-level conflicts as the database pre-check: values already owned by a user other than
+     * {@code userId} ({@code null} for a new user).
+     */
+    public Map<String, String> findConflicts(String email, String username, String phoneNumber, UUID userId) {
+        Map<String, String> conflicts = new HashMap<>();
+        if (isTakenByOther(emails, email, userId)) {
+            conflicts.put("email", "Email is already in use");
+        }
+        if (isTakenByOther(usernames, username, userId)) {
+            conflicts.put("username", "Username is already in use");
+        }
+        if (isTakenByOther(phoneNumbers, phoneNumber, userId)) {
+            conflicts.put("phoneNumber", "Phone number is already in use");
+        }
+        return conflicts;
+    }
+
+    /**
+     * Records the current unique values of a user, replacing the values previously registered for the same id.
+     */
+    public void register(UUID id, String email, String username, String phoneNumber) {
+        if (!enabled) {
+            return;
+        }
+
+        Keys previous = keysById.put(id, new Keys(email, username, phoneNumber));
+        if (previous != null) {
+            removeOwned(emails, previous.email, id);
+            removeOwned(usernames, previous.username, id);
+            removeOwned(phoneNumbers, previous.phoneNumber, id);
+        }
+        putIfPresent(emails, email, id);
+        putIfPresent(usernames, username, id);
+        putIfPresent(phoneNumbers, phoneNumber, id);
+    }
+
+    /**
+     * Records the unique values changed by a partial update; {@code null} keeps the value previously registered.
+     */
+    public void registerChanges(UUID id, String email, String username, String phoneNumber) {
+        if (!enabled) {
+            return;
+        }
+
+        Keys previous = keysById.get(id);
+        if (previous == null) {
+            register(id, email, username, phoneNumber);
+            return;
+        }
+        register(id,
+                email != null ? email : previous.email,
+                username != null ? username : previous.username,
+                phoneNumber != null ? phoneNumber : previous.phoneNumber);
+    }
+
+    public void unregister(UUID id) {
+        if (!enabled) {
+            return;
+        }
+
+        Keys previous = keysById.remove(id);
+        if (previous != null) {
+            removeOwned(emails, previous.email, id);
+            removeOwned(usernames, previous.username, id);
+            removeOwned(phoneNumbers, previous.phoneNumber, id);
+        }
+    }
+
+    private void clear() {
+        emails.clear();
+        usernames.clear();
+        phoneNumbers.clear();
+        keysById.clear();
+    }
+
+    private static boolean isTakenByOther(Map<String, UUID> index, String value, UUID userId) {
+        if (Objects.isNull(value)) {
+            return false;
+        }
+        UUID owner = index.get(value);
+        return owner != null && !owner.equals(userId);
+    }
+
+    private static void putIfPresent(Map<String, UUID> index, String value, UUID id) {
+        if (value != null) {
+            index.put(value, id);
+        }
+    }
+
+    private static void removeOwned(Map<String, UUID> index, String value, UUID id) {
+        if (value != null) {
+            index.remove(value, id);
+        }
+    }
+
+    private static final class Keys {
+        private final String email;
+        private final String username;
+        private final String phoneNumber;
+
+        private Keys(String email, String username, String phoneNumber) {
+            this.email = email;
+            this.username = username;
+            this.phoneNumber = phoneNumber;
+        }
+    }
+}
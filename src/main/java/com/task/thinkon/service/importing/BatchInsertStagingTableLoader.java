@@ -0,0 +1,49 @@
+package com.task.thinkon.service.importing;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Iterator;
+
+/**
+ * Portable loader based on batched, periodically committed INSERT statements. Used on H2.
+ */
+@Component
+@Profile("!postgres")
+public class BatchInsertStagingTableLoader implements StagingTableLoader {
+
+    private static final int BATCH_SIZE = 1000;
+    private static final String INSERT_SQL =
+            "INSERT INTO " + TABLE + " (" + StagingRow.COLUMNS + ") VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    @Override
+    public void load(Connection connection, Iterator<StagingRow> rows) throws SQLException {
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+
+        try (PreparedStatement statement = connection.prepareStatement(INSERT_SQL)) {
+            int pending = 0;
+            while (rows.hasNext()) {
+                rows.next().bind(statement);
+                statement.addBatch();
+                if (++pending == BATCH_SIZE) {
+                    statement.executeBatch();
+                    connection.commit();
+                    pending = 0;
+                }
+            }
+            if (pending > 0) {
+                statement.executeBatch();
+                connection.commit();
+            }
+        } catch (SQLException | RuntimeException ex) {
+            connection.rollback();
+            throw ex;
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+    }
+}
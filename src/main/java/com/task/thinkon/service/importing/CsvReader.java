@@ -0,0 +1,108 @@
+package com.task.thinkon.service.importing;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Minimal streaming RFC 4180 reader: comma separated, optionally double-quoted fields, {@code ""} as an escaped
+ * quote inside a quoted field, and LF or CRLF record separators (also allowed inside quoted fields).
+ */
+public final class CsvReader implements Closeable {
+
+    private static final int EOF = -1;
+
+    private final Reader reader;
+    private int lookahead = EOF;
+    private boolean hasLookahead;
+    private long lineNumber;
+    private long recordLineNumber;
+
+    public CsvReader(Reader reader) {
+        this.reader = reader;
+    }
+
+    /**
+     * Returns the fields of the next record, or {@code null} once the input is exhausted.
+     */
+    public List<String> readRecord() throws IOException {
+        int c = read();
+        if (c == EOF) {
+            return null;
+        }
+
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        boolean fieldStart = true;
+        recordLineNumber = ++lineNumber;
+
+        while (c != EOF) {
+            if (quoted) {
+                if (c == '"') {
+                    int next = read();
+                    if (next == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        unread(next);
+                    }
+                } else {
+                    if (c == '\n') {
+                        lineNumber++;
+                    }
+                    field.append((char) c);
+                }
+            } else if (c == '"' && fieldStart) {
+                quoted = true;
+                fieldStart = false;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+                fieldStart = true;
+            } else if (c == '\n') {
+                break;
+            } else if (c == '\r') {
+                int next = read();
+                if (next != '\n') {
+                    unread(next);
+                }
+                break;
+            } else {
+                field.append((char) c);
+                fieldStart = false;
+            }
+            c = read();
+        }
+
+        fields.add(field.toString());
+        return fields;
+    }
+
+    /**
+     * Physical line on which the last record returned by {@link #readRecord()} starts, the first line being 1.
+     */
+    public long getLineNumber() {
+        return recordLineNumber;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private int read() throws IOException {
+        if (hasLookahead) {
+            hasLookahead = false;
+            return lookahead;
+        }
+        return reader.read();
+    }
+
+    private void unread(int c) {
+        lookahead = c;
+        hasLookahead = true;
+    }
+}
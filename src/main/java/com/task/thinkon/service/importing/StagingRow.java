@@ -0,0 +1,78 @@
+package com.task.thinkon.service.importing;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.UUID;
+
+/**
+ * One row of {@code user_import_staging}, as produced while streaming the uploaded CSV.
+ */
+@Getter
+@AllArgsConstructor
+public class StagingRow {
+
+    static final String COLUMNS =
+            "job_id, line_number, user_id, username, first_name, last_name, email, phone_number, reject_reason";
+
+    private final UUID jobId;
+    private final long lineNumber;
+    private final UUID userId;
+    private final String username;
+    private final String firstName;
+    private final String lastName;
+    private final String email;
+    private final String phoneNumber;
+    private final String rejectReason;
+
+    void bind(PreparedStatement statement) throws SQLException {
+        statement.setObject(1, jobId);
+        statement.setLong(2, lineNumber);
+        statement.setObject(3, userId);
+        statement.setString(4, username);
+        statement.setString(5, firstName);
+        statement.setString(6, lastName);
+        statement.setString(7, email);
+        statement.setString(8, phoneNumber);
+        statement.setString(9, rejectReason);
+    }
+
+    /**
+     * Appends the row in PostgreSQL's COPY CSV format: an unquoted empty field is NULL, strings are always quoted
+     * so that an empty string stays distinguishable from NULL.
+     */
+    void appendCsv(StringBuilder out) {
+        out.append(jobId).append(',')
+                .append(lineNumber).append(',')
+                .append(userId).append(',');
+        appendQuoted(out, username);
+        out.append(',');
+        appendQuoted(out, firstName);
+        out.append(',');
+        appendQuoted(out, lastName);
+        out.append(',');
+        appendQuoted(out, email);
+        out.append(',');
+        appendQuoted(out, phoneNumber);
+        out.append(',');
+        appendQuoted(out, rejectReason);
+        out.append('\n');
+    }
+
+    private static void appendQuoted(StringBuilder out, String value) {
+        if (value == null) {
+            return;
+        }
+        out.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                out.append('"');
+            }
+            out.append(c);
+        }
+        out.append('"');
+    }
+}
@@ -0,0 +1,19 @@
+package com.task.thinkon.service.importing;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Iterator;
+
+/**
+ * Bulk-loads staging rows into {@code user_import_staging} using the fastest path the database offers.
+ */
+public interface StagingTableLoader {
+
+    String TABLE = "user_import_staging";
+
+    /**
+     * Consumes {@code rows} lazily and writes them through {@code connection}; rows are committed by the time this
+     * method returns.
+     */
+    void load(Connection connection, Iterator<StagingRow> rows) throws SQLException;
+}
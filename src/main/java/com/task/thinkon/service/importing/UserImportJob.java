@@ -0,0 +1,90 @@
+package com.task.thinkon.service.importing;
+
+import com.task.thinkon.dto.ImportJobStatusDTO;
+import lombok.Getter;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Live progress of an import job. Counters are updated by the worker thread and read by status requests.
+ */
+public class UserImportJob {
+
+    public enum State {
+        QUEUED, LOADING, VALIDATING, MERGING, COMPLETED, FAILED
+    }
+
+    @Getter
+    private final UUID id;
+    private final AtomicLong rowsRead = new AtomicLong();
+    private final AtomicLong rowsRejected = new AtomicLong();
+    private final AtomicLong rowsImported = new AtomicLong();
+    private volatile State state = State.QUEUED;
+    private volatile Instant startedAt;
+    private volatile Instant finishedAt;
+    private volatile String error;
+
+    public UserImportJob(UUID id) {
+        this.id = id;
+    }
+
+    void start() {
+        startedAt = Instant.now();
+        state = State.LOADING;
+    }
+
+    void moveTo(State nextState) {
+        state = nextState;
+    }
+
+    void rowRead(boolean rejected) {
+        rowsRead.incrementAndGet();
+        if (rejected) {
+            rowsRejected.incrementAndGet();
+        }
+    }
+
+    void rowsRejected(long count) {
+        rowsRejected.addAndGet(count);
+    }
+
+    void rowsImported(long count) {
+        rowsImported.addAndGet(count);
+    }
+
+    void complete(long imported) {
+        rowsImported.set(imported);
+        finish(State.COMPLETED);
+    }
+
+    void fail(String message) {
+        error = message;
+        finish(State.FAILED);
+    }
+
+    public boolean isFinished() {
+        return state == State.COMPLETED || state == State.FAILED;
+    }
+
+    public ImportJobStatusDTO toStatus() {
+        Instant start = startedAt;
+        Instant end = finishedAt != null ? finishedAt : Instant.now();
+        long read = rowsRead.get();
+        double rowsPerSecond = 0;
+        if (start != null) {
+            long elapsedMillis = Math.max(Duration.between(start, end).toMillis(), 1);
+            rowsPerSecond = read * 1000.0 / elapsedMillis;
+        }
+
+        return new ImportJobStatusDTO(id, state.name(), read, rowsRejected.get(), rowsImported.get(),
+                rowsPerSecond, start, finishedAt, error);
+    }
+
+    private void finish(State finalState) {
+        finishedAt = Instant.now();
+        state = finalState;
+    }
+}
@@ -0,0 +1,487 @@
+package com.task.thinkon.service.importing;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.github.benmanes.caffeine.cache.Scheduler;
+import com.task.thinkon.config.UserImportProperties;
+import com.task.thinkon.dto.CreateUserDTO;
+import com.task.thinkon.dto.ImportJobStatusDTO;
+import com.task.thinkon.dto.ImportRejectionDTO;
+import com.task.thinkon.entities.UserChange;
+import com.task.thinkon.entities.UserImportRow;
+import com.task.thinkon.exceptions.EntityNotFoundException;
+import com.task.thinkon.exceptions.InvalidRequestException;
+import com.task.thinkon.repository.UserChangeLog;
+import com.task.thinkon.repository.UserImportRowRepository;
+import com.task.thinkon.service.UserSuggestionIndex;
+import com.task.thinkon.service.UserUniquenessIndex;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Imports users from CSV without going through {@code UserService.createUser} row by row. The upload is streamed
+ * into a staging table, checked against the {@code users} unique constraints with a handful of set-based
+ * statements, and merged with an {@code INSERT ... SELECT} per chunk of {@value #MERGE_CHUNK_LINES} lines, which also
+ * records the imported users in the change log. Each chunk is committed on its own, so the change sequence, which
+ * serializes the commits of every writer, is only held for the change log entries of one chunk at a time. Job
+ * progress is kept in memory.
+ * <p>
+ * Users created while the job runs may take values of staged rows. Each chunk therefore checks for existing users
+ * again, in its own transaction, and rejects the rows that lost their values; a user created during the insert
+ * itself makes the chunk start over. A job that fails keeps the chunks it already merged.
+ * <p>
+ * Finished jobs are forgotten, and their rejection reports dropped, after {@code users.import.retention}.
+ */
+@Service
+@Slf4j
+public class UserImportService {
+
+    static final List<String> CSV_COLUMNS = List.of("username", "firstName", "lastName", "email", "phoneNumber");
+    private static final int MAX_VALUE_LENGTH = 255;
+    private static final int MAX_REJECTIONS_PAGE_SIZE = 1000;
+    private static final int MAX_MERGE_ATTEMPTS = 3;
+    static final int MERGE_CHUNK_LINES = 10_000;
+
+    /**
+     * Restricts a statement on the staging rows of a job to the lines of one merge chunk.
+     */
+    private static final String CHUNK = " AND s.line_number > ? AND s.line_number <= ?";
+    private static final String REJECT_EXISTING_SQL = "UPDATE " + StagingTableLoader.TABLE + " s SET reject_reason = ? "
+            + "WHERE s.job_id = ? AND s.reject_reason IS NULL "
+            + "AND EXISTS (SELECT 1 FROM users u WHERE u.%1$s = s.%1$s)";
+    private static final String REJECT_EXISTING_IN_CHUNK_SQL = REJECT_EXISTING_SQL + CHUNK;
+    private static final String REJECT_DUPLICATE_SQL = "UPDATE " + StagingTableLoader.TABLE + " s SET reject_reason = ? "
+            + "WHERE s.job_id = ? AND s.reject_reason IS NULL "
+            + "AND EXISTS (SELECT 1 FROM " + StagingTableLoader.TABLE + " d WHERE d.job_id = s.job_id "
+            + "AND d.%1$s = s.%1$s AND d.line_number < s.line_number AND d.reject_reason IS NULL)";
+    private static final String MERGE_SQL = "INSERT INTO users (id, version, username, first_name, last_name, email, phone_number) "
+            + "SELECT user_id, 0, username, first_name, last_name, email, phone_number FROM " + StagingTableLoader.TABLE
+            + " s WHERE s.job_id = ? AND s.reject_reason IS NULL" + CHUNK;
+    private static final String RECORD_MERGED_SQL = "INSERT INTO user_changes (seq, user_id, change_type, changed_at) "
+            + "SELECT ? + ROW_NUMBER() OVER (ORDER BY line_number), user_id, '" + UserChange.Type.CREATED + "', "
+            + "CAST(? AS TIMESTAMP WITH TIME ZONE) FROM " + StagingTableLoader.TABLE
+            + " s WHERE s.job_id = ? AND s.reject_reason IS NULL" + CHUNK;
+    private static final String SELECT_MERGED_SQL = "SELECT user_id, email, username, phone_number, first_name, last_name FROM "
+            + StagingTableLoader.TABLE + " s WHERE s.job_id = ? AND s.reject_reason IS NULL" + CHUNK;
+    private static final String DELETE_MERGED_SQL = "DELETE FROM " + StagingTableLoader.TABLE
+            + " s WHERE s.job_id = ? AND s.reject_reason IS NULL" + CHUNK;
+    private static final String LAST_LINE_SQL = "SELECT MAX(line_number) FROM " + StagingTableLoader.TABLE
+            + " WHERE job_id = ? AND reject_reason IS NULL";
+    private static final String DELETE_JOB_SQL = "DELETE FROM " + StagingTableLoader.TABLE + " WHERE job_id = ?";
+
+    /**
+     * Unique columns of {@code users} with the label used in rejection reasons, in the order they are checked.
+     */
+    private static final List<Map.Entry<String, String>> UNIQUE_COLUMNS = List.of(
+            Map.entry("email", "Email"),
+            Map.entry("username", "Username"),
+            Map.entry("phone_number", "Phone number"));
+
+    private final Cache<UUID, UserImportJob> jobs;
+    private final DataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final UserChangeLog userChangeLog;
+    private final StagingTableLoader stagingTableLoader;
+    private final UserImportRowRepository userImportRowRepository;
+    private final Validator validator;
+    private final TaskExecutor taskExecutor;
+    private final UserUniquenessIndex userUniquenessIndex;
+    private final UserSuggestionIndex userSuggestionIndex;
+
+    public UserImportService(DataSource dataSource,
+                             JdbcTemplate jdbcTemplate,
+                             TransactionTemplate transactionTemplate,
+                             UserChangeLog userChangeLog,
+                             StagingTableLoader stagingTableLoader,
+                             UserImportRowRepository userImportRowRepository,
+                             Validator validator,
+                             TaskExecutor taskExecutor,
+                             UserUniquenessIndex userUniquenessIndex,
+                             UserSuggestionIndex userSuggestionIndex,
+                             UserImportProperties properties) {
+        this.dataSource = dataSource;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.userChangeLog = userChangeLog;
+        this.stagingTableLoader = stagingTableLoader;
+        this.userImportRowRepository = userImportRowRepository;
+        this.validator = validator;
+        this.taskExecutor = taskExecutor;
+        this.userUniquenessIndex = userUniquenessIndex;
+        this.userSuggestionIndex = userSuggestionIndex;
+        this.jobs = Caffeine.newBuilder()
+                .expireAfter(new FinishedJobExpiry(properties.getRetention()))
+                .scheduler(Scheduler.systemScheduler())
+                .evictionListener((UUID jobId, UserImportJob job, RemovalCause cause) -> dropStagingRows(jobId))
+                .build();
+    }
+
+    /**
+     * Checks the CSV header and schedules the import in the background.
+     */
+    public ImportJobStatusDTO startImport(MultipartFile file) {
+        if (Objects.isNull(file) || file.isEmpty()) {
+            throw new InvalidRequestException("CSV file must not be empty");
+        }
+
+        Path csvFile = null;
+        try {
+            // The multipart temp file is removed once the request completes, so keep our own copy for the job
+            csvFile = Files.createTempFile("user-import-", ".csv");
+            file.transferTo(csvFile);
+
+            int[] columnIndexes;
+            try (CsvReader reader = openCsv(csvFile)) {
+                columnIndexes = resolveColumns(reader.readRecord());
+            }
+
+            UserImportJob job = new UserImportJob(UUID.randomUUID());
+            jobs.put(job.getId(), job);
+            Path jobFile = csvFile;
+            taskExecutor.execute(() -> runImport(job, jobFile, columnIndexes));
+
+            log.info("User import job {} scheduled", job.getId());
+            return job.toStatus();
+        } catch (IOException ex) {
+            deleteQuietly(csvFile);
+            throw new UncheckedIOException(ex);
+        } catch (RuntimeException ex) {
+            deleteQuietly(csvFile);
+            throw ex;
+        }
+    }
+
+    public ImportJobStatusDTO getStatus(UUID jobId) {
+        return getJob(jobId).toStatus();
+    }
+
+    public List<ImportRejectionDTO> getRejections(UUID jobId, long afterLine, int limit) {
+        getJob(jobId);
+        int pageSize = Math.min(Math.max(limit, 1), MAX_REJECTIONS_PAGE_SIZE);
+        return userImportRowRepository
+                .findByJobIdAndRejectReasonIsNotNullAndLineNumberGreaterThanOrderByLineNumberAsc(jobId, afterLine, Limit.of(pageSize))
+                .stream()
+                .map(row -> new ImportRejectionDTO(row.getLineNumber(), row.getRejectReason()))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Forgets a finished job and drops its remaining staging rows (the rejection report).
+     */
+    public void deleteJob(UUID jobId) {
+        UserImportJob job = getJob(jobId);
+        if (!job.isFinished()) {
+            throw new InvalidRequestException("Import job " + jobId + " is still running");
+        }
+        jdbcTemplate.update(DELETE_JOB_SQL, jobId);
+        jobs.invalidate(jobId);
+        log.info("User import job {} deleted", jobId);
+    }
+
+    private void dropStagingRows(UUID jobId) {
+        try {
+            jdbcTemplate.update(DELETE_JOB_SQL, jobId);
+            log.info("User import job {} expired", jobId);
+        } catch (RuntimeException ex) {
+            log.error("Failed to clean up staging rows of expired import job {}", jobId, ex);
+        }
+    }
+
+    private UserImportJob getJob(UUID jobId) {
+        UserImportJob job = jobs.getIfPresent(jobId);
+        if (Objects.isNull(job)) {
+            log.error("Import job with ID: {} not found", jobId);
+            throw new EntityNotFoundException("Import job", jobId);
+        }
+        return job;
+    }
+
+    private void runImport(UserImportJob job, Path csvFile, int[] columnIndexes) {
+        job.start();
+        try (CsvReader reader = openCsv(csvFile); Connection connection = dataSource.getConnection()) {
+            reader.readRecord();
+            stagingTableLoader.load(connection, new StagingRowIterator(job, reader, columnIndexes));
+
+            job.moveTo(UserImportJob.State.VALIDATING);
+            job.rowsRejected(rejectConflicts(job.getId()));
+
+            job.moveTo(UserImportJob.State.MERGING);
+            long imported = 0;
+            Long lastLine = jdbcTemplate.queryForObject(LAST_LINE_SQL, Long.class, job.getId());
+            for (long fromLine = 0; Objects.nonNull(lastLine) && fromLine < lastLine; fromLine += MERGE_CHUNK_LINES) {
+                long toLine = fromLine + MERGE_CHUNK_LINES;
+                int merged = mergeChunk(job, fromLine, toLine);
+                registerMerged(job.getId(), fromLine, toLine);
+                jdbcTemplate.update(DELETE_MERGED_SQL, job.getId(), fromLine, toLine);
+                job.rowsImported(merged);
+                imported += merged;
+            }
+
+            job.complete(imported);
+            log.info("User import job {} completed: {}", job.getId(), job.toStatus().getRowsImported());
+        } catch (Exception ex) {
+            log.error("User import job {} failed", job.getId(), ex);
+            job.fail(ex.getMessage());
+            try {
+                jdbcTemplate.update(DELETE_JOB_SQL, job.getId());
+            } catch (RuntimeException cleanupEx) {
+                log.error("Failed to clean up staging rows of import job {}", job.getId(), cleanupEx);
+            }
+        } finally {
+            // Starts the retention of the finished job, unless it was deleted already
+            jobs.asMap().replace(job.getId(), job);
+            deleteQuietly(csvFile);
+        }
+    }
+
+    /**
+     * Inserts the rows of lines {@code (fromLine, toLine]} left valid and records them in the change log, after
+     * rejecting those whose values were taken by users created since validation. Returns the number of users
+     * imported.
+     */
+    private int mergeChunk(UserImportJob job, long fromLine, long toLine) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                long[] rejected = new long[1];
+                Integer merged = transactionTemplate.execute(status -> {
+                    rejected[0] = rejectExisting(REJECT_EXISTING_IN_CHUNK_SQL, job.getId(), fromLine, toLine);
+                    int inserted = jdbcTemplate.update(MERGE_SQL, job.getId(), fromLine, toLine);
+                    if (inserted > 0) {
+                        // The sequence row stays locked until commit, for the entries of this chunk only
+                        long seqBefore = userChangeLog.reserve(inserted) - inserted;
+                        jdbcTemplate.update(RECORD_MERGED_SQL, seqBefore, Timestamp.from(Instant.now()), job.getId(),
+                                fromLine, toLine);
+                    }
+                    return inserted;
+                });
+                job.rowsRejected(rejected[0]);
+                return Objects.requireNonNullElse(merged, 0);
+            } catch (DataIntegrityViolationException ex) {
+                // A user taking a staged value was committed after the check of this attempt
+                if (attempt == MAX_MERGE_ATTEMPTS) {
+                    throw ex;
+                }
+                log.warn("User import job {} collided with a concurrent write, merging lines {} to {} again",
+                        job.getId(), fromLine + 1, toLine);
+            }
+        }
+    }
+
+    private void registerMerged(UUID jobId, long fromLine, long toLine) {
+        if (!userUniquenessIndex.isActive() && !userSuggestionIndex.isActive()) {
+            return;
+        }
+        jdbcTemplate.query(SELECT_MERGED_SQL, row -> {
+            UUID userId = row.getObject("user_id", UUID.class);
+            userUniquenessIndex.register(userId, row.getString("email"), row.getString("username"),
+                    row.getString("phone_number"));
+            userSuggestionIndex.register(userId, row.getString("username"), row.getString("first_name"),
+                    row.getString("last_name"), row.getString("email"));
+        }, jobId, fromLine, toLine);
+    }
+
+    /**
+     * Rejects rows that collide with an existing user first, then rows that repeat a value already claimed by an
+     * earlier, still valid row of the same file. Returns the number of rows rejected.
+     */
+    private long rejectConflicts(UUID jobId) {
+        long rejected = rejectExisting(REJECT_EXISTING_SQL, jobId);
+        for (Map.Entry<String, String> column : UNIQUE_COLUMNS) {
+            rejected += jdbcTemplate.update(String.format(REJECT_DUPLICATE_SQL, column.getKey()),
+                    column.getValue() + " is duplicated within the import", jobId);
+        }
+        return rejected;
+    }
+
+    private long rejectExisting(String sql, Object... args) {
+        long rejected = 0;
+        for (Map.Entry<String, String> column : UNIQUE_COLUMNS) {
+            Object[] reasonAndArgs = new Object[args.length + 1];
+            reasonAndArgs[0] = column.getValue() + " is already in use";
+            System.arraycopy(args, 0, reasonAndArgs, 1, args.length);
+            rejected += jdbcTemplate.update(String.format(sql, column.getKey()), reasonAndArgs);
+        }
+        return rejected;
+    }
+
+    private static int[] resolveColumns(List<String> header) {
+        if (Objects.isNull(header)) {
+            throw new InvalidRequestException("CSV file must start with a header row");
+        }
+
+        List<String> normalizedHeader = header.stream()
+                .map(column -> column.trim().toLowerCase(Locale.ROOT))
+                .collect(Collectors.toList());
+        int[] columnIndexes = new int[CSV_COLUMNS.size()];
+        for (int i = 0; i < CSV_COLUMNS.size(); i++) {
+            columnIndexes[i] = normalizedHeader.indexOf(CSV_COLUMNS.get(i).toLowerCase(Locale.ROOT));
+            if (columnIndexes[i] < 0) {
+                throw new InvalidRequestException("CSV header must contain the columns " + String.join(",", CSV_COLUMNS));
+            }
+        }
+        return columnIndexes;
+    }
+
+    private static CsvReader openCsv(Path csvFile) throws IOException {
+        return new CsvReader(Files.newBufferedReader(csvFile, StandardCharsets.UTF_8));
+    }
+
+    private static void deleteQuietly(Path file) {
+        if (Objects.isNull(file)) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException ex) {
+            log.warn("Could not delete temporary import file {}", file, ex);
+        }
+    }
+
+    /**
+     * Keeps running jobs, and finished jobs for the retention period from the time they finished.
+     */
+    private static final class FinishedJobExpiry implements Expiry<UUID, UserImportJob> {
+
+        private final long retentionNanos;
+
+        private FinishedJobExpiry(Duration retention) {
+            this.retentionNanos = retention.toNanos();
+        }
+
+        @Override
+        public long expireAfterCreate(UUID jobId, UserImportJob job, long currentTime) {
+            return job.isFinished() ? retentionNanos : Long.MAX_VALUE;
+        }
+
+        @Override
+        public long expireAfterUpdate(UUID jobId, UserImportJob job, long currentTime, long currentDuration) {
+            return expireAfterCreate(jobId, job, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(UUID jobId, UserImportJob job, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+
+    /**
+     * Lazily turns CSV records into staging rows, applying the same Bean Validation rules as {@code POST /users}
+     * on the way so that invalid rows are staged already rejected.
+     */
+    private final class StagingRowIterator implements Iterator<StagingRow> {
+
+        private final UserImportJob job;
+        private final CsvReader reader;
+        private final int[] columnIndexes;
+        private StagingRow next;
+
+        private StagingRowIterator(UserImportJob job, CsvReader reader, int[] columnIndexes) {
+            this.job = job;
+            this.reader = reader;
+            this.columnIndexes = columnIndexes;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (next == null) {
+                next = readNext();
+            }
+            return next != null;
+        }
+
+        @Override
+        public StagingRow next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            StagingRow row = next;
+            next = null;
+            return row;
+        }
+
+        private StagingRow readNext() {
+            try {
+                List<String> record;
+                do {
+                    record = reader.readRecord();
+                } while (record != null && record.size() == 1 && record.get(0).isEmpty());
+
+                if (record == null) {
+                    return null;
+                }
+
+                CreateUserDTO user = new CreateUserDTO();
+                user.setUsername(field(record, 0));
+                user.setFirstName(field(record, 1));
+                user.setLastName(field(record, 2));
+                user.setEmail(field(record, 3));
+                user.setPhoneNumber(field(record, 4));
+
+                String rejectReason = validate(user);
+                job.rowRead(rejectReason != null);
+                return new StagingRow(job.getId(), reader.getLineNumber(), UUID.randomUUID(),
+                        truncate(user.getUsername()), truncate(user.getFirstName()), truncate(user.getLastName()),
+                        truncate(user.getEmail()), truncate(user.getPhoneNumber()), rejectReason);
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        }
+
+        private String field(List<String> record, int column) {
+            int index = columnIndexes[column];
+            return index < record.size() ? record.get(index) : null;
+        }
+
+        private String validate(CreateUserDTO user) {
+            String violations = validator.validate(user).stream()
+                    .sorted((a, b) -> a.getPropertyPath().toString().compareTo(b.getPropertyPath().toString()))
+                    .map(ConstraintViolation::getMessage)
+                    .collect(Collectors.joining("; "));
+
+            boolean tooLong = Stream.of(user.getUsername(), user.getFirstName(), user.getLastName(),
+                            user.getEmail(), user.getPhoneNumber())
+                    .anyMatch(value -> value != null && value.length() > MAX_VALUE_LENGTH);
+            if (tooLong) {
+                String lengthViolation = "Values must not exceed " + MAX_VALUE_LENGTH + " characters";
+                violations = violations.isEmpty() ? lengthViolation : violations + "; " + lengthViolation;
+            }
+
+            return violations.isEmpty() ? null : violations;
+        }
+
+        private String truncate(String value) {
+            return value != null && value.length() > MAX_VALUE_LENGTH ? value.substring(0, MAX_VALUE_LENGTH) : value;
+        }
+    }
+}
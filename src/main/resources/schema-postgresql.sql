@@ -0,0 +1,14 @@
+-- Search indexes of GET /users/search, applied after Hibernate has created or updated the tables.
+-- Every statement is idempotent, since the script runs on each startup.
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+-- Case-insensitive prefix matches: lower(column) LIKE 'abc%'. text_pattern_ops lets a B-tree serve LIKE
+-- prefixes whatever the collation of the database.
+CREATE INDEX IF NOT EXISTS ix_users_username_lower ON users (lower(username) text_pattern_ops);
+CREATE INDEX IF NOT EXISTS ix_users_first_name_lower ON users (lower(first_name) text_pattern_ops);
+CREATE INDEX IF NOT EXISTS ix_users_last_name_lower ON users (lower(last_name) text_pattern_ops);
+CREATE INDEX IF NOT EXISTS ix_users_phone_number_prefix ON users (phone_number text_pattern_ops);
+
+-- Email domain matches, lower(email) LIKE '%@example.com', are anchored at the end, which a B-tree cannot serve
+CREATE INDEX IF NOT EXISTS ix_users_email_lower_trgm ON users USING gin (lower(email) gin_trgm_ops);
@@ -0,0 +1,61 @@
+package com.task.thinkon;
+
+import com.task.thinkon.service.UserService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.concurrent.CountDownLatch;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:admissiontest;DB_CLOSE_DELAY=-1",
+        "users.concurrency-limit.enabled=true",
+        "users.concurrency-limit.endpoints.UserController.exportUsers=2",
+        "users.concurrency-limit.acquire-timeout=0s"})
+@ActiveProfiles("h2")
+@AutoConfigureMockMvc
+class AdmissionControlTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @SpyBean
+    private UserService userService;
+
+    @Test
+    void testExportUsers_HoldsPermitWhileStreaming() throws Exception {
+        CountDownLatch finish = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            finish.await();
+            return null;
+        }).when(userService).exportUsers(any());
+
+        MvcResult first = mockMvc.perform(get("/users/export")).andExpect(request().asyncStarted()).andReturn();
+        MvcResult second = mockMvc.perform(get("/users/export")).andExpect(request().asyncStarted()).andReturn();
+
+        mockMvc.perform(get("/users/export"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().exists(HttpHeaders.RETRY_AFTER));
+
+        finish.countDown();
+        mockMvc.perform(asyncDispatch(first)).andExpect(status().isOk());
+        mockMvc.perform(asyncDispatch(second)).andExpect(status().isOk());
+
+        MvcResult third = mockMvc.perform(get("/users/export")).andExpect(request().asyncStarted()).andReturn();
+        mockMvc.perform(asyncDispatch(third)).andExpect(status().isOk());
+    }
+}
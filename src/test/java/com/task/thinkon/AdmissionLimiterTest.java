@@ -0,0 +1,86 @@
+package com.task.thinkon;
+
+import com.task.thinkon.controller.AdmissionLimiter;
+import com.task.thinkon.controller.AdmissionLimiter.Permit;
+import com.task.thinkon.controller.AdmissionLimiter.Priority;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class AdmissionLimiterTest {
+
+    private static final Map<Priority, Double> SHARES = Map.of(Priority.READ, 1.0, Priority.WRITE, 0.5);
+
+    @Test
+    void testAcquire_EnforcesEndpointAndPriorityLimits() {
+        AdmissionLimiter limiter = new AdmissionLimiter(1, 4, false, 2.0, SHARES, Map.of("exportUsers", 1), 10,
+                Duration.ZERO);
+
+        assertNotNull(limiter.acquire("exportUsers", Priority.READ));
+        assertNull(limiter.acquire("exportUsers", Priority.READ));
+
+        assertNotNull(limiter.acquire("createUser", Priority.WRITE));
+        assertNotNull(limiter.acquire("createUser", Priority.WRITE));
+        assertNull(limiter.acquire("createUser", Priority.WRITE));
+
+        Permit read = limiter.acquire("getUserById", Priority.READ);
+        assertNotNull(read);
+        assertNull(limiter.acquire("getUserById", Priority.READ));
+        assertEquals(0, limiter.availablePermits());
+
+        limiter.release(read, true);
+        assertNotNull(limiter.acquire("getUserById", Priority.READ));
+    }
+
+    @Test
+    void testAcquire_RejectsAtOnceWhenTooManyWait() {
+        AdmissionLimiter limiter = new AdmissionLimiter(1, 1, false, 2.0, SHARES, Map.of(), 0, Duration.ofMinutes(1));
+        assertNotNull(limiter.acquire("getUserById", Priority.READ));
+
+        long start = System.nanoTime();
+        assertNull(limiter.acquire("getUserById", Priority.READ));
+        assertEquals(0, TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - start));
+    }
+
+    @Test
+    void testRelease_AdaptsLimitToLatency() {
+        AdmissionLimiter limiter = new AdmissionLimiter(2, 10, true, 2.0, SHARES, Map.of(), 10, Duration.ZERO);
+
+        run(limiter, 20, TimeUnit.MILLISECONDS.toNanos(1));
+        assertEquals(10, limiter.getLimit());
+
+        run(limiter, 20, TimeUnit.MILLISECONDS.toNanos(20));
+        assertEquals(9, limiter.getLimit());
+
+        // Fast again, and demand exceeds the limit
+        List<Permit> permits = new ArrayList<>();
+        for (int i = 0; i < 9; i++) {
+            permits.add(limiter.acquire("getUserById", Priority.READ));
+        }
+        assertNull(limiter.acquire("getUserById", Priority.READ));
+        permits.forEach(permit -> release(limiter, permit, TimeUnit.MILLISECONDS.toNanos(1)));
+        run(limiter, 11, TimeUnit.MILLISECONDS.toNanos(1));
+        assertEquals(10, limiter.getLimit());
+    }
+
+    private static void run(AdmissionLimiter limiter, int requests, long latencyNanos) {
+        for (int i = 0; i < requests; i++) {
+            release(limiter, limiter.acquire("getUserById", Priority.READ), latencyNanos);
+        }
+    }
+
+    /**
+     * Releases {@code permit} as if it had been held for {@code latencyNanos}.
+     */
+    private static void release(AdmissionLimiter limiter, Permit permit, long latencyNanos) {
+        limiter.release(new Permit(permit.endpoint(), permit.priority(), permit.admittedAt() - latencyNanos), true);
+    }
+}
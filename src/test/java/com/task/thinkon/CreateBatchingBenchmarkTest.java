@@ -0,0 +1,91 @@
+package com.task.thinkon;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.task.thinkon.loadtest.LoadGenerator;
+import com.task.thinkon.loadtest.LoadReport;
+import com.task.thinkon.loadtest.LoadTestSettings;
+import com.task.thinkon.loadtest.Operation;
+import com.task.thinkon.loadtest.UserWorkload;
+import com.task.thinkon.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.net.http.HttpClient;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compares the throughput and latency of {@value #CONCURRENCY} concurrent {@code POST /users} callers with and without
+ * grouping creates into shared transactions. Each mode runs in its own application context on a random port, against
+ * the database of the active profile, and is driven by the {@link LoadGenerator} in the closed model. One create in
+ * ten reuses the email of an existing user, so the conflict path is measured too. Run with {@code mvn test -Pbenchmark};
+ * the report of each mode is written to {@code target/benchmark/create-batching-<mode>.json}.
+ */
+@Slf4j
+@Tag("benchmark")
+class CreateBatchingBenchmarkTest {
+
+    private static final int CONCURRENCY = 64;
+    private static final int USERS = 1000;
+    private static final Duration WARMUP = Duration.ofSeconds(5);
+    private static final Duration MEASUREMENT = Duration.ofSeconds(20);
+    private static final Map<Operation, Integer> MIX = Map.of(Operation.CREATE, 9, Operation.CONFLICT, 1);
+
+    @Test
+    void compareGrouping() throws Exception {
+        run(false);
+        run(true);
+    }
+
+    private void run(boolean grouped) throws Exception {
+        String mode = grouped ? "grouped" : "single";
+        Path reportPath = Path.of("target", "benchmark", "create-batching-" + mode + ".json");
+        LoadTestSettings settings = new LoadTestSettings(LoadTestSettings.Model.CLOSED, null, CONCURRENCY, WARMUP,
+                MEASUREMENT, MIX, USERS, null, reportPath.toString());
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+        ExecutorService clientExecutor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(ThinkOnAssigmentApplication.class)
+                .properties("server.port=0", "users.create-batching.enabled=" + grouped)
+                .run()) {
+            try {
+                String baseUrl = "http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort();
+                HttpClient client = HttpClient.newBuilder()
+                        .version(HttpClient.Version.HTTP_1_1)
+                        .executor(clientExecutor)
+                        .build();
+                UserWorkload workload = new UserWorkload(baseUrl, settings.mix(), objectMapper);
+                workload.seed(client, settings.users());
+
+                LoadGenerator generator = new LoadGenerator(client, workload, settings);
+                generator.run(settings.warmup());
+                Instant startedAt = Instant.now();
+                LoadReport report = LoadReport.of(settings, startedAt, settings.duration(),
+                        generator.run(settings.duration()));
+                report.write(reportPath, objectMapper);
+                log.info("{} creates, report written to {}{}{}", mode, reportPath, System.lineSeparator(), report.table());
+
+                assertTrue(report.total().requests() > 0, "No request completed");
+                assertEquals(0, report.total().errors(), mode + " creates failed");
+                assertEquals(Map.of("409", report.operations().get(Operation.CONFLICT).requests()),
+                        report.operations().get(Operation.CONFLICT).statuses());
+            } finally {
+                context.getBean(UserRepository.class).deleteAllInBatch();
+            }
+        } finally {
+            clientExecutor.shutdownNow();
+        }
+    }
+}
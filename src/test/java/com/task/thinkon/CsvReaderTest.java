@@ -0,0 +1,37 @@
+package com.task.thinkon;
+
+import com.task.thinkon.service.importing.CsvReader;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class CsvReaderTest {
+
+    @Test
+    void testReadRecord_PlainAndQuotedFields() throws IOException {
+        CsvReader reader = new CsvReader(new StringReader(
+                "username,email\r\n"
+                        + "john_doe,\"john, \"\"jd\"\" doe\"\n"
+                        + "\"multi\nline\",\n"
+                        + "last,row"));
+
+        assertEquals(List.of("username", "email"), reader.readRecord());
+        assertEquals(1, reader.getLineNumber());
+
+        assertEquals(List.of("john_doe", "john, \"jd\" doe"), reader.readRecord());
+        assertEquals(2, reader.getLineNumber());
+
+        assertEquals(List.of("multi\nline", ""), reader.readRecord());
+        assertEquals(3, reader.getLineNumber());
+
+        assertEquals(List.of("last", "row"), reader.readRecord());
+        assertEquals(5, reader.getLineNumber());
+
+        assertNull(reader.readRecord());
+    }
+}
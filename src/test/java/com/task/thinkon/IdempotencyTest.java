@@ -0,0 +1,166 @@
+package com.task.thinkon;
+
+import com.task.thinkon.config.IdempotencyProperties;
+import com.task.thinkon.exceptions.InvalidRequestException;
+import com.task.thinkon.exceptions.UniqueConstraintViolationException;
+import com.task.thinkon.repository.IdempotencyRecordRepository;
+import com.task.thinkon.repository.UserRepository;
+import com.task.thinkon.service.IdempotencyService;
+import com.task.thinkon.service.UserMetrics;
+import com.task.thinkon.service.UserService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:idempotencytest;DB_CLOSE_DELAY=-1")
+@ActiveProfiles("h2")
+@AutoConfigureMockMvc
+class IdempotencyTest {
+
+    private static final String BODY = """
+            {"username": "johndoe", "firstName": "John", "lastName": "Doe",
+             "email": "john.doe@example.com", "phoneNumber": "+123456789"}""";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @SpyBean
+    private UserService userService;
+
+    @Autowired
+    private IdempotencyService idempotencyService;
+
+    @Autowired
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserMetrics userMetrics;
+
+    @AfterEach
+    void tearDown() {
+        idempotencyRecordRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void testCreateUser_ReplaysOriginalResponse() throws Exception {
+        String key = UUID.randomUUID().toString();
+        String userId = mockMvc.perform(post("/users").header("Idempotency-Key", key)
+                        .contentType(MediaType.APPLICATION_JSON).content(BODY))
+                .andExpect(status().isCreated())
+                .andExpect(header().string("Idempotent-Replayed", "false"))
+                .andReturn().getResponse().getContentAsString();
+
+        mockMvc.perform(post("/users").header("Idempotency-Key", key)
+                        .contentType(MediaType.APPLICATION_JSON).content(BODY))
+                .andExpect(status().isCreated())
+                .andExpect(header().string("Idempotent-Replayed", "true"))
+                .andExpect(jsonPath("$.message").value("User created successfully"))
+                .andExpect(result -> assertEquals(userId, result.getResponse().getContentAsString()));
+
+        verify(userService, times(1)).createUser(any());
+        assertEquals(1, userRepository.count());
+    }
+
+    @Test
+    void testCreateUser_RejectsKeyReusedForDifferentRequest() throws Exception {
+        String key = UUID.randomUUID().toString();
+        mockMvc.perform(post("/users").header("Idempotency-Key", key)
+                        .contentType(MediaType.APPLICATION_JSON).content(BODY))
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(post("/users").header("Idempotency-Key", key)
+                        .contentType(MediaType.APPLICATION_JSON).content(BODY.replace("johndoe", "janedoe")))
+                .andExpect(status().isBadRequest());
+
+        verify(userService, times(1)).createUser(any());
+    }
+
+    @Test
+    void testCreateUser_ConcurrentDuplicatesWaitForFirst() throws Exception {
+        String key = UUID.randomUUID().toString();
+        int callers = 8;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+        try {
+            List<Future<IdempotencyService.Result>> results = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return idempotencyService.createUser(key, TestDataUtil.createUserDTO());
+                }));
+            }
+            start.countDown();
+
+            Set<UUID> userIds = new HashSet<>();
+            int created = 0;
+            for (Future<IdempotencyService.Result> result : results) {
+                userIds.add(result.get().userId());
+                created += result.get().replayed() ? 0 : 1;
+            }
+            assertEquals(1, userIds.size());
+            assertEquals(1, created);
+        } finally {
+            executor.shutdownNow();
+        }
+        verify(userService, times(1)).createUser(any());
+    }
+
+    @Test
+    void testCreateUser_ReplaysFromDatabaseOnAnotherInstance() {
+        String key = UUID.randomUUID().toString();
+        IdempotencyService.Result first = idempotencyService.createUser(key, TestDataUtil.createUserDTO());
+        IdempotencyService otherInstance = new IdempotencyService(idempotencyRecordRepository, userService,
+                userMetrics, new IdempotencyProperties(), new SimpleMeterRegistry());
+
+        IdempotencyService.Result retry = otherInstance.createUser(key, TestDataUtil.createUserDTO());
+
+        assertFalse(first.replayed());
+        assertTrue(retry.replayed());
+        assertEquals(first.userId(), retry.userId());
+        verify(userService, times(1)).createUser(any());
+        assertThrows(InvalidRequestException.class, () -> otherInstance.createUser(" ", TestDataUtil.createUserDTO()));
+    }
+
+    @Test
+    void testCreateUser_FailedRequestReleasesKey() {
+        String key = UUID.randomUUID().toString();
+        String otherKey = UUID.randomUUID().toString();
+        idempotencyService.createUser(key, TestDataUtil.createUserDTO());
+
+        assertThrows(UniqueConstraintViolationException.class, () -> idempotencyService.createUser(otherKey, TestDataUtil.createUserDTO()));
+        assertFalse(idempotencyRecordRepository.existsById(otherKey));
+    }
+}
@@ -0,0 +1,237 @@
+package com.task.thinkon;
+
+import com.task.thinkon.config.ReactiveApiServer;
+import com.task.thinkon.dto.CreateUserDTO;
+import com.task.thinkon.dto.UserDTO;
+import com.task.thinkon.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {
+        "users.v2.enabled=true",
+        "users.v2.port=0",
+        "spring.datasource.url=jdbc:h2:mem:v2test;DB_CLOSE_DELAY=-1",
+        "spring.r2dbc.url=r2dbc:h2:mem:///v2test",
+        "spring.r2dbc.username=sa"
+})
+@ActiveProfiles("h2")
+class ReactiveUserApiTest {
+
+    @Autowired
+    private ReactiveApiServer reactiveApiServer;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private WebTestClient client;
+
+    @BeforeEach
+    void setUp() {
+        client = WebTestClient.bindToServer()
+                .baseUrl("http://localhost:" + reactiveApiServer.getPort() + "/v2/users")
+                .build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        userRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void testCreateAndGetUser() {
+        UUID id = create(TestDataUtil.createUserDTO());
+
+        client.get().uri("/{id}", id)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "\"0\"")
+                .expectBody()
+                .jsonPath("$.message").isEqualTo("User retrieved successfully")
+                .jsonPath("$.data.email").isEqualTo("johnny.doe@example.com")
+                .jsonPath("$.data.version").isEqualTo(0);
+
+        client.get().uri("/{id}", id)
+                .header(HttpHeaders.IF_NONE_MATCH, "\"0\"")
+                .exchange()
+                .expectStatus().isNotModified();
+    }
+
+    @Test
+    void testCreateUser_Conflict() {
+        create(TestDataUtil.createUserDTO());
+
+        client.post()
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(TestDataUtil.createUserDTO())
+                .exchange()
+                .expectStatus().isEqualTo(409)
+                .expectBody()
+                .jsonPath("$.status").isEqualTo(409)
+                .jsonPath("$.message").value(message -> assertTrue(message.toString().contains("email: Email is already in use")));
+    }
+
+    @Test
+    void testCreateUser_ValidationFailed() {
+        CreateUserDTO createUserDTO = TestDataUtil.createUserDTO();
+        createUserDTO.setEmail("not-an-email");
+
+        client.post()
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(createUserDTO)
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.message").isEqualTo("Validation failed")
+                .jsonPath("$.data.email").exists();
+    }
+
+    @Test
+    void testCreateUser_MalformedBody() {
+        client.post()
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"username\": ")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.status").isEqualTo(400)
+                .jsonPath("$.message").isEqualTo("Malformed JSON request");
+    }
+
+    @Test
+    void testCreateUser_UnsupportedMediaType() {
+        client.post()
+                .contentType(MediaType.TEXT_PLAIN)
+                .bodyValue("john_doe")
+                .exchange()
+                .expectStatus().isEqualTo(415)
+                .expectBody()
+                .jsonPath("$.status").isEqualTo(415)
+                .jsonPath("$.message").value(message -> assertTrue(message.toString().startsWith("Unsupported media type: ")));
+        assertEquals(0, userRepository.count());
+    }
+
+    @Test
+    void testGetUserById_NotFound() {
+        client.get().uri("/{id}", UUID.randomUUID())
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody()
+                .jsonPath("$.status").isEqualTo(404);
+    }
+
+    @Test
+    void testPatchAndUpdateUser() {
+        UUID id = create(TestDataUtil.createUserDTO());
+
+        client.patch().uri("/{id}", id)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Map.of("firstName", "Jane"))
+                .exchange()
+                .expectStatus().isEqualTo(428);
+
+        client.patch().uri("/{id}", id)
+                .header(HttpHeaders.IF_MATCH, "\"0\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Map.of("firstName", "Jane"))
+                .exchange()
+                .expectStatus().isNoContent()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "\"1\"");
+
+        CreateUserDTO replacement = TestDataUtil.createUserDTO();
+        replacement.setLastName("Roe");
+        client.put().uri("/{id}", id)
+                .header(HttpHeaders.IF_MATCH, "\"0\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(replacement)
+                .exchange()
+                .expectStatus().isEqualTo(412);
+
+        client.put().uri("/{id}", id)
+                .header(HttpHeaders.IF_MATCH, "\"1\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(replacement)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "\"2\"")
+                .expectBody()
+                .jsonPath("$.data.firstName").isEqualTo("Johnny")
+                .jsonPath("$.data.lastName").isEqualTo("Roe");
+    }
+
+    @Test
+    void testListAndExportUsers() {
+        for (int i = 0; i < 3; i++) {
+            create(TestDataUtil.createUserDTO(i));
+        }
+
+        client.get().uri("?limit=2")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.data.items.length()").isEqualTo(2)
+                .jsonPath("$.data.nextCursor").isNotEmpty();
+
+        List<UserDTO> exported = client.get().uri("/export")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .returnResult(UserDTO.class)
+                .getResponseBody()
+                .collectList()
+                .block();
+        assertEquals(3, Objects.requireNonNull(exported).size());
+    }
+
+    @Test
+    void testDeleteUsers() {
+        UUID first = create(TestDataUtil.createUserDTO(0));
+        UUID second = create(TestDataUtil.createUserDTO(1));
+        UUID missing = UUID.randomUUID();
+
+        client.delete().uri("/{id}", first)
+                .exchange()
+                .expectStatus().isNoContent();
+
+        client.method(HttpMethod.DELETE)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(List.of(first, second, missing))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.data.deleted").isEqualTo(1)
+                .jsonPath("$.data.notFound.length()").isEqualTo(2);
+
+        assertEquals(0, userRepository.count());
+    }
+
+    private UUID create(CreateUserDTO createUserDTO) {
+        String id = client.post()
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(createUserDTO)
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody(Map.class)
+                .returnResult()
+                .getResponseBody()
+                .get("data")
+                .toString();
+        return UUID.fromString(id);
+    }
+}
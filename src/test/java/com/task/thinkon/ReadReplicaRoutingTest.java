@@ -0,0 +1,129 @@
+package com.task.thinkon;
+
+import com.task.thinkon.config.ReadReplicaProperties;
+import com.task.thinkon.config.ReadReplicaRoutingDataSource;
+import com.task.thinkon.dto.UserDTO;
+import com.task.thinkon.exceptions.EntityNotFoundException;
+import com.task.thinkon.repository.UserRepository;
+import com.task.thinkon.service.UserService;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.sql.Connection;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Runs against two in-memory H2 replicas that are not replicated: each test copies the schema of the primary and
+ * writes rows to the replicas directly, so that the database a read went to can be told from its result.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:routingprimary;DB_CLOSE_DELAY=-1",
+        "users.cache.enabled=true",
+        "users.read-replicas.enabled=true",
+        "users.read-replicas.replicas[0].url=jdbc:h2:mem:routingreplica0;DB_CLOSE_DELAY=-1",
+        "users.read-replicas.replicas[1].url=jdbc:h2:mem:routingreplica1;DB_CLOSE_DELAY=-1"
+})
+@ActiveProfiles("h2")
+class ReadReplicaRoutingTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private HikariDataSource primaryDataSource;
+
+    @Autowired
+    private ReadReplicaRoutingDataSource readReplicaRoutingDataSource;
+
+    @Autowired
+    private ReadReplicaProperties readReplicaProperties;
+
+    private final List<JdbcTemplate> replicas = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        List<String> schema = new JdbcTemplate(primaryDataSource).queryForList("SCRIPT NODATA", String.class);
+        for (int i = 0; i < 2; i++) {
+            JdbcTemplate replica = new JdbcTemplate((HikariDataSource) readReplicaRoutingDataSource.getResolvedDataSources().get(i));
+            replica.execute("DROP ALL OBJECTS");
+            schema.forEach(replica::execute);
+            replica.update("INSERT INTO users (id, username, first_name, last_name, email, phone_number, version) "
+                    + "VALUES (?, ?, 'Replica', 'User', ?, ?, 0)", UUID.randomUUID(), "replica" + i,
+                    "replica" + i + "@example.com", "+200" + i);
+            replicas.add(replica);
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        readReplicaProperties.setSelection(ReadReplicaProperties.Selection.ROUND_ROBIN);
+        readReplicaProperties.setReadYourWritesWindow(Duration.ZERO);
+        userRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void testReadsGoToReplicasInTurnAndWritesToPrimary() {
+        UUID userId = userService.createUser(TestDataUtil.createUserDTO());
+
+        Set<String> usernames = Set.of(firstUsername(), firstUsername());
+        assertEquals(Set.of("replica0", "replica1"), usernames);
+        assertThrows(EntityNotFoundException.class, () -> userService.getUserById(userId, Set.of("username")));
+        assertEquals(userId, userRepository.findById(userId).orElseThrow().getId());
+    }
+
+    @Test
+    void testCacheIsNotFilledFromStaleReplica() {
+        UUID userId = userService.createUser(TestDataUtil.createUserDTO());
+        // The replicas still hold the user as it was before it was deleted
+        replicas.forEach(replica -> replica.update("INSERT INTO users (id, username, first_name, last_name, email, "
+                + "phone_number, version) VALUES (?, 'stale', 'Stale', 'User', 'stale@example.com', '+3000', 0)", userId));
+        assertEquals("john_doe", userService.getUserById(userId).getUsername());
+
+        userService.deleteUser(userId);
+
+        assertThrows(EntityNotFoundException.class, () -> userService.getUserById(userId));
+        assertThrows(EntityNotFoundException.class, () -> userService.getUserById(userId));
+        assertEquals("stale", userService.getUserById(userId, Set.of("username")).getUsername());
+    }
+
+    @Test
+    void testLeastLoadedSkipsBusyReplica() throws Exception {
+        readReplicaProperties.setSelection(ReadReplicaProperties.Selection.LEAST_LOADED);
+
+        try (Connection busy = replicas.get(0).getDataSource().getConnection()) {
+            for (int i = 0; i < 4; i++) {
+                assertEquals("replica1", firstUsername());
+            }
+        }
+    }
+
+    @Test
+    void testReadYourWritesWindowKeepsReadsOnPrimary() {
+        readReplicaProperties.setReadYourWritesWindow(Duration.ofMinutes(1));
+
+        UUID userId = userService.createUser(TestDataUtil.createUserDTO());
+
+        UserDTO user = userService.getUserById(userId);
+        assertEquals("john_doe", user.getUsername());
+    }
+
+    private String firstUsername() {
+        return userService.getAllUsers(1, null).getItems().get(0).getUsername();
+    }
+}
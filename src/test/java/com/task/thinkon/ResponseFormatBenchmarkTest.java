@@ -0,0 +1,135 @@
+package com.task.thinkon;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.task.thinkon.dto.ApiResponse;
+import com.task.thinkon.dto.ApiResponseProtobuf;
+import com.task.thinkon.dto.PageDTO;
+import com.task.thinkon.dto.UserDTO;
+import lombok.extern.slf4j.Slf4j;
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Bytes on the wire and encode/decode time of a {@code GET /users} page in every format the API negotiates, without
+ * a server. Run with {@code mvn test -Pbenchmark -Dtest=ResponseFormatBenchmarkTest}.
+ * <p>
+ * Encoding writes the {@code ApiResponse} envelope the way the message converters do. Decoding reads it back into
+ * {@link UserDTO}s, as a Java client of the API would.
+ */
+@Slf4j
+@Tag("benchmark")
+class ResponseFormatBenchmarkTest {
+
+    private static final int[] PAGE_SIZES = {50, 500};
+    private static final int ITERATIONS = 5_000;
+
+    @Test
+    void measureSizeAndCodecTime() throws IOException {
+        List<Format> formats = List.of(
+                jackson("json", Jackson2ObjectMapperBuilder.json().build()),
+                jackson("cbor", Jackson2ObjectMapperBuilder.json().factory(new CBORFactory()).build()),
+                jackson("smile", Jackson2ObjectMapperBuilder.json().factory(new SmileFactory()).build()),
+                new Format("protobuf", response -> {
+                    ByteArrayOutputStream out = new ByteArrayOutputStream();
+                    ApiResponseProtobuf.write(response, out);
+                    return out.toByteArray();
+                }, bytes -> ((PageDTO<?>) ApiResponseProtobuf.read(new ByteArrayInputStream(bytes)).getData()).getItems().size()));
+
+        for (int pageSize : PAGE_SIZES) {
+            ApiResponse<PageDTO<UserDTO>> response = page(pageSize);
+            StringBuilder table = new StringBuilder(String.format("%-9s %9s %9s %12s %12s %12s %12s%n", "format",
+                    "bytes", "gzip", "encode p50", "encode p99", "decode p50", "decode p99"));
+
+            for (Format format : formats) {
+                byte[] bytes = format.encoder().encode(response);
+                assertEquals(pageSize, format.decoder().decode(bytes), format.name());
+
+                Histogram encode = new Histogram(TimeUnit.SECONDS.toNanos(1), 3);
+                Histogram decode = new Histogram(TimeUnit.SECONDS.toNanos(1), 3);
+                // The first round warms up the codec
+                for (int round = 0; round < 2; round++) {
+                    encode.reset();
+                    decode.reset();
+                    for (int i = 0; i < ITERATIONS; i++) {
+                        long start = System.nanoTime();
+                        format.encoder().encode(response);
+                        encode.recordValue(System.nanoTime() - start);
+
+                        start = System.nanoTime();
+                        format.decoder().decode(bytes);
+                        decode.recordValue(System.nanoTime() - start);
+                    }
+                }
+
+                table.append(String.format("%-9s %9d %9d %9.1f us %9.1f us %9.1f us %9.1f us%n", format.name(),
+                        bytes.length, gzip(bytes).length,
+                        encode.getValueAtPercentile(50) / 1000.0, encode.getValueAtPercentile(99) / 1000.0,
+                        decode.getValueAtPercentile(50) / 1000.0, decode.getValueAtPercentile(99) / 1000.0));
+            }
+            log.info("{} users per page{}{}", pageSize, System.lineSeparator(), table);
+        }
+    }
+
+    private static Format jackson(String name, ObjectMapper mapper) {
+        return new Format(name, mapper::writeValueAsBytes, bytes -> mapper.readValue(bytes, Envelope.class).data().items().size());
+    }
+
+    private static ApiResponse<PageDTO<UserDTO>> page(int size) {
+        List<UserDTO> users = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            UserDTO user = new UserDTO();
+            user.setId(UUID.randomUUID());
+            user.setUsername("user" + i);
+            user.setFirstName("John");
+            user.setLastName("Doe");
+            user.setEmail("user" + i + "@example.com");
+            user.setPhoneNumber("+1555" + i);
+            user.setVersion((long) i % 5);
+            users.add(user);
+        }
+        return new ApiResponse<>(200, "Users retrieved successfully", new PageDTO<>(users, "gMU9uUAvTXiNyJlQ-vhRUw"));
+    }
+
+    private static byte[] gzip(byte[] bytes) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(bytes);
+        }
+        return out.toByteArray();
+    }
+
+    private record Format(String name, Encoder encoder, Decoder decoder) {
+    }
+
+    private interface Encoder {
+        byte[] encode(ApiResponse<PageDTO<UserDTO>> response) throws IOException;
+    }
+
+    /**
+     * Decodes a response and returns the number of users it holds.
+     */
+    private interface Decoder {
+        int decode(byte[] bytes) throws IOException;
+    }
+
+    private record Envelope(int status, String message, Page data) {
+    }
+
+    private record Page(List<UserDTO> items, String nextCursor) {
+    }
+}
@@ -20,6 +20,20 @@ public class TestDataUtil {
         return existingUser;
     }
 
+    public static User createUser(String username, String firstName, String lastName, String email, String phoneNumber) {
+        User user = new User();
+        user.setUsername(username);
+        user.setFirstName(firstName);
+        user.setLastName(lastName);
+        user.setEmail(email);
+        user.setPhoneNumber(phoneNumber);
+        return user;
+    }
+
+    public static User createUser(int n) {
+        return createUser("user" + n, "First" + n, "Last" + n, "user" + n + "@example.com", "+1000" + n);
+    }
+
     public static CreateUserDTO createUserDTO() {
         CreateUserDTO updateUserDTO = new CreateUserDTO();
         updateUserDTO.setUsername("john_doe");
@@ -29,4 +43,14 @@ public class TestDataUtil {
         updateUserDTO.setPhoneNumber("+123456789");
         return updateUserDTO;
     }
+
+    public static CreateUserDTO createUserDTO(int n) {
+        CreateUserDTO createUserDTO = new CreateUserDTO();
+        createUserDTO.setUsername("user" + n);
+        createUserDTO.setFirstName("First" + n);
+        createUserDTO.setLastName("Last" + n);
+        createUserDTO.setEmail("user" + n + "@example.com");
+        createUserDTO.setPhoneNumber("+1000" + n);
+        return createUserDTO;
+    }
 }
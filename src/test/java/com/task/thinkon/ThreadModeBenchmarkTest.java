@@ -0,0 +1,130 @@
+package com.task.thinkon;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.task.thinkon.loadtest.LoadGenerator;
+import com.task.thinkon.loadtest.LoadReport;
+import com.task.thinkon.loadtest.LoadTestSettings;
+import com.task.thinkon.loadtest.Operation;
+import com.task.thinkon.loadtest.UserWorkload;
+import com.task.thinkon.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.net.http.HttpClient;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compares request execution on Tomcat's platform-thread pool with virtual threads behind the pool-sized concurrency
+ * limit, at {@value #CONCURRENCY} requests in flight against {@code GET /users/{id}}. Each mode runs in its own
+ * application context on a random port, against the database of the active profile, and is driven by the
+ * {@link LoadGenerator} in the closed model. Run with {@code mvn test -Pbenchmark}; the virtual-thread run needs a
+ * JDK 21 and {@code -Pjdk21}, and is skipped otherwise. The report of each mode is written to
+ * {@code target/benchmark/thread-mode-<mode>.json}.
+ * <p>
+ * Memory per in-flight request is the growth of the resident set size under load divided by the requests in flight.
+ * The load generator shares the JVM, so the figure is only meaningful relative to the other mode.
+ */
+@Slf4j
+@Tag("benchmark")
+class ThreadModeBenchmarkTest {
+
+    private static final int CONCURRENCY = 1000;
+    private static final int USERS = 1000;
+    private static final Duration WARMUP = Duration.ofSeconds(5);
+    private static final Duration MEASUREMENT = Duration.ofSeconds(20);
+
+    @Test
+    void comparePlatformAndVirtualThreads() throws Exception {
+        run(false);
+        if (Runtime.version().feature() >= 21) {
+            run(true);
+        } else {
+            log.info("virtual threads skipped, they need a JDK 21 and -Pjdk21");
+        }
+    }
+
+    private void run(boolean virtualThreads) throws Exception {
+        String mode = virtualThreads ? "virtual" : "platform";
+        Path reportPath = Path.of("target", "benchmark", "thread-mode-" + mode + ".json");
+        LoadTestSettings settings = new LoadTestSettings(LoadTestSettings.Model.CLOSED, null, CONCURRENCY, WARMUP,
+                MEASUREMENT, Map.of(Operation.GET, 1), USERS, null, reportPath.toString());
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+        ExecutorService clientExecutor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(ThinkOnAssigmentApplication.class)
+                .properties("server.port=0",
+                        "users.cache.enabled=false",
+                        "spring.threads.virtual.enabled=" + virtualThreads,
+                        "users.concurrency-limit.enabled=" + virtualThreads)
+                .run()) {
+            try {
+                String baseUrl = "http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort();
+                HttpClient client = HttpClient.newBuilder()
+                        .version(HttpClient.Version.HTTP_1_1)
+                        .executor(clientExecutor)
+                        .build();
+                UserWorkload workload = new UserWorkload(baseUrl, settings.mix(), objectMapper);
+                workload.seed(client, settings.users());
+
+                LoadGenerator generator = new LoadGenerator(client, workload, settings);
+                generator.run(settings.warmup());
+                long idleRss = residentSetKb();
+                ManagementFactory.getThreadMXBean().resetPeakThreadCount();
+                Instant startedAt = Instant.now();
+                CompletableFuture<Map<Operation, LoadGenerator.Stats>> stats = CompletableFuture.supplyAsync(() -> {
+                    try {
+                        return generator.run(settings.duration());
+                    } catch (Exception ex) {
+                        throw new IllegalStateException(ex);
+                    }
+                });
+                long peakRss = 0;
+                while (!stats.isDone()) {
+                    peakRss = Math.max(peakRss, residentSetKb());
+                    Thread.sleep(200);
+                }
+
+                LoadReport report = LoadReport.of(settings, startedAt, settings.duration(), stats.get());
+                report.write(reportPath, objectMapper);
+                log.info("{} threads: {} KB per request in flight, {} threads at peak, report written to {}{}{}", mode,
+                        String.format("%.1f", (double) (peakRss - idleRss) / CONCURRENCY),
+                        ManagementFactory.getThreadMXBean().getPeakThreadCount(), reportPath, System.lineSeparator(),
+                        report.table());
+
+                assertTrue(report.total().requests() > 0, "No request completed");
+            } finally {
+                context.getBean(UserRepository.class).deleteAllInBatch();
+            }
+        } finally {
+            clientExecutor.shutdownNow();
+        }
+    }
+
+    private static long residentSetKb() throws IOException {
+        Path status = Path.of("/proc/self/status");
+        if (!Files.exists(status)) {
+            return Runtime.getRuntime().totalMemory() / 1024;
+        }
+        return Files.readAllLines(status).stream()
+                .filter(line -> line.startsWith("VmRSS:"))
+                .map(line -> Long.parseLong(line.replaceAll("\\D", "")))
+                .findFirst()
+                .orElse(0L);
+    }
+}
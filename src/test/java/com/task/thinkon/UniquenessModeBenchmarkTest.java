@@ -0,0 +1,116 @@
+package com.task.thinkon;
+
+import com.task.thinkon.config.UserUniquenessProperties;
+import com.task.thinkon.config.UserUniquenessProperties.Mode;
+import com.task.thinkon.dto.CreateUserDTO;
+import com.task.thinkon.exceptions.UniqueConstraintViolationException;
+import com.task.thinkon.repository.UserRepository;
+import com.task.thinkon.service.UserService;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compares the throughput of {@code createUser} in the pre-check and optimistic uniqueness modes against the database
+ * of the active profile. Run with {@code mvn test -Pbenchmark}, see the README.
+ */
+@Slf4j
+@Tag("benchmark")
+@SpringBootTest
+class UniquenessModeBenchmarkTest {
+
+    private static final int THREADS = 8;
+    private static final int WARMUP_USERS = 2_000;
+    private static final int MEASURED_USERS = 10_000;
+    private static final int DUPLICATE_EVERY = 10;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserUniquenessProperties userUniquenessProperties;
+
+    @AfterEach
+    void tearDown() {
+        userUniquenessProperties.setMode(Mode.PRE_CHECK);
+        userRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void compareModes() throws Exception {
+        for (Mode mode : Mode.values()) {
+            run(mode, "warmup-" + mode, WARMUP_USERS);
+        }
+
+        StringBuilder table = new StringBuilder(String.format("%-10s %12s %12s %10s%n",
+                "mode", "users/s", "created", "conflicts"));
+        for (Mode mode : Mode.values()) {
+            Result result = run(mode, "run-" + mode, MEASURED_USERS);
+            table.append(String.format("%-10s %12.0f %12d %10d%n",
+                    mode, result.throughput(), result.created(), result.conflicts()));
+
+            assertEquals(MEASURED_USERS / DUPLICATE_EVERY, result.conflicts());
+        }
+        log.info("createUser by uniqueness mode{}{}", System.lineSeparator(), table);
+    }
+
+    /**
+     * Creates {@code count} users from {@value #THREADS} threads on an empty table. Every
+     * {@value #DUPLICATE_EVERY}th user reuses the email of the previous one, so the conflict path is measured too.
+     */
+    private Result run(Mode mode, String prefix, int count) throws Exception {
+        userRepository.deleteAllInBatch();
+        userUniquenessProperties.setMode(mode);
+
+        AtomicInteger created = new AtomicInteger();
+        AtomicInteger conflicts = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            long start = System.nanoTime();
+            List<Future<?>> pending = new ArrayList<>();
+            for (int batch = 0; batch < count; batch += DUPLICATE_EVERY) {
+                int first = batch;
+                pending.add(executor.submit(() -> {
+                    for (int i = first; i < first + DUPLICATE_EVERY; i++) {
+                        String email = prefix + "-" + (i % DUPLICATE_EVERY == DUPLICATE_EVERY - 1 ? i - 1 : i) + "@example.com";
+                        try {
+                            CreateUserDTO user = TestDataUtil.createUserDTO(i);
+                            user.setUsername(prefix + "-" + i);
+                            user.setEmail(email);
+                            userService.createUser(user);
+                            created.incrementAndGet();
+                        } catch (UniqueConstraintViolationException ex) {
+                            conflicts.incrementAndGet();
+                        }
+                    }
+                }));
+            }
+            for (Future<?> future : pending) {
+                future.get();
+            }
+
+            double seconds = (System.nanoTime() - start) / 1e9;
+            return new Result(count / seconds, created.get(), conflicts.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private record Result(double throughput, int created, int conflicts) {
+    }
+}
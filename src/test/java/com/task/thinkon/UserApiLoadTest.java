@@ -0,0 +1,79 @@
+package com.task.thinkon;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.task.thinkon.loadtest.LoadGenerator;
+import com.task.thinkon.loadtest.LoadReport;
+import com.task.thinkon.loadtest.LoadTestSettings;
+import com.task.thinkon.loadtest.Operation;
+import com.task.thinkon.loadtest.UserWorkload;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.net.http.HttpClient;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Drives a mix of create, get, update, delete and list requests against {@code /users} and writes a JSON report with
+ * the latency distribution of every operation. The application runs in-process on a random port, against the database
+ * of the active profile, unless {@code loadtest.base-url} points to a running one. Run with
+ * {@code mvn test -Pbenchmark -Dtest=UserApiLoadTest}; the {@code loadtest.*} parameters are described by
+ * {@link LoadTestSettings}.
+ */
+@Slf4j
+@Tag("benchmark")
+class UserApiLoadTest {
+
+    @Test
+    void runLoadTest() throws Exception {
+        LoadTestSettings settings = LoadTestSettings.fromSystemProperties();
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+        ConfigurableApplicationContext context = null;
+        ExecutorService clientExecutor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+        try {
+            String baseUrl = settings.baseUrl();
+            if (Objects.isNull(baseUrl)) {
+                context = new SpringApplicationBuilder(ThinkOnAssigmentApplication.class)
+                        .properties("server.port=0")
+                        .run();
+                baseUrl = "http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort();
+            }
+
+            HttpClient client = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .executor(clientExecutor)
+                    .build();
+            UserWorkload workload = new UserWorkload(baseUrl, settings.mix(), objectMapper);
+            workload.seed(client, settings.users());
+
+            LoadGenerator generator = new LoadGenerator(client, workload, settings);
+            generator.run(settings.warmup());
+            Instant startedAt = Instant.now();
+            Map<Operation, LoadGenerator.Stats> stats = generator.run(settings.duration());
+
+            LoadReport report = LoadReport.of(settings, startedAt, settings.duration(), stats);
+            report.write(Path.of(settings.report()), objectMapper);
+            log.info("Report written to {}{}{}", settings.report(), System.lineSeparator(), report.table());
+
+            assertTrue(report.total().requests() > 0, "No request completed");
+        } finally {
+            clientExecutor.shutdownNow();
+            if (Objects.nonNull(context)) {
+                context.close();
+            }
+        }
+    }
+}
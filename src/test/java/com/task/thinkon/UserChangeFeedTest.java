@@ -0,0 +1,109 @@
+package com.task.thinkon;
+
+import com.task.thinkon.dto.BulkDeleteResultDTO;
+import com.task.thinkon.dto.ChangeFeedDTO;
+import com.task.thinkon.dto.PatchUserDTO;
+import com.task.thinkon.dto.UserChangeDTO;
+import com.task.thinkon.entities.UserChange;
+import com.task.thinkon.repository.UserChangeRepository;
+import com.task.thinkon.repository.UserRepository;
+import com.task.thinkon.service.UserChangeCompactor;
+import com.task.thinkon.service.UserService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:changefeedtest;DB_CLOSE_DELAY=-1")
+@ActiveProfiles("h2")
+class UserChangeFeedTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserChangeRepository userChangeRepository;
+
+    @Autowired
+    private UserChangeCompactor userChangeCompactor;
+
+    @AfterEach
+    void tearDown() {
+        userRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void testGetChanges_ReturnsWritesAfterToken() {
+        String since = userService.getChanges(null, UserService.MAX_PAGE_SIZE).getNextSince();
+        UUID keptId = userService.createUser(TestDataUtil.createUserDTO(0));
+        UUID deletedId = userService.createUser(TestDataUtil.createUserDTO(1));
+        PatchUserDTO patch = new PatchUserDTO();
+        patch.setFirstName("Renamed");
+        userService.patchUser(keptId, patch, 0);
+        userService.deleteUser(deletedId);
+
+        ChangeFeedDTO feed = userService.getChanges(since, 50);
+
+        assertEquals(List.of(keptId, deletedId), feed.getChanges().stream().map(UserChangeDTO::getId).toList());
+        assertEquals(UserChange.Type.UPDATED, feed.getChanges().get(0).getType());
+        assertEquals("Renamed", feed.getChanges().get(0).getUser().getFirstName());
+        assertEquals(UserChange.Type.DELETED, feed.getChanges().get(1).getType());
+        assertNull(feed.getChanges().get(1).getUser());
+        assertEquals(Long.parseLong(since) + 4, Long.parseLong(feed.getNextSince()));
+        assertFalse(feed.isHasMore());
+        assertEquals(List.of(), userService.getChanges(feed.getNextSince(), 50).getChanges());
+    }
+
+    @Test
+    void testCompact_KeepsLatestEntryOfEachUser() {
+        UUID userId = userService.createUser(TestDataUtil.createUserDTO(2));
+        userService.updateUser(userId, TestDataUtil.createUserDTO(3));
+        userService.deleteUser(userId);
+
+        userChangeCompactor.compact();
+
+        List<UserChange> entries = userChangeRepository.findAll().stream()
+                .filter(entry -> entry.getUserId().equals(userId))
+                .toList();
+        assertEquals(1, entries.size());
+        assertEquals(UserChange.Type.DELETED, entries.get(0).getType());
+    }
+
+    @Test
+    void testConcurrentBulkDeletes_RecordEachUserOnce() throws Exception {
+        List<UUID> ids = IntStream.range(10, 60).mapToObj(n -> userService.createUser(TestDataUtil.createUserDTO(n))).toList();
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<BulkDeleteResultDTO> first = executor.submit(() -> userService.deleteUsers(ids));
+            Future<BulkDeleteResultDTO> second = executor.submit(() -> userService.deleteUsers(ids));
+
+            assertEquals(ids.size(), first.get().getDeleted() + second.get().getDeleted());
+            assertEquals(ids.size(), first.get().getNotFound().size() + second.get().getNotFound().size());
+        } finally {
+            executor.shutdownNow();
+        }
+        List<UUID> tombstones = userChangeRepository.findAll().stream()
+                .filter(entry -> entry.getType() == UserChange.Type.DELETED && ids.contains(entry.getUserId()))
+                .map(UserChange::getUserId)
+                .toList();
+        assertEquals(ids.size(), tombstones.size());
+        assertEquals(Set.copyOf(ids), Set.copyOf(tombstones));
+    }
+}
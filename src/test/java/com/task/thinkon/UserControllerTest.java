@@ -1,9 +1,18 @@
 package com.task.thinkon;
 
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.task.thinkon.dto.ApiResponse;
+import com.task.thinkon.dto.ApiResponseProtobuf;
 import com.task.thinkon.dto.CreateUserDTO;
+import com.task.thinkon.dto.PageDTO;
+import com.task.thinkon.dto.PatchUserDTO;
 import com.task.thinkon.dto.UserDTO;
+import com.task.thinkon.dto.UserJson;
 import com.task.thinkon.exceptions.EntityNotFoundException;
+import com.task.thinkon.exceptions.PreconditionFailedException;
 import com.task.thinkon.exceptions.UniqueConstraintViolationException;
 import com.task.thinkon.service.UserService;
 import org.junit.jupiter.api.Test;
@@ -12,18 +21,27 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.io.ByteArrayInputStream;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -73,20 +91,85 @@ class UserControllerTest {
 
     @Test
     void testGetAllUsers_Success() throws Exception {
-        List<UserDTO> userList = new ArrayList<>();
+        List<UserJson> userList = new ArrayList<>();
         UserDTO userDTO = new UserDTO();
         userDTO.setId(TestDataUtil.FIXED_UUID);
         userDTO.setUsername("john_doe");
-        userList.add(userDTO);
+        userList.add(new UserJson(TestDataUtil.FIXED_UUID, 0, new SerializedString(objectMapper.writeValueAsString(userDTO))));
 
-        Mockito.when(userService.getAllUsers()).thenReturn(userList);
+        Mockito.when(userService.getAllUsersJson(50, null)).thenReturn(new PageDTO<>(userList, "next"));
 
         mockMvc.perform(get("/users"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.status").value(200))
                 .andExpect(jsonPath("$.message").value("Users retrieved successfully"))
-                .andExpect(jsonPath("$.data[0].id").value(TestDataUtil.FIXED_UUID))
-                .andExpect(jsonPath("$.data[0].username").value("john_doe"));
+                .andExpect(jsonPath("$.data.items[0].id").value(TestDataUtil.FIXED_UUID.toString()))
+                .andExpect(jsonPath("$.data.items[0].username").value("john_doe"))
+                .andExpect(jsonPath("$.data.nextCursor").value("next"));
+    }
+
+    @Test
+    void testGetAllUsers_Protobuf() throws Exception {
+        UserDTO userDTO = new UserDTO();
+        userDTO.setId(TestDataUtil.FIXED_UUID);
+        userDTO.setUsername("john_doe");
+        userDTO.setVersion(2L);
+
+        Mockito.when(userService.getAllUsers(50, null, null)).thenReturn(new PageDTO<>(List.of(userDTO), "next"));
+
+        MvcResult result = mockMvc.perform(get("/users").accept(ApiResponseProtobuf.MEDIA_TYPE))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(ApiResponseProtobuf.MEDIA_TYPE))
+                .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT))
+                .andExpect(header().string(HttpHeaders.ETAG, startsWith("W/\"")))
+                .andReturn();
+
+        ApiResponse<Object> response = ApiResponseProtobuf.read(new ByteArrayInputStream(result.getResponse().getContentAsByteArray()));
+        PageDTO<?> page = (PageDTO<?>) response.getData();
+        UserDTO user = (UserDTO) page.getItems().get(0);
+        assertEquals(200, response.getStatus());
+        assertEquals("next", page.getNextCursor());
+        assertEquals(TestDataUtil.FIXED_UUID, user.getId());
+        assertEquals("john_doe", user.getUsername());
+        assertEquals(2L, user.getVersion());
+        assertNull(user.getEmail());
+    }
+
+    @Test
+    void testGetUserById_Cbor() throws Exception {
+        UserDTO userDTO = new UserDTO();
+        userDTO.setId(TestDataUtil.FIXED_UUID);
+        userDTO.setUsername("john_doe");
+
+        Mockito.when(userService.getUserById(TestDataUtil.FIXED_UUID, null)).thenReturn(userDTO);
+
+        MvcResult result = mockMvc.perform(get("/users/" + TestDataUtil.FIXED_UUID).accept("application/cbor"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/cbor"))
+                .andReturn();
+
+        CBORMapper cborMapper = new CBORMapper();
+        JsonNode response = cborMapper.readTree(result.getResponse().getContentAsByteArray());
+        UserDTO user = cborMapper.treeToValue(response.get("data"), UserDTO.class);
+        assertEquals(200, response.get("status").asInt());
+        assertEquals(TestDataUtil.FIXED_UUID, user.getId());
+        assertEquals("john_doe", user.getUsername());
+    }
+
+    @Test
+    void testSuggestUsers_ProtobufNotAcceptable() throws Exception {
+        Mockito.when(userService.suggestUsers("jo", 10)).thenReturn(List.of());
+
+        mockMvc.perform(get("/users/suggest").param("q", "jo").accept(ApiResponseProtobuf.MEDIA_TYPE))
+                .andExpect(status().isNotAcceptable());
+    }
+
+    @Test
+    void testCreateUser_ProtobufBodyUnsupported() throws Exception {
+        mockMvc.perform(post("/users").contentType(ApiResponseProtobuf.MEDIA_TYPE).content(new byte[]{8, 1}))
+                .andExpect(status().isUnsupportedMediaType());
+
+        Mockito.verifyNoInteractions(userService);
     }
 
 
@@ -96,7 +179,7 @@ class UserControllerTest {
         userDTO.setId(TestDataUtil.FIXED_UUID);
         userDTO.setUsername("john_doe");
 
-        Mockito.when(userService.getUserById(TestDataUtil.FIXED_UUID)).thenReturn(userDTO);
+        Mockito.when(userService.getUserById(TestDataUtil.FIXED_UUID, null)).thenReturn(userDTO);
 
         mockMvc.perform(get("/users/1"))
                 .andExpect(status().isOk())
@@ -107,9 +190,84 @@ class UserControllerTest {
     }
 
 
+    @Test
+    void testGetUserById_NotModified() throws Exception {
+        UserDTO userDTO = new UserDTO();
+        userDTO.setId(TestDataUtil.FIXED_UUID);
+        userDTO.setVersion(3L);
+
+        Mockito.when(userService.getUserById(TestDataUtil.FIXED_UUID, null)).thenReturn(userDTO);
+
+        mockMvc.perform(get("/users/" + TestDataUtil.FIXED_UUID).header(HttpHeaders.IF_NONE_MATCH, "\"3\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"3\""))
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    void testGetUserById_TagNamesFormat() throws Exception {
+        UserDTO userDTO = new UserDTO();
+        userDTO.setId(TestDataUtil.FIXED_UUID);
+        userDTO.setVersion(3L);
+
+        Mockito.when(userService.getUserById(TestDataUtil.FIXED_UUID, null)).thenReturn(userDTO);
+
+        mockMvc.perform(get("/users/" + TestDataUtil.FIXED_UUID).accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andExpect(header().string(HttpHeaders.ETAG, "\"3-cbor\""));
+    }
+
+    @Test
+    void testUpdateUser_WeakIfMatch() throws Exception {
+        mockMvc.perform(put("/users/" + TestDataUtil.FIXED_UUID)
+                        .header(HttpHeaders.IF_MATCH, "W/\"2\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(TestDataUtil.createUserDTO())))
+                .andExpect(status().isPreconditionFailed())
+                .andExpect(jsonPath("$.status").value(412));
+
+        Mockito.verify(userService, Mockito.never()).updateUser(Mockito.any(), Mockito.any(), Mockito.any());
+    }
+
+    @Test
+    void testUpdateUser_IfMatchMismatch() throws Exception {
+        Mockito.when(userService.updateUser(Mockito.eq(TestDataUtil.FIXED_UUID), Mockito.any(CreateUserDTO.class), Mockito.eq(2L)))
+                .thenThrow(new PreconditionFailedException(TestDataUtil.FIXED_UUID));
+
+        mockMvc.perform(put("/users/" + TestDataUtil.FIXED_UUID)
+                        .header(HttpHeaders.IF_MATCH, "\"2\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(TestDataUtil.createUserDTO())))
+                .andExpect(status().isPreconditionFailed())
+                .andExpect(jsonPath("$.status").value(412));
+    }
+
+    @Test
+    void testPatchUser_RequiresIfMatch() throws Exception {
+        mockMvc.perform(patch("/users/" + TestDataUtil.FIXED_UUID)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"firstName\":\"Johnny\"}"))
+                .andExpect(status().isPreconditionRequired())
+                .andExpect(jsonPath("$.status").value(428));
+    }
+
+    @Test
+    void testPatchUser_Success() throws Exception {
+        Mockito.when(userService.patchUser(Mockito.eq(TestDataUtil.FIXED_UUID), Mockito.any(PatchUserDTO.class), Mockito.eq(3L)))
+                .thenReturn(4L);
+
+        mockMvc.perform(patch("/users/" + TestDataUtil.FIXED_UUID)
+                        .header(HttpHeaders.IF_MATCH, "\"3-cbor\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"firstName\":\"Johnny\"}"))
+                .andExpect(status().isNoContent())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"4\""));
+    }
+
     @Test
     void testGetUserById_NotFound() throws Exception {
-        Mockito.when(userService.getUserById(TestDataUtil.FIXED_UUID)).thenThrow(new EntityNotFoundException(TestDataUtil.FIXED_UUID));
+        Mockito.when(userService.getUserById(TestDataUtil.FIXED_UUID, null)).thenThrow(new EntityNotFoundException(TestDataUtil.FIXED_UUID));
 
         mockMvc.perform(get("/users/1"))
                 .andExpect(status().isNotFound())
@@ -125,7 +283,7 @@ class UserControllerTest {
         updatedUserDTO.setId(TestDataUtil.FIXED_UUID);
         updatedUserDTO.setUsername("john_doe");
 
-        Mockito.when(userService.updateUser(Mockito.eq(TestDataUtil.FIXED_UUID), Mockito.any(CreateUserDTO.class))).thenReturn(updatedUserDTO);
+        Mockito.when(userService.updateUser(Mockito.eq(TestDataUtil.FIXED_UUID), Mockito.any(CreateUserDTO.class), Mockito.isNull())).thenReturn(updatedUserDTO);
 
         mockMvc.perform(put("/users/1")
                         .contentType(MediaType.APPLICATION_JSON)
@@ -141,7 +299,7 @@ class UserControllerTest {
     void testUpdateUser_EmailAlreadyExists() throws Exception {
         CreateUserDTO updateUserDTO = TestDataUtil.createUserDTO();
 
-        Mockito.when(userService.updateUser(Mockito.eq(TestDataUtil.FIXED_UUID), Mockito.any(CreateUserDTO.class)))
+        Mockito.when(userService.updateUser(Mockito.eq(TestDataUtil.FIXED_UUID), Mockito.any(CreateUserDTO.class), Mockito.isNull()))
                 .thenThrow(new UniqueConstraintViolationException(Map.of("email", "Email is already in use")));
 
         mockMvc.perform(put("/users/1")
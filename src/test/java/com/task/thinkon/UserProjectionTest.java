@@ -0,0 +1,100 @@
+package com.task.thinkon;
+
+import com.task.thinkon.dto.PageDTO;
+import com.task.thinkon.dto.UserDTO;
+import com.task.thinkon.entities.User;
+import com.task.thinkon.exceptions.EntityNotFoundException;
+import com.task.thinkon.exceptions.InvalidRequestException;
+import com.task.thinkon.repository.UserRepository;
+import com.task.thinkon.service.UserFields;
+import com.task.thinkon.service.UserService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:projectiontest;DB_CLOSE_DELAY=-1")
+@ActiveProfiles("h2")
+class UserProjectionTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @AfterEach
+    void tearDown() {
+        userRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void testGetUserById_ReadsOnlyRequestedFields() {
+        User saved = userRepository.save(TestDataUtil.createUser(0));
+
+        UserDTO user = userService.getUserById(saved.getId(), UserFields.parse("username, email"));
+
+        assertEquals(saved.getId(), user.getId());
+        assertEquals(0L, user.getVersion());
+        assertEquals("user0", user.getUsername());
+        assertEquals("user0@example.com", user.getEmail());
+        assertNull(user.getFirstName());
+        assertNull(user.getPhoneNumber());
+        assertThrows(EntityNotFoundException.class, () -> userService.getUserById(UUID.randomUUID(), Set.of("username")));
+    }
+
+    @Test
+    void testGetAllUsers_PagesProjectionByCursor() {
+        for (int i = 0; i < 5; i++) {
+            userRepository.save(TestDataUtil.createUser(i));
+        }
+
+        List<UserDTO> users = new ArrayList<>();
+        String cursor = null;
+        do {
+            PageDTO<UserDTO> page = userService.getAllUsers(2, cursor, Set.of("username"));
+            users.addAll(page.getItems());
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        assertEquals(5, users.size());
+        users.forEach(user -> {
+            assertNotNull(user.getId());
+            assertNotNull(user.getUsername());
+            assertNull(user.getLastName());
+        });
+    }
+
+    @Test
+    void testParseFields() {
+        assertNull(UserFields.parse(null));
+        assertEquals(List.of("id", "username"), List.copyOf(UserFields.parse("id,username,id")));
+        assertThrows(InvalidRequestException.class, () -> UserFields.parse("id,password"));
+        assertThrows(InvalidRequestException.class, () -> UserFields.parse(" , "));
+    }
+
+    @Test
+    void testRetainClearsOtherFields() {
+        UserDTO user = new UserDTO();
+        user.setId(UUID.randomUUID());
+        user.setUsername("user0");
+        user.setVersion(3L);
+
+        UserFields.retain(user, Set.of("username"));
+
+        assertNull(user.getId());
+        assertNull(user.getVersion());
+        assertEquals("user0", user.getUsername());
+    }
+}
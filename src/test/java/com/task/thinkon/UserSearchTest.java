@@ -0,0 +1,103 @@
+package com.task.thinkon;
+
+import com.task.thinkon.dto.PageDTO;
+import com.task.thinkon.dto.UserDTO;
+import com.task.thinkon.dto.UserSearchDTO;
+import com.task.thinkon.repository.UserRepository;
+import com.task.thinkon.service.UserService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:searchtest;DB_CLOSE_DELAY=-1")
+@ActiveProfiles("h2")
+class UserSearchTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @BeforeEach
+    void setUp() {
+        userRepository.saveAll(List.of(
+                TestDataUtil.createUser("alice_w", "Alice", "Walker", "alice@Example.com", "+15550001"),
+                TestDataUtil.createUser("alicia", "Alicia", "Wong", "alicia@other.org", "+15550002"),
+                TestDataUtil.createUser("bob_w", "Bob", "Walsh", "bob@example.com", "+44770003"),
+                TestDataUtil.createUser("al%", "Al", "Percent", "al@example.net", "+15550004")));
+    }
+
+    @AfterEach
+    void tearDown() {
+        userRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void testSearchUsers_PrefixFiltersIgnoreCase() {
+        UserSearchDTO filters = new UserSearchDTO();
+        filters.setFirstName("ALI");
+
+        assertEquals(List.of("alice_w", "alicia"), usernames(search(filters)));
+    }
+
+    @Test
+    void testSearchUsers_CombinesFilters() {
+        UserSearchDTO filters = new UserSearchDTO();
+        filters.setLastName("wal");
+        filters.setEmailDomain("example.com");
+        filters.setPhoneNumber("+1555");
+
+        assertEquals(List.of("alice_w"), usernames(search(filters)));
+    }
+
+    @Test
+    void testSearchUsers_EmailDomainMatchesWholeDomain() {
+        UserSearchDTO filters = new UserSearchDTO();
+        filters.setEmailDomain("EXAMPLE.com");
+
+        assertEquals(List.of("alice_w", "bob_w"), usernames(search(filters)));
+    }
+
+    @Test
+    void testSearchUsers_WildcardsMatchLiterally() {
+        UserSearchDTO filters = new UserSearchDTO();
+        filters.setUsername("al%");
+
+        assertEquals(List.of("al%"), usernames(search(filters)));
+    }
+
+    @Test
+    void testSearchUsers_PagesByCursor() {
+        UserSearchDTO filters = new UserSearchDTO();
+        filters.setPhoneNumber("+1555");
+
+        List<UserDTO> found = new ArrayList<>();
+        String cursor = null;
+        do {
+            PageDTO<UserDTO> page = userService.searchUsers(filters, 2, cursor);
+            found.addAll(page.getItems());
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        assertEquals(List.of("al%", "alice_w", "alicia"), usernames(found));
+        assertNull(userService.searchUsers(filters, 3, null).getNextCursor());
+    }
+
+    private List<UserDTO> search(UserSearchDTO filters) {
+        return userService.searchUsers(filters, 50, null).getItems();
+    }
+
+    private static List<String> usernames(List<UserDTO> users) {
+        return users.stream().map(UserDTO::getUsername).sorted().toList();
+    }
+}
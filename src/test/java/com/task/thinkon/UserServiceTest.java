@@ -1,29 +1,82 @@
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.task.thinkon.TestDataUtil;
+import com.task.thinkon.config.UserCacheProperties;
+import com.task.thinkon.config.UserCreateBatchingProperties;
+import com.task.thinkon.config.UserJsonCacheProperties;
+import com.task.thinkon.config.UserUniquenessProperties;
+import com.task.thinkon.dto.BatchItemResultDTO;
+import com.task.thinkon.dto.BulkDeleteResultDTO;
+import com.task.thinkon.dto.ChangeFeedDTO;
 import com.task.thinkon.dto.CreateUserDTO;
+import com.task.thinkon.dto.PageDTO;
+import com.task.thinkon.dto.PatchUserDTO;
 import com.task.thinkon.dto.UserDTO;
+import com.task.thinkon.dto.UserJson;
+import com.task.thinkon.dto.UserSuggestionDTO;
 import com.task.thinkon.entities.User;
+import com.task.thinkon.entities.UserChange;
 import com.task.thinkon.exceptions.EntityIsNullException;
 import com.task.thinkon.exceptions.EntityNotFoundException;
+import com.task.thinkon.exceptions.PreconditionFailedException;
 import com.task.thinkon.exceptions.UniqueConstraintViolationException;
+import com.task.thinkon.exceptions.InvalidRequestException;
+import com.task.thinkon.repository.UserChangeLog;
+import com.task.thinkon.repository.UserChangeRepository;
 import com.task.thinkon.repository.UserRepository;
+import com.task.thinkon.service.CursorCodec;
+import com.task.thinkon.service.UserCache;
+import com.task.thinkon.service.UserJsonCache;
+import com.task.thinkon.service.UserMetrics;
 import com.task.thinkon.service.UserService;
+import com.task.thinkon.service.UserSuggestionIndex;
+import com.task.thinkon.service.UserUniquenessIndex;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
-
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.Mockito.doNothing;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -35,6 +88,44 @@ class UserServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private UserChangeRepository userChangeRepository;
+
+    @Mock
+    private UserChangeLog userChangeLog;
+
+    @Spy
+    private TransactionTemplate transactionTemplate = new TransactionTemplate(mock(PlatformTransactionManager.class));
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Spy
+    private Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+
+    @Spy
+    private UserUniquenessIndex userUniquenessIndex = new UserUniquenessIndex(null, null, true);
+
+    @Spy
+    private UserSuggestionIndex userSuggestionIndex = new UserSuggestionIndex(null, null, true);
+
+    @Spy
+    private UserUniquenessProperties userUniquenessProperties = new UserUniquenessProperties();
+
+    @Spy
+    private UserCreateBatchingProperties userCreateBatchingProperties = new UserCreateBatchingProperties();
+
+    @Spy
+    private UserCache userCache = new UserCache(new UserCacheProperties(), new SimpleMeterRegistry());
+
+    @Spy
+    private UserJsonCache userJsonCache = new UserJsonCache(new UserJsonCacheProperties(), new ObjectMapper(), new SimpleMeterRegistry());
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Spy
+    private UserMetrics userMetrics = new UserMetrics(meterRegistry);
+
     @InjectMocks
     private UserService userService;
 
@@ -52,6 +143,71 @@ class UserServiceTest {
         verify(userRepository, times(1)).save(any(User.class));
     }
 
+    @Test
+    void testCreateUser_UniquenessIndexHit() {
+        CreateUserDTO createUserDTO = TestDataUtil.createUserDTO();
+        userUniquenessIndex.register(UUID.randomUUID(), createUserDTO.getEmail(), "someone_else", "+000");
+        doReturn(true).when(userUniquenessIndex).isActive();
+
+        UniqueConstraintViolationException exception = assertThrows(
+                UniqueConstraintViolationException.class,
+                () -> userService.createUser(createUserDTO)
+        );
+
+        assertEquals(Map.of("email", "Email is already in use"), exception.getErrors());
+        verify(userRepository, never()).findByEmailOrUsernameOrPhoneNumberAndIdNot(anyString(), anyString(), anyString(), any());
+        verify(userRepository, never()).save(any(User.class));
+    }
+
+    @Test
+    void testCreateUser_UniquenessIndexMissSkipsQuery() {
+        CreateUserDTO createUserDTO = TestDataUtil.createUserDTO();
+        User user = TestDataUtil.createUser();
+        doReturn(true).when(userUniquenessIndex).isActive();
+        when(userRepository.save(any(User.class))).thenReturn(user);
+
+        userService.createUser(createUserDTO);
+
+        verify(userRepository, never()).findByEmailOrUsernameOrPhoneNumberAndIdNot(anyString(), anyString(), anyString(), any());
+        assertEquals(Map.of("username", "Username is already in use"),
+                userUniquenessIndex.findConflicts(null, user.getUsername(), null, null));
+    }
+
+    @Test
+    void testCreateUser_OptimisticModeMapsViolatedConstraint() {
+        userUniquenessProperties.setMode(UserUniquenessProperties.Mode.OPTIMISTIC);
+        CreateUserDTO createUserDTO = TestDataUtil.createUserDTO();
+
+        when(userRepository.save(any(User.class))).thenThrow(new DataIntegrityViolationException("could not execute statement",
+                new ConstraintViolationException("duplicate key", new SQLException(), User.USERNAME_CONSTRAINT)));
+
+        UniqueConstraintViolationException exception = assertThrows(UniqueConstraintViolationException.class,
+                () -> userService.createUser(createUserDTO));
+
+        assertEquals(Map.of("username", "Username is already in use"), exception.getErrors());
+        verify(userRepository, never()).findByEmailOrUsernameOrPhoneNumberAndIdNot(any(), any(), any(), any());
+    }
+
+    @Test
+    void testCreateUser_UnknownConstraintFallsBackToQuery() {
+        userUniquenessProperties.setMode(UserUniquenessProperties.Mode.OPTIMISTIC);
+        CreateUserDTO createUserDTO = TestDataUtil.createUserDTO();
+
+        User conflictingUser = TestDataUtil.createUser();
+        conflictingUser.setId(UUID.randomUUID());
+        conflictingUser.setEmail(createUserDTO.getEmail());
+
+        when(userRepository.save(any(User.class))).thenThrow(new DataIntegrityViolationException("could not execute statement",
+                new ConstraintViolationException("duplicate key", new SQLException(), "ukr43af9ap4edm43mmtq01oddj6")));
+        when(userRepository.findByEmailOrUsernameOrPhoneNumberAndIdNot(createUserDTO.getEmail(), createUserDTO.getUsername(),
+                createUserDTO.getPhoneNumber(), null)).thenReturn(List.of(conflictingUser));
+
+        UniqueConstraintViolationException exception = assertThrows(UniqueConstraintViolationException.class,
+                () -> userService.createUser(createUserDTO));
+
+        assertTrue(exception.getErrors().containsKey("email"));
+    }
+
     @Test
     void testCreateUser_NullInput() {
         assertThrows(EntityIsNullException.class, () -> {
@@ -94,6 +250,157 @@ class UserServiceTest {
                 null
         );
         verify(userRepository, never()).save(any(User.class));
+        assertEquals(1, meterRegistry.get("users.service").tags("operation", "createUser", "outcome", "conflict").timer().count());
+        assertEquals(1.0, meterRegistry.get("users.outcomes").tags("operation", "createUser", "outcome", "conflict").counter().count());
+    }
+
+    @Test
+    void testCreateUsers_MixedResults() {
+        CreateUserDTO valid = TestDataUtil.createUserDTO();
+
+        CreateUserDTO invalid = TestDataUtil.createUserDTO();
+        invalid.setEmail("invalid-email");
+
+        CreateUserDTO duplicateInBatch = TestDataUtil.createUserDTO();
+        duplicateInBatch.setEmail("other@example.com");
+        duplicateInBatch.setPhoneNumber("+987654321");
+
+        CreateUserDTO existing = TestDataUtil.createUserDTO();
+        existing.setUsername("existing_user");
+        existing.setEmail("existing@example.com");
+        existing.setPhoneNumber("+111111111");
+
+        User existingUser = TestDataUtil.createUser();
+        existingUser.setId(UUID.randomUUID());
+        existingUser.setUsername("existing_user");
+        existingUser.setEmail("existing@example.com");
+        existingUser.setPhoneNumber("+111111111");
+
+        when(userRepository.findByEmailInOrUsernameInOrPhoneNumberIn(any(), any(), any())).thenReturn(List.of(existingUser));
+        when(userRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<User> users = invocation.getArgument(0);
+            users.forEach(user -> user.setId(TestDataUtil.FIXED_UUID));
+            return users;
+        });
+
+        List<BatchItemResultDTO> results = userService.createUsers(List.of(valid, invalid, duplicateInBatch, existing));
+
+        assertEquals(4, results.size());
+        assertEquals(TestDataUtil.FIXED_UUID, results.get(0).getId());
+        assertEquals("Email should be valid", results.get(1).getErrors().get("email"));
+        assertEquals("Username is duplicated within the batch", results.get(2).getErrors().get("username"));
+        assertEquals("Email is already in use", results.get(3).getErrors().get("email"));
+        verify(userRepository, times(1)).findByEmailInOrUsernameInOrPhoneNumberIn(any(), any(), any());
+        verify(userRepository, times(1)).saveAll(anyList());
+        assertEquals(1.0, meterRegistry.get("users.outcomes").tags("operation", "createUsers", "outcome", "created").counter().count());
+        assertEquals(1.0, meterRegistry.get("users.outcomes").tags("operation", "createUsers", "outcome", "validation-failed").counter().count());
+        assertEquals(2.0, meterRegistry.get("users.outcomes").tags("operation", "createUsers", "outcome", "conflict").counter().count());
+    }
+
+    @Test
+    void testCreateUsers_EmptyBatch() {
+        assertThrows(InvalidRequestException.class, () -> userService.createUsers(List.of()));
+    }
+
+    @Test
+    void testCreateUsers_IndexedWhenTransactionCommits() {
+        when(userRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<User> users = invocation.getArgument(0);
+            users.forEach(user -> user.setId(TestDataUtil.FIXED_UUID));
+            return users;
+        });
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            userService.createUsers(List.of(TestDataUtil.createUserDTO()));
+            verify(userUniquenessIndex, never()).register(any(), any(), any(), any());
+            verify(userSuggestionIndex, never()).register(any(), any(), any(), any(), any());
+
+            TransactionSynchronizationUtils.triggerAfterCommit();
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        verify(userUniquenessIndex, times(1)).register(TestDataUtil.FIXED_UUID, "johnny.doe@example.com", "john_doe", "+123456789");
+        verify(userSuggestionIndex, times(1)).register(TestDataUtil.FIXED_UUID, "john_doe", "Johnny", "Doe", "johnny.doe@example.com");
+    }
+
+    @Test
+    void testCreateUsers_NotIndexedWhenTransactionRollsBack() {
+        when(userRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<User> users = invocation.getArgument(0);
+            users.forEach(user -> user.setId(TestDataUtil.FIXED_UUID));
+            return users;
+        });
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            userService.createUsers(List.of(TestDataUtil.createUserDTO()));
+
+            TransactionSynchronizationUtils.invokeAfterCompletion(TransactionSynchronizationManager.getSynchronizations(),
+                    TransactionSynchronization.STATUS_ROLLED_BACK);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        verify(userUniquenessIndex, never()).register(any(), any(), any(), any());
+        verify(userSuggestionIndex, never()).register(any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void testCreateUser_GroupsConcurrentCreates() throws Exception {
+        UserCreateBatchingProperties batchingProperties = new UserCreateBatchingProperties();
+        batchingProperties.setEnabled(true);
+        batchingProperties.setMaxBatchSize(3);
+        batchingProperties.setMaxDelay(Duration.ofSeconds(30));
+        UserService groupingUserService = new UserService(userRepository, userChangeRepository, userChangeLog,
+                transactionTemplate, entityManager, validator, userUniquenessIndex, userSuggestionIndex,
+                userUniquenessProperties, batchingProperties, userCache, userJsonCache, userMetrics);
+
+        CreateUserDTO first = TestDataUtil.createUserDTO();
+        CreateUserDTO second = TestDataUtil.createUserDTO();
+        second.setUsername("second_user");
+        second.setPhoneNumber("+222222222");
+        CreateUserDTO sameEmail = TestDataUtil.createUserDTO();
+        sameEmail.setUsername("same_email");
+        sameEmail.setEmail("second@example.com");
+        second.setEmail("second@example.com");
+        sameEmail.setPhoneNumber("+333333333");
+
+        when(userRepository.findByEmailInOrUsernameInOrPhoneNumberIn(any(), any(), any())).thenReturn(List.of());
+        when(userRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<User> users = invocation.getArgument(0);
+            users.forEach(user -> user.setId(UUID.randomUUID()));
+            return users;
+        });
+
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            List<Future<UUID>> futures = new ArrayList<>();
+            for (CreateUserDTO createUserDTO : List.of(first, second, sameEmail)) {
+                futures.add(executor.submit(() -> groupingUserService.createUser(createUserDTO)));
+            }
+
+            int created = 0;
+            int conflicts = 0;
+            for (Future<UUID> future : futures) {
+                try {
+                    assertNotNull(future.get());
+                    created++;
+                } catch (ExecutionException ex) {
+                    UniqueConstraintViolationException conflict = (UniqueConstraintViolationException) ex.getCause();
+                    assertEquals("Email is already in use", conflict.getErrors().get("email"));
+                    conflicts++;
+                }
+            }
+
+            assertEquals(2, created);
+            assertEquals(1, conflicts);
+            verify(userRepository, times(1)).findByEmailInOrUsernameInOrPhoneNumberIn(any(), any(), any());
+            verify(userRepository, times(1)).saveAll(anyList());
+            verify(userChangeLog, times(1)).record(anyList(), any());
+        } finally {
+            executor.shutdownNow();
+            groupingUserService.destroy();
+        }
     }
 
     @Test
@@ -102,14 +409,107 @@ class UserServiceTest {
         User user = TestDataUtil.createUser();
         users.add(user);
 
-        when(userRepository.findAll()).thenReturn(users);
+        when(userRepository.findAllByOrderByIdAsc(Limit.of(11))).thenReturn(users);
 
-        List<UserDTO> result = userService.getAllUsers();
+        PageDTO<UserDTO> result = userService.getAllUsers(10, null);
 
         assertNotNull(result);
-        assertEquals(1, result.size());
-        assertEquals("john_doe", result.get(0).getUsername());
-        verify(userRepository, times(1)).findAll();
+        assertEquals(1, result.getItems().size());
+        assertEquals("john_doe", result.getItems().get(0).getUsername());
+        assertNull(result.getNextCursor());
+        verify(userRepository, times(1)).findAllByOrderByIdAsc(Limit.of(11));
+    }
+
+    @Test
+    void testGetAllUsers_NextPage() {
+        User first = TestDataUtil.createUser();
+        User second = TestDataUtil.createUser();
+        second.setId(UUID.fromString("123e4567-e89b-12d3-a456-426614174001"));
+        String cursor = CursorCodec.encode(UUID.fromString("123e4567-e89b-12d3-a456-426614173999"));
+
+        when(userRepository.findByIdGreaterThanOrderByIdAsc(
+                UUID.fromString("123e4567-e89b-12d3-a456-426614173999"), Limit.of(2)))
+                .thenReturn(List.of(first, second));
+
+        PageDTO<UserDTO> result = userService.getAllUsers(1, cursor);
+
+        assertEquals(1, result.getItems().size());
+        assertEquals(TestDataUtil.FIXED_UUID, result.getItems().get(0).getId());
+        assertEquals(TestDataUtil.FIXED_UUID, CursorCodec.decode(result.getNextCursor()));
+    }
+
+    @Test
+    void testGetAllUsersJson_ReusesJsonOfUnchangedUsers() {
+        User user = TestDataUtil.createUser();
+        user.setVersion(0L);
+
+        when(userRepository.findAllByOrderByIdAsc(Limit.of(11))).thenReturn(List.of(user));
+
+        UserJson first = userService.getAllUsersJson(10, null).getItems().get(0);
+        UserJson second = userService.getAllUsersJson(10, null).getItems().get(0);
+
+        assertSame(first, second);
+        assertTrue(first.json().getValue().contains("\"username\":\"john_doe\""));
+
+        user.setUsername("johnny");
+        user.setVersion(1L);
+        UserJson changed = userService.getAllUsersJson(10, null).getItems().get(0);
+
+        assertEquals(1L, changed.version());
+        assertTrue(changed.json().getValue().contains("\"username\":\"johnny\""));
+    }
+
+    @Test
+    void testDeleteUser_InvalidatesJson() {
+        when(userRepository.deleteUserById(TestDataUtil.FIXED_UUID)).thenReturn(1);
+
+        userService.deleteUser(TestDataUtil.FIXED_UUID);
+
+        verify(userJsonCache, times(1)).invalidate(TestDataUtil.FIXED_UUID);
+    }
+
+    @Test
+    void testGetAllUsers_MalformedCursor() {
+        assertThrows(InvalidRequestException.class, () -> userService.getAllUsers(10, "not-a-cursor"));
+        verify(userRepository, never()).findByIdGreaterThanOrderByIdAsc(any(), any());
+    }
+
+    @Test
+    void testExportUsers_DetachesEachRow() {
+        User user = TestDataUtil.createUser();
+        List<UserDTO> exported = new ArrayList<>();
+
+        when(userRepository.streamAll()).thenReturn(Stream.of(user));
+
+        userService.exportUsers(exported::add);
+
+        assertEquals(1, exported.size());
+        assertEquals("john_doe", exported.get(0).getUsername());
+        verify(entityManager, times(1)).detach(user);
+    }
+
+    @Test
+    void testSuggestUsers_IndexFollowsWrites() {
+        doReturn(true).when(userSuggestionIndex).isActive();
+        when(userRepository.save(any(User.class))).thenReturn(TestDataUtil.createUser());
+        when(userRepository.deleteUserById(TestDataUtil.FIXED_UUID)).thenReturn(1);
+
+        userService.createUser(TestDataUtil.createUserDTO());
+
+        assertEquals(List.of("john_doe"), userService.suggestUsers("JOHN", 10).stream().map(UserSuggestionDTO::getUsername).toList());
+        assertEquals(1, userService.suggestUsers("john d", 10).size());
+        assertEquals(1, userService.suggestUsers("john.", 10).size());
+        assertEquals(1, userService.suggestUsers("doe", 10).size());
+
+        userService.deleteUser(TestDataUtil.FIXED_UUID);
+
+        assertTrue(userService.suggestUsers("john", 10).isEmpty());
+        verify(userRepository, never()).findBy(ArgumentMatchers.<Specification<User>>any(), any());
+    }
+
+    @Test
+    void testSuggestUsers_BlankQuery() {
+        assertThrows(InvalidRequestException.class, () -> userService.suggestUsers(" ", 10));
     }
 
     @Test
@@ -136,6 +536,29 @@ class UserServiceTest {
         verify(userRepository, times(1)).findById(TestDataUtil.FIXED_UUID);
     }
 
+    @Test
+    void testGetUserById_CachesFoundAndMissingUsers() {
+        UserCacheProperties cacheProperties = new UserCacheProperties();
+        cacheProperties.setEnabled(true);
+        UserCache enabledCache = new UserCache(cacheProperties, new SimpleMeterRegistry());
+        UserService cachedUserService = new UserService(userRepository, userChangeRepository, userChangeLog,
+                transactionTemplate, entityManager, validator, userUniquenessIndex, userSuggestionIndex,
+                userUniquenessProperties, userCreateBatchingProperties, enabledCache, userJsonCache, userMetrics);
+        UUID missingId = UUID.randomUUID();
+
+        when(userRepository.findById(TestDataUtil.FIXED_UUID)).thenReturn(Optional.of(TestDataUtil.createUser()));
+        when(userRepository.findById(missingId)).thenReturn(Optional.empty());
+
+        cachedUserService.getUserById(TestDataUtil.FIXED_UUID);
+        UserDTO result = cachedUserService.getUserById(TestDataUtil.FIXED_UUID);
+        assertThrows(EntityNotFoundException.class, () -> cachedUserService.getUserById(missingId));
+        assertThrows(EntityNotFoundException.class, () -> cachedUserService.getUserById(missingId));
+
+        assertEquals("john_doe", result.getUsername());
+        verify(userRepository, times(1)).findById(TestDataUtil.FIXED_UUID);
+        verify(userRepository, times(1)).findById(missingId);
+    }
+
     @Test
     void testUpdateUser_Success() {
         User existingUser = TestDataUtil.createUser();
@@ -152,6 +575,18 @@ class UserServiceTest {
         verify(userRepository, times(1)).save(any(User.class));
     }
 
+    @Test
+    void testUpdateUser_StaleVersion() {
+        User existingUser = TestDataUtil.createUser();
+        existingUser.setVersion(4L);
+
+        when(userRepository.findById(TestDataUtil.FIXED_UUID)).thenReturn(Optional.of(existingUser));
+
+        assertThrows(PreconditionFailedException.class,
+                () -> userService.updateUser(TestDataUtil.FIXED_UUID, TestDataUtil.createUserDTO(), 3L));
+        verify(userRepository, never()).save(any(User.class));
+    }
+
     @Test
     void testUpdateUser_DuplicateFields() {
         CreateUserDTO updateUserDTO = TestDataUtil.createUserDTO();
@@ -198,22 +633,154 @@ class UserServiceTest {
     }
 
     @Test
-    void testDeleteUser_Success() {
+    void testPatchUser_NonUniqueFieldSkipsUniquenessQuery() {
+        PatchUserDTO patchUserDTO = new PatchUserDTO();
+        patchUserDTO.setFirstName("Johnny");
+
+        when(userRepository.updateIfVersion(TestDataUtil.FIXED_UUID, 2L, Map.of("firstName", "Johnny"))).thenReturn(1);
+
+        long version = userService.patchUser(TestDataUtil.FIXED_UUID, patchUserDTO, 2L);
+
+        assertEquals(3L, version);
+        verify(userRepository, never()).findByEmailOrUsernameOrPhoneNumberAndIdNot(any(), any(), any(), any());
+        verify(userRepository, never()).findById(any());
+    }
+
+    @Test
+    void testPatchUser_ChecksOnlyPatchedUniqueFields() {
+        PatchUserDTO patchUserDTO = new PatchUserDTO();
+        patchUserDTO.setEmail("duplicate@example.com");
+
+        User conflictingUser = TestDataUtil.createUser();
+        conflictingUser.setId(UUID.randomUUID());
+        conflictingUser.setEmail("duplicate@example.com");
+
+        when(userRepository.findByEmailOrUsernameOrPhoneNumberAndIdNot("duplicate@example.com", null, null, TestDataUtil.FIXED_UUID))
+                .thenReturn(List.of(conflictingUser));
+
+        UniqueConstraintViolationException exception = assertThrows(UniqueConstraintViolationException.class,
+                () -> userService.patchUser(TestDataUtil.FIXED_UUID, patchUserDTO, 2L));
+
+        assertEquals(Map.of("email", "Email is already in use"), exception.getErrors());
+        verify(userRepository, never()).updateIfVersion(any(), anyLong(), any());
+    }
+
+    @Test
+    void testPatchUser_StaleVersion() {
+        PatchUserDTO patchUserDTO = new PatchUserDTO();
+        patchUserDTO.setLastName("Smith");
+
+        when(userRepository.updateIfVersion(TestDataUtil.FIXED_UUID, 2L, Map.of("lastName", "Smith"))).thenReturn(0);
         when(userRepository.existsById(TestDataUtil.FIXED_UUID)).thenReturn(true);
-        doNothing().when(userRepository).deleteById(TestDataUtil.FIXED_UUID);
+
+        assertThrows(PreconditionFailedException.class,
+                () -> userService.patchUser(TestDataUtil.FIXED_UUID, patchUserDTO, 2L));
+    }
+
+    @Test
+    void testPatchUser_NotFound() {
+        PatchUserDTO patchUserDTO = new PatchUserDTO();
+        patchUserDTO.setLastName("Smith");
+
+        when(userRepository.updateIfVersion(TestDataUtil.FIXED_UUID, 2L, Map.of("lastName", "Smith"))).thenReturn(0);
+        when(userRepository.existsById(TestDataUtil.FIXED_UUID)).thenReturn(false);
+
+        assertThrows(EntityNotFoundException.class,
+                () -> userService.patchUser(TestDataUtil.FIXED_UUID, patchUserDTO, 2L));
+    }
+
+    @Test
+    void testDeleteUser_Success() {
+        when(userRepository.deleteUserById(TestDataUtil.FIXED_UUID)).thenReturn(1);
 
         userService.deleteUser(TestDataUtil.FIXED_UUID);
 
-        verify(userRepository, times(1)).deleteById(TestDataUtil.FIXED_UUID);
+        verify(userRepository, times(1)).deleteUserById(TestDataUtil.FIXED_UUID);
+        verify(userRepository, never()).existsById(any());
+        verify(userChangeLog).record(TestDataUtil.FIXED_UUID, UserChange.Type.DELETED);
     }
 
     @Test
     void testDeleteUser_NotFound() {
-        when(userRepository.existsById(TestDataUtil.FIXED_UUID)).thenReturn(false);
+        when(userRepository.deleteUserById(TestDataUtil.FIXED_UUID)).thenReturn(0);
 
         assertThrows(EntityNotFoundException.class, () -> {
             userService.deleteUser(TestDataUtil.FIXED_UUID);
         });
-        verify(userRepository, times(1)).existsById(TestDataUtil.FIXED_UUID);
+        verify(userRepository, times(1)).deleteUserById(TestDataUtil.FIXED_UUID);
+        verify(userChangeLog, never()).record(any(UUID.class), any());
+    }
+
+    @Test
+    void testDeleteUsers_ReportsNotFound() {
+        UUID missingId = UUID.randomUUID();
+        List<UUID> ids = List.of(TestDataUtil.FIXED_UUID, missingId, TestDataUtil.FIXED_UUID);
+
+        when(userRepository.lockExistingIds(List.of(TestDataUtil.FIXED_UUID, missingId))).thenReturn(List.of(TestDataUtil.FIXED_UUID));
+        when(userRepository.deleteUsersByIdIn(List.of(TestDataUtil.FIXED_UUID))).thenReturn(1);
+
+        BulkDeleteResultDTO result = userService.deleteUsers(ids);
+
+        assertEquals(1, result.getDeleted());
+        assertEquals(List.of(missingId), result.getNotFound());
+    }
+
+    @Test
+    void testDeleteUsers_DeletesInChunks() {
+        List<UUID> ids = Stream.generate(UUID::randomUUID).limit(2500).toList();
+
+        when(userRepository.lockExistingIds(anyList())).thenAnswer(invocation -> new ArrayList<>(invocation.getArgument(0)));
+        when(userRepository.deleteUsersByIdIn(anyList())).thenAnswer(invocation -> invocation.<List<UUID>>getArgument(0).size());
+
+        BulkDeleteResultDTO result = userService.deleteUsers(ids);
+
+        assertEquals(2500, result.getDeleted());
+        assertTrue(result.getNotFound().isEmpty());
+        verify(userRepository, times(3)).deleteUsersByIdIn(anyList());
+    }
+
+    @Test
+    void testGetChanges_ListsLatestChangePerUser() {
+        UUID createdId = UUID.randomUUID();
+        UUID deletedLaterId = UUID.randomUUID();
+        User user = TestDataUtil.createUser();
+        user.setId(createdId);
+
+        when(userChangeRepository.findBySeqGreaterThanOrderBySeqAsc(10L, Limit.of(4))).thenReturn(List.of(
+                change(11, createdId, UserChange.Type.CREATED),
+                change(12, deletedLaterId, UserChange.Type.UPDATED),
+                change(13, createdId, UserChange.Type.UPDATED),
+                change(14, deletedLaterId, UserChange.Type.DELETED)));
+        when(userRepository.findAllById(List.of(deletedLaterId, createdId))).thenReturn(List.of(user));
+
+        ChangeFeedDTO feed = userService.getChanges("10", 3);
+
+        assertEquals(1, feed.getChanges().size());
+        assertEquals(13, feed.getChanges().get(0).getSeq());
+        assertEquals(UserChange.Type.UPDATED, feed.getChanges().get(0).getType());
+        assertEquals(createdId, feed.getChanges().get(0).getUser().getId());
+        assertEquals("13", feed.getNextSince());
+        assertTrue(feed.isHasMore());
+    }
+
+    @Test
+    void testGetChanges_KeepsTokenWhenNothingChanged() {
+        when(userChangeRepository.findBySeqGreaterThanOrderBySeqAsc(0L, Limit.of(51))).thenReturn(List.of());
+
+        ChangeFeedDTO feed = userService.getChanges(null, 50);
+
+        assertTrue(feed.getChanges().isEmpty());
+        assertEquals("0", feed.getNextSince());
+        assertThrows(InvalidRequestException.class, () -> userService.getChanges("-1", 50));
+        assertThrows(InvalidRequestException.class, () -> userService.getChanges("abc", 50));
+    }
+
+    private static UserChange change(long seq, UUID userId, UserChange.Type type) {
+        UserChange change = new UserChange();
+        change.setSeq(seq);
+        change.setUserId(userId);
+        change.setType(type);
+        change.setChangedAt(Instant.now());
+        return change;
     }
-}
\ No newline at end of file
+}
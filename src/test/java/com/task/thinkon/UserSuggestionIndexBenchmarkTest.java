@@ -0,0 +1,84 @@
+package com.task.thinkon;
+
+import com.task.thinkon.service.UserSuggestionIndex;
+import lombok.extern.slf4j.Slf4j;
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Memory footprint and lookup latency of {@link UserSuggestionIndex} with {@value #USERS} synthetic users, built in
+ * memory without a database. Run with {@code mvn test -Pbenchmark -Dtest=UserSuggestionIndexBenchmarkTest}, with
+ * a heap large enough for the index ({@code -DargLine=-Xmx2g}).
+ * <p>
+ * The footprint is the growth of the used heap after a full GC, so it includes the user strings the index keeps.
+ */
+@Slf4j
+@Tag("benchmark")
+class UserSuggestionIndexBenchmarkTest {
+
+    private static final int USERS = 1_000_000;
+    private static final int LOOKUPS = 1_000_000;
+    private static final String[] FIRST_NAMES = {"James", "Mary", "Robert", "Patricia", "John", "Jennifer", "Michael",
+            "Linda", "David", "Elizabeth", "William", "Barbara", "Richard", "Susan", "Joseph", "Jessica", "Thomas", "Sarah"};
+    private static final String[] LAST_NAMES = {"Smith", "Johnson", "Williams", "Brown", "Jones", "Garcia", "Miller",
+            "Davis", "Rodriguez", "Martinez", "Hernandez", "Lopez", "Gonzalez", "Wilson", "Anderson", "Thomas", "Taylor"};
+
+    @Test
+    void measureFootprintAndLookupLatency() {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        UserSuggestionIndex index = new UserSuggestionIndex(null, null, true);
+
+        long heapBefore = usedHeapAfterGc(memory);
+        long start = System.nanoTime();
+        for (int i = 0; i < USERS; i++) {
+            String firstName = FIRST_NAMES[i % FIRST_NAMES.length];
+            String lastName = LAST_NAMES[(i / FIRST_NAMES.length) % LAST_NAMES.length] + i;
+            String username = (firstName.charAt(0) + lastName).toLowerCase() + "_" + Integer.toString(i, 36);
+            index.register(UUID.randomUUID(), username, firstName, lastName, username + "@example.com");
+        }
+        long loadMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        long footprint = usedHeapAfterGc(memory) - heapBefore;
+
+        // Warm up, then time lookups of 1 to 4 character prefixes of full names and usernames
+        Histogram latency = new Histogram(TimeUnit.SECONDS.toNanos(1), 3);
+        for (int round = 0; round < 2; round++) {
+            latency.reset();
+            for (int i = 0; i < LOOKUPS; i++) {
+                String query = query(ThreadLocalRandom.current());
+                long lookupStart = System.nanoTime();
+                int found = index.suggest(query, 10).size();
+                latency.recordValue(System.nanoTime() - lookupStart);
+                assertTrue(found > 0, query);
+            }
+        }
+
+        log.info("{} users loaded in {} ms, {} MB ({} bytes per user)",
+                USERS, loadMillis, String.format("%.1f", footprint / 1024.0 / 1024.0), footprint / USERS);
+        log.info("top-10 lookup: p50 {} us, p99 {} us, p99.9 {} us, max {} us",
+                latency.getValueAtPercentile(50) / 1000.0, latency.getValueAtPercentile(99) / 1000.0,
+                latency.getValueAtPercentile(99.9) / 1000.0, latency.getMaxValue() / 1000.0);
+    }
+
+    private static String query(ThreadLocalRandom random) {
+        String term = random.nextBoolean()
+                ? FIRST_NAMES[random.nextInt(FIRST_NAMES.length)] + " " + LAST_NAMES[random.nextInt(LAST_NAMES.length)]
+                : FIRST_NAMES[random.nextInt(FIRST_NAMES.length)].charAt(0) + LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+        return term.substring(0, Math.min(term.length(), 1 + random.nextInt(4)));
+    }
+
+    private static long usedHeapAfterGc(MemoryMXBean memory) {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+}
@@ -0,0 +1,71 @@
+package com.task.thinkon;
+
+import com.task.thinkon.dto.UserSuggestionDTO;
+import com.task.thinkon.repository.UserRepository;
+import com.task.thinkon.service.UserService;
+import com.task.thinkon.service.UserSuggestionIndex;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Runs the same suggestion queries against the database, which answers while the index is disabled, and against a
+ * {@link UserSuggestionIndex} loaded from the same users.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:suggesttest;DB_CLOSE_DELAY=-1",
+        "users.suggestion-index.enabled=false"
+})
+@ActiveProfiles("h2")
+class UserSuggestionTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private UserSuggestionIndex index;
+
+    @BeforeEach
+    void setUp() {
+        userRepository.saveAll(List.of(
+                TestDataUtil.createUser("alice_w", "Alice", "Walker", "a.walker@example.com", "+15550001"),
+                TestDataUtil.createUser("alicia", "Alicia", "Wong", "alicia@other.org", "+15550002"),
+                TestDataUtil.createUser("bob_w", "Bob", "Walsh", "bob@example.com", "+44770003"),
+                TestDataUtil.createUser("mary", "Mary Ann", "Smith", "mas@example.net", "+15550004")));
+        index = new UserSuggestionIndex(userRepository, transactionTemplate, true);
+        index.rebuild();
+    }
+
+    @AfterEach
+    void tearDown() {
+        userRepository.deleteAllInBatch();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"ali", "ALICE W", "alice walker", "wal", "WONG", "a.w", "bob@", "mary ann s", "mary s",
+            "smith", "mas", "zed"})
+    void testSuggestUsers_IndexAndDatabaseMatchTheSameUsers(String query) {
+        List<String> fromDatabase = usernames(userService.suggestUsers(query, 10));
+        List<String> fromIndex = usernames(index.suggest(query, 10));
+
+        assertEquals(fromDatabase, fromIndex, query);
+    }
+
+    private static List<String> usernames(List<UserSuggestionDTO> suggestions) {
+        return suggestions.stream().map(UserSuggestionDTO::getUsername).sorted().toList();
+    }
+}
@@ -0,0 +1,153 @@
+package com.task.thinkon.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Sends the requests of a {@link UserWorkload} in the open or the closed model and records their latencies per
+ * operation.
+ * <p>
+ * Every request has an intended start time on a schedule, and its latency is measured from that time rather than
+ * from when it was actually sent. A request that had to wait for a slow predecessor, or for the load generator itself,
+ * is charged that wait, which corrects for coordinated omission. The time from sending to the response is recorded
+ * separately as the service time. Only the closed model without a rate has no schedule; each request is then
+ * intended to start when it is sent, and both figures are the same.
+ */
+public class LoadGenerator {
+
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(10);
+
+    private final HttpClient client;
+    private final UserWorkload workload;
+    private final LoadTestSettings settings;
+
+    public LoadGenerator(HttpClient client, UserWorkload workload, LoadTestSettings settings) {
+        this.client = client;
+        this.workload = workload;
+        this.settings = settings;
+    }
+
+    /**
+     * Sends load for {@code duration} and waits for the responses of every request sent.
+     */
+    public Map<Operation, Stats> run(Duration duration) throws Exception {
+        Map<Operation, Stats> stats = new EnumMap<>(Operation.class);
+        for (Operation operation : Operation.values()) {
+            stats.put(operation, new Stats());
+        }
+
+        long start = System.nanoTime();
+        long end = start + duration.toNanos();
+        if (settings.model() == LoadTestSettings.Model.OPEN) {
+            runOpen(stats, start, end);
+        } else {
+            runClosed(stats, start, end);
+        }
+        return stats;
+    }
+
+    /**
+     * Dispatches a request every {@code 1 / rate} seconds from this thread, without waiting for responses.
+     */
+    private void runOpen(Map<Operation, Stats> stats, long start, long end) throws Exception {
+        long interval = (long) (TimeUnit.SECONDS.toNanos(1) / settings.rate());
+        List<CompletableFuture<Void>> pending = new ArrayList<>();
+        for (long intended = start; intended < end; intended += interval) {
+            long delay = intended - System.nanoTime();
+            if (delay > 0) {
+                LockSupport.parkNanos(delay);
+            }
+            pending.add(send(stats, intended));
+            pending.removeIf(CompletableFuture::isDone);
+        }
+        CompletableFuture.allOf(pending.toArray(CompletableFuture[]::new)).get();
+    }
+
+    /**
+     * Runs {@code concurrency} users. Each sends its next request when the previous one has completed, and no earlier
+     * than its next slot on the schedule when a rate is set.
+     */
+    private void runClosed(Map<Operation, Stats> stats, long start, long end) throws Exception {
+        Long interval = Objects.isNull(settings.rate()) ? null
+                : (long) (TimeUnit.SECONDS.toNanos(1) * settings.concurrency() / settings.rate());
+        List<CompletableFuture<Void>> users = new ArrayList<>();
+        for (int i = 0; i < settings.concurrency(); i++) {
+            // Spread the first requests of the users over one interval instead of sending them all at once
+            long first = Objects.isNull(interval) ? start : start + interval * i / settings.concurrency();
+            users.add(nextRequest(stats, first, interval, end));
+        }
+        CompletableFuture.allOf(users.toArray(CompletableFuture[]::new)).get();
+    }
+
+    private CompletableFuture<Void> nextRequest(Map<Operation, Stats> stats, long intended, Long interval, long end) {
+        if (intended >= end) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        long delay = intended - System.nanoTime();
+        Executor executor = delay > 0
+                ? CompletableFuture.delayedExecutor(delay, TimeUnit.NANOSECONDS)
+                : Runnable::run;
+        return CompletableFuture.supplyAsync(() -> Objects.isNull(interval) ? System.nanoTime() : intended, executor)
+                .thenCompose(start -> send(stats, start)
+                        .thenCompose(ignored -> nextRequest(stats,
+                                Objects.isNull(interval) ? System.nanoTime() : start + interval, interval, end)));
+    }
+
+    private CompletableFuture<Void> send(Map<Operation, Stats> stats, long intended) {
+        UserWorkload.Call call = workload.next();
+        long sent = System.nanoTime();
+        return client.sendAsync(call.request(), HttpResponse.BodyHandlers.ofString())
+                .handle((response, error) -> {
+                    long completed = System.nanoTime();
+                    stats.get(call.operation()).record(intended, sent, completed, Objects.isNull(response) ? -1 : response.statusCode());
+                    if (Objects.nonNull(response)) {
+                        call.onResponse().accept(response);
+                    }
+                    return null;
+                });
+    }
+
+    /**
+     * Latencies and response statuses of one operation. Status {@code -1} counts requests that failed without a
+     * response.
+     */
+    public static final class Stats {
+        private final Histogram latency = new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3);
+        private final Histogram serviceTime = new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3);
+        private final Map<Integer, LongAdder> statuses = new ConcurrentHashMap<>();
+
+        private void record(long intended, long sent, long completed, int status) {
+            latency.recordValue(Math.min(HIGHEST_TRACKABLE_MICROS, TimeUnit.NANOSECONDS.toMicros(completed - intended)));
+            serviceTime.recordValue(Math.min(HIGHEST_TRACKABLE_MICROS, TimeUnit.NANOSECONDS.toMicros(completed - sent)));
+            statuses.computeIfAbsent(status, key -> new LongAdder()).increment();
+        }
+
+        public Histogram latency() {
+            return latency;
+        }
+
+        public Histogram serviceTime() {
+            return serviceTime;
+        }
+
+        public Map<Integer, LongAdder> statuses() {
+            return statuses;
+        }
+    }
+}
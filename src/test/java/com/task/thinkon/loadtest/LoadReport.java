@@ -0,0 +1,140 @@
+package com.task.thinkon.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+/**
+ * Machine-readable result of a load test run. Percentiles are in milliseconds; {@code latencyHistogram} is the full
+ * latency distribution in microseconds, as a base64 compressed HdrHistogram, so runs can be compared exactly.
+ */
+public record LoadReport(String model,
+                         Double targetRate,
+                         Integer concurrency,
+                         double durationSeconds,
+                         Map<Operation, Integer> mix,
+                         String startedAt,
+                         OperationReport total,
+                         Map<Operation, OperationReport> operations) {
+
+    public static LoadReport of(LoadTestSettings settings, Instant startedAt, Duration duration,
+                                Map<Operation, LoadGenerator.Stats> stats) {
+        Map<Operation, OperationReport> operations = new LinkedHashMap<>();
+        Histogram totalLatency = new Histogram(3);
+        Histogram totalServiceTime = new Histogram(3);
+        Map<String, Long> totalStatuses = new TreeMap<>();
+        stats.forEach((operation, operationStats) -> {
+            if (operationStats.latency().getTotalCount() == 0) {
+                return;
+            }
+
+            Map<String, Long> statuses = new TreeMap<>();
+            operationStats.statuses().forEach((status, count) -> statuses.put(String.valueOf(status), count.sum()));
+            operations.put(operation, OperationReport.of(operationStats.latency(), operationStats.serviceTime(), statuses, duration));
+
+            totalLatency.add(operationStats.latency());
+            totalServiceTime.add(operationStats.serviceTime());
+            statuses.forEach((status, count) -> totalStatuses.merge(status, count, Long::sum));
+        });
+
+        return new LoadReport(settings.model().name().toLowerCase(Locale.ROOT),
+                settings.rate(),
+                settings.model() == LoadTestSettings.Model.CLOSED ? settings.concurrency() : null,
+                duration.toMillis() / 1000.0,
+                settings.mix(),
+                startedAt.toString(),
+                OperationReport.of(totalLatency, totalServiceTime, totalStatuses, duration),
+                operations);
+    }
+
+    public void write(Path path, ObjectMapper objectMapper) throws IOException {
+        if (Objects.nonNull(path.getParent())) {
+            Files.createDirectories(path.getParent());
+        }
+        objectMapper.writer().with(SerializationFeature.INDENT_OUTPUT).writeValue(path.toFile(), this);
+    }
+
+    /**
+     * The percentiles of every operation and of the total as a text table, for the test log.
+     */
+    public String table() {
+        StringBuilder table = new StringBuilder();
+        table.append(String.format("%s model, %.0f s%s%n", model, durationSeconds,
+                Objects.isNull(targetRate) ? "" : String.format(", target %.0f req/s", targetRate)));
+        table.append(String.format("%-10s %10s %8s %10s %10s %10s %10s %12s%n",
+                "operation", "req/s", "errors", "p50 ms", "p90 ms", "p99 ms", "max ms", "svc p99 ms"));
+        operations.forEach((operation, report) -> table.append(report.row(operation.name())));
+        table.append(total.row("TOTAL"));
+        return table.toString();
+    }
+
+    /**
+     * @param errors        requests without a response or answered with a 5xx status
+     * @param statuses      requests per response status, {@code -1} for those without a response
+     * @param latencyMs     from the intended start of each request to its response
+     * @param serviceTimeMs from the actual sending of each request to its response
+     */
+    public record OperationReport(long requests,
+                                  double throughput,
+                                  long errors,
+                                  Map<String, Long> statuses,
+                                  Percentiles latencyMs,
+                                  Percentiles serviceTimeMs,
+                                  String latencyHistogram) {
+
+        static OperationReport of(Histogram latency, Histogram serviceTime, Map<String, Long> statuses, Duration duration) {
+            long errors = statuses.entrySet().stream()
+                    .filter(status -> status.getKey().equals("-1") || status.getKey().startsWith("5"))
+                    .mapToLong(Map.Entry::getValue)
+                    .sum();
+            return new OperationReport(latency.getTotalCount(),
+                    latency.getTotalCount() * 1000.0 / duration.toMillis(),
+                    errors,
+                    statuses,
+                    Percentiles.of(latency),
+                    Percentiles.of(serviceTime),
+                    encode(latency));
+        }
+
+        private String row(String name) {
+            return String.format("%-10s %10.1f %8d %10.2f %10.2f %10.2f %10.2f %12.2f%n", name, throughput, errors,
+                    latencyMs.p50(), latencyMs.p90(), latencyMs.p99(), latencyMs.max(), serviceTimeMs.p99());
+        }
+
+        private static String encode(Histogram histogram) {
+            ByteBuffer buffer = ByteBuffer.allocate(histogram.getNeededByteBufferCapacity());
+            int length = histogram.encodeIntoCompressedByteBuffer(buffer);
+            return Base64.getEncoder().encodeToString(Arrays.copyOf(buffer.array(), length));
+        }
+    }
+
+    public record Percentiles(double p50, double p90, double p99, double p999, double max, double mean) {
+
+        static Percentiles of(Histogram histogram) {
+            return new Percentiles(millis(histogram.getValueAtPercentile(50)),
+                    millis(histogram.getValueAtPercentile(90)),
+                    millis(histogram.getValueAtPercentile(99)),
+                    millis(histogram.getValueAtPercentile(99.9)),
+                    millis(histogram.getMaxValue()),
+                    histogram.getMean() / 1000);
+        }
+
+        private static double millis(long micros) {
+            return micros / 1000.0;
+        }
+    }
+}
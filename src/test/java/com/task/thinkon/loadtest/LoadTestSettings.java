@@ -0,0 +1,78 @@
+package com.task.thinkon.loadtest;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Load test parameters, read from {@code loadtest.*} system properties so they can be passed on the Maven command
+ * line.
+ *
+ * @param model          {@code loadtest.model}: {@code open} sends requests at a fixed arrival rate regardless of how
+ *                       fast they complete; {@code closed} runs a fixed number of users that each wait for their
+ *                       response before sending the next request
+ * @param rate           {@code loadtest.rate}: requests per second across all users. Required for the open model; for
+ *                       the closed model it paces the users, and without it they send as fast as they can
+ * @param concurrency    {@code loadtest.concurrency}: number of users of the closed model
+ * @param warmup         {@code loadtest.warmup}: load sent before measuring
+ * @param duration       {@code loadtest.duration}: measured load
+ * @param mix            {@code loadtest.mix}: relative weight of each operation, e.g. {@code get=60,list=10,create=15}
+ * @param users          {@code loadtest.users}: users created before the run, for the operations that need one
+ * @param baseUrl        {@code loadtest.base-url}: application to load; {@code null} starts one in-process
+ * @param report         {@code loadtest.report}: path of the JSON report
+ */
+public record LoadTestSettings(Model model,
+                               Double rate,
+                               int concurrency,
+                               Duration warmup,
+                               Duration duration,
+                               Map<Operation, Integer> mix,
+                               int users,
+                               String baseUrl,
+                               String report) {
+
+    public enum Model {
+        OPEN,
+        CLOSED
+    }
+
+    public LoadTestSettings {
+        if (model == Model.OPEN && Objects.isNull(rate)) {
+            throw new IllegalArgumentException("loadtest.rate must be set for the open model");
+        }
+        if (Objects.nonNull(rate) && rate <= 0) {
+            throw new IllegalArgumentException("loadtest.rate must be positive");
+        }
+        if (mix.values().stream().mapToInt(Integer::intValue).sum() <= 0) {
+            throw new IllegalArgumentException("loadtest.mix must give at least one operation a positive weight");
+        }
+    }
+
+    public static LoadTestSettings fromSystemProperties() {
+        String rate = System.getProperty("loadtest.rate");
+        return new LoadTestSettings(
+                Model.valueOf(System.getProperty("loadtest.model", "closed").toUpperCase(Locale.ROOT)),
+                Objects.isNull(rate) ? null : Double.valueOf(rate),
+                Integer.getInteger("loadtest.concurrency", 32),
+                Duration.parse("PT" + System.getProperty("loadtest.warmup", "5s")),
+                Duration.parse("PT" + System.getProperty("loadtest.duration", "30s")),
+                parseMix(System.getProperty("loadtest.mix", "get=60,list=10,create=15,update=10,delete=5")),
+                Integer.getInteger("loadtest.users", 1000),
+                System.getProperty("loadtest.base-url"),
+                System.getProperty("loadtest.report", "target/loadtest/report.json"));
+    }
+
+    static Map<Operation, Integer> parseMix(String mix) {
+        Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+        for (String entry : mix.split(",")) {
+            String[] weight = entry.trim().split("=");
+            if (weight.length != 2) {
+                throw new IllegalArgumentException("Malformed loadtest.mix entry: " + entry);
+            }
+            weights.put(Operation.valueOf(weight[0].trim().toUpperCase(Locale.ROOT)), Integer.parseInt(weight[1].trim()));
+        }
+        return weights;
+    }
+}
@@ -0,0 +1,37 @@
+package com.task.thinkon.loadtest;
+
+/**
+ * The requests of the load mix, all against {@code /users}.
+ */
+public enum Operation {
+
+    /**
+     * {@code POST /users} with a new user.
+     */
+    CREATE,
+
+    /**
+     * {@code POST /users} with a new user that reuses the email of an existing one, normally answered with 409.
+     */
+    CONFLICT,
+
+    /**
+     * {@code GET /users/{id}} of an existing user.
+     */
+    GET,
+
+    /**
+     * {@code PUT /users/{id}} of an existing user, changing its first name.
+     */
+    UPDATE,
+
+    /**
+     * {@code DELETE /users/{id}} of an existing user.
+     */
+    DELETE,
+
+    /**
+     * {@code GET /users}, the first page of 50 users.
+     */
+    LIST
+}
@@ -0,0 +1,197 @@
+package com.task.thinkon.loadtest;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.task.thinkon.dto.CreateUserDTO;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Builds the requests of the operation mix and keeps track of the users they can address. Users created by the
+ * workload get unique values derived from a per-run prefix and a sequence number, so that runs never collide.
+ */
+public class UserWorkload {
+
+    private static final String JSON = "application/json";
+    private static final Consumer<HttpResponse<String>> IGNORE = response -> {
+    };
+
+    private final URI baseUri;
+    private final ObjectMapper objectMapper;
+    private final Operation[] operations;
+    private final int[] cumulativeWeights;
+    private final String prefix = UUID.randomUUID().toString().substring(0, 8);
+    private final long phonePrefix = 1_000_000L + ThreadLocalRandom.current().nextLong(9_000_000L);
+    private final AtomicLong sequence = new AtomicLong();
+    private final List<PooledUser> users = new ArrayList<>();
+
+    public UserWorkload(String baseUrl, Map<Operation, Integer> mix, ObjectMapper objectMapper) {
+        this.baseUri = URI.create(baseUrl.endsWith("/") ? baseUrl : baseUrl + "/");
+        this.objectMapper = objectMapper;
+        this.operations = mix.keySet().toArray(Operation[]::new);
+        this.cumulativeWeights = new int[operations.length];
+        int total = 0;
+        for (int i = 0; i < operations.length; i++) {
+            total += mix.get(operations[i]);
+            cumulativeWeights[i] = total;
+        }
+    }
+
+    /**
+     * Creates {@code count} users through {@code POST /users/batch}.
+     */
+    public void seed(HttpClient client, int count) throws IOException, InterruptedException {
+        for (int from = 0; from < count; from += 1000) {
+            List<CreateUserDTO> batch = new ArrayList<>();
+            List<Long> numbers = new ArrayList<>();
+            for (int i = from; i < Math.min(from + 1000, count); i++) {
+                long n = sequence.getAndIncrement();
+                batch.add(user(n, "Seed"));
+                numbers.add(n);
+            }
+
+            HttpResponse<String> response = client.send(post("users/batch", batch), HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != 200) {
+                throw new IllegalStateException("Seeding failed with " + response.statusCode() + ": " + response.body());
+            }
+            JsonNode results = objectMapper.readTree(response.body()).get("data");
+            for (int i = 0; i < results.size(); i++) {
+                JsonNode id = results.get(i).get("id");
+                if (!id.isNull()) {
+                    add(new PooledUser(UUID.fromString(id.asText()), numbers.get(i)));
+                }
+            }
+        }
+    }
+
+    /**
+     * The next request of the mix. Operations on an existing user fall back to a create when there is none left.
+     */
+    public Call next() {
+        int pick = ThreadLocalRandom.current().nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        Operation operation = operations[0];
+        for (int i = 0; i < operations.length; i++) {
+            if (pick < cumulativeWeights[i]) {
+                operation = operations[i];
+                break;
+            }
+        }
+
+        return switch (operation) {
+            case CREATE -> create();
+            case CONFLICT -> withUser(false, user -> {
+                CreateUserDTO duplicate = user(sequence.getAndIncrement(), "Conflict");
+                duplicate.setEmail(user(user.n(), "Created").getEmail());
+                return new Call(Operation.CONFLICT, post("users", duplicate), IGNORE);
+            });
+            case LIST -> new Call(Operation.LIST, get("users?limit=50"), IGNORE);
+            case GET -> withUser(false, user -> new Call(Operation.GET, get("users/" + user.id()), IGNORE));
+            case UPDATE -> withUser(false, user -> new Call(Operation.UPDATE,
+                    put("users/" + user.id(), user(user.n(), "Updated")), IGNORE));
+            case DELETE -> withUser(true, user -> new Call(Operation.DELETE, delete("users/" + user.id()), IGNORE));
+        };
+    }
+
+    private Call create() {
+        long n = sequence.getAndIncrement();
+        return new Call(Operation.CREATE, post("users", user(n, "Created")), response -> {
+            if (response.statusCode() == 201) {
+                add(new PooledUser(UUID.fromString(readTree(response.body()).get("data").asText()), n));
+            }
+        });
+    }
+
+    private Call withUser(boolean remove, Function<PooledUser, Call> call) {
+        PooledUser user = remove ? removeRandom() : random();
+        return Objects.isNull(user) ? create() : call.apply(user);
+    }
+
+    private CreateUserDTO user(long n, String firstName) {
+        CreateUserDTO user = new CreateUserDTO();
+        user.setUsername("lt-" + prefix + "-" + n);
+        user.setFirstName(firstName);
+        user.setLastName("Load");
+        user.setEmail("lt-" + prefix + "-" + n + "@example.com");
+        user.setPhoneNumber("+" + phonePrefix + n);
+        return user;
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(baseUri.resolve(path)).GET().build();
+    }
+
+    private HttpRequest delete(String path) {
+        return HttpRequest.newBuilder(baseUri.resolve(path)).DELETE().build();
+    }
+
+    private HttpRequest post(String path, Object body) {
+        return HttpRequest.newBuilder(baseUri.resolve(path))
+                .header("Content-Type", JSON)
+                .POST(HttpRequest.BodyPublishers.ofString(write(body)))
+                .build();
+    }
+
+    private HttpRequest put(String path, Object body) {
+        return HttpRequest.newBuilder(baseUri.resolve(path))
+                .header("Content-Type", JSON)
+                .PUT(HttpRequest.BodyPublishers.ofString(write(body)))
+                .build();
+    }
+
+    private String write(Object body) {
+        try {
+            return objectMapper.writeValueAsString(body);
+        } catch (JsonProcessingException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private JsonNode readTree(String body) {
+        try {
+            return objectMapper.readTree(body);
+        } catch (JsonProcessingException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private synchronized void add(PooledUser user) {
+        users.add(user);
+    }
+
+    private synchronized PooledUser random() {
+        return users.isEmpty() ? null : users.get(ThreadLocalRandom.current().nextInt(users.size()));
+    }
+
+    private synchronized PooledUser removeRandom() {
+        if (users.isEmpty()) {
+            return null;
+        }
+        int index = ThreadLocalRandom.current().nextInt(users.size());
+        PooledUser last = users.remove(users.size() - 1);
+        return index == users.size() ? last : users.set(index, last);
+    }
+
+    /**
+     * A request and what to do with its response.
+     */
+    public record Call(Operation operation, HttpRequest request, Consumer<HttpResponse<String>> onResponse) {
+    }
+
+    private record PooledUser(UUID id, long n) {
+    }
+}